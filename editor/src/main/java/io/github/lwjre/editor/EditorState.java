@@ -2,11 +2,15 @@ package io.github.lwjre.editor;
 
 import imgui.ImGui;
 import io.github.lwjre.editor.controllers.EditorScene;
+import io.github.lwjre.editor.controllers.OverrideResolver;
 import io.github.lwjre.editor.controllers.ProjectCompiler;
+import io.github.lwjre.editor.controllers.ResourceIndex;
+import io.github.lwjre.editor.controllers.SceneLoader;
+import io.github.lwjre.editor.controllers.SceneSaver;
 import io.github.lwjre.editor.controllers.SceneViewport;
 import io.github.lwjre.editor.gui.*;
 import io.github.lwjre.editor.models.ApplicationSettingsEditor;
-import io.github.lwjre.editor.models.EditorClassLoader;
+import io.github.lwjre.editor.utils.EditorFileUtils;
 
 /**
  * Editor state when a project is open.
@@ -21,6 +25,7 @@ public class EditorState implements ApplicationState {
 	private final NewScenePopup newScenePopup = new NewScenePopup();
 	private final TextInputPopup textInputPopup = new TextInputPopup();
 	private final AskConfirmationPopup askConfirmationPopup = new AskConfirmationPopup();
+	private final LoadingScenePopup loadingScenePopup = new LoadingScenePopup();
 	private final InspectorWindow inspectorWindow = new InspectorWindow();
 	private final SceneTreeWindow sceneTreeWindow = new SceneTreeWindow(this.inspectorWindow, this.textInputPopup, this.askConfirmationPopup);
 	private final FileSystemWindow fileSystemWindow = new FileSystemWindow(this.textInputPopup, this.askConfirmationPopup);
@@ -32,7 +37,10 @@ public class EditorState implements ApplicationState {
 
 	@Override
 	public void init() {
-		Thread.currentThread().setContextClassLoader(new EditorClassLoader());
+		EditorFileUtils.createEditorFolder();
+		ResourceIndex.init();
+		OverrideResolver.init();
+		this.projectCompiler.initClassLoader();
 		this.applicationSettingsEditor.read();
 		this.projectCompiler.init();
 		this.sceneViewport.init();
@@ -40,6 +48,8 @@ public class EditorState implements ApplicationState {
 
 	@Override
 	public void process() {
+		SceneLoader.update();
+		this.projectCompiler.update();
 		EditorScene.rootNode().editorProcess();
 		ImGui.dockSpaceOverViewport();
 		this.sceneViewport.update();
@@ -54,11 +64,16 @@ public class EditorState implements ApplicationState {
 		this.newScenePopup.draw();
 		this.textInputPopup.draw();
 		this.askConfirmationPopup.draw();
+		this.loadingScenePopup.draw();
 	}
 
 	@Override
 	public void terminate() {
+		SceneLoader.cancel();
+		SceneSaver.awaitSaves();
 		this.projectCompiler.terminate();
+		OverrideResolver.terminate();
+		ResourceIndex.terminate();
 		this.sceneViewport.cleanUp();
 	}
 }
@@ -69,4 +69,24 @@ public final class ProjectPath {
 	public static Path resourcesFolder(String... path) {
 		return Path.of(resourcesFolder().toString(), path);
 	}
+
+	/**
+	 * Returns the path to the {@code .editor} folder for the current project.
+	 * The editor keeps its caches there, outside of {@code target}, since the project is cleaned every time it is opened.
+	 *
+	 * @return The path to the {@code .editor} folder for the current project
+	 */
+	public static Path editorFolder() {
+		return append(".editor");
+	}
+
+	/**
+	 * Returns the given path appended to the current project's {@code .editor} folder.
+	 *
+	 * @param path The path to append
+	 * @return The given path appended to the current project's {@code .editor} folder
+	 */
+	public static Path editorFolder(String... path) {
+		return Path.of(editorFolder().toString(), path);
+	}
 }
@@ -0,0 +1,261 @@
+package io.github.lwjre.editor.controllers;
+
+import io.github.lwjre.editor.gui.inspector.InspectorVariable;
+import io.github.lwjre.engine.nodes.Node;
+import io.github.lwjre.engine.resources.NodeResource;
+
+/**
+ * Static class used to keep the history of the changes made to the current scene.
+ * Every change is recorded as a small command that knows how to undo and redo itself, so that undoing a change only costs as much as the change itself.
+ * The history is a ring buffer, the oldest changes are forgotten when it is full.
+ *
+ * @author Nico
+ */
+public final class EditorHistory {
+
+	/** Maximum number of changes kept in the history */
+	private static final int CAPACITY = 256;
+	/** Consecutive changes to the same property made within this time are merged into one */
+	private static final long MERGE_MILLIS = 1000;
+	/** Used as the previous value of a property that was not in the resource's properties */
+	private static final Object ABSENT = new Object();
+
+	/** Recorded changes */
+	private static final Command[] commands = new Command[CAPACITY];
+	/** Index of the oldest change in the buffer */
+	private static int start = 0;
+	/** Number of changes in the buffer, including the ones that were undone */
+	private static int size = 0;
+	/** Number of changes that can be undone */
+	private static int position = 0;
+	/** Incremented every time a change is undone or redone or the history is cleared */
+	private static int version = 0;
+
+	/**
+	 * Undoes the last change.
+	 * Does nothing if there are no changes to undo.
+	 */
+	public static void undo() {
+		if(position > 0) {
+			position--;
+			commands[(start + position) % CAPACITY].undo();
+			version++;
+		}
+	}
+
+	/**
+	 * Redoes the last change that was undone.
+	 * Does nothing if there are no changes to redo.
+	 */
+	public static void redo() {
+		if(position < size) {
+			commands[(start + position) % CAPACITY].redo();
+			position++;
+			version++;
+		}
+	}
+
+	/**
+	 * Forgets all the recorded changes.
+	 * Must be called when the current scene is changed or instantiated again, since the recorded changes refer to its nodes.
+	 */
+	public static void clear() {
+		for(int i = 0; i < CAPACITY; i++) {
+			commands[i] = null;
+		}
+		start = 0;
+		size = 0;
+		position = 0;
+		version++;
+	}
+
+	/**
+	 * Returns a number that changes every time a change is undone or redone or the history is cleared.
+	 * Used by guis that cache values of the scene to know when they need to read them again.
+	 *
+	 * @return The current version of the history
+	 */
+	public static int version() {
+		return version;
+	}
+
+	/**
+	 * Records a change to a property made from the inspector.
+	 * Must be called after the property was written to the node and to its resource.
+	 *
+	 * @param resource The resource whose property was changed
+	 * @param node The node whose field was changed
+	 * @param variable The variable that was changed
+	 * @param oldValue Value of the node's field before the change
+	 * @param hadProperty True if the resource had the property before the change, otherwise false
+	 * @param oldProperty Value of the property before the change
+	 * @param newValue The new value
+	 */
+	public static void propertyChanged(NodeResource resource, Node node, InspectorVariable variable, Object oldValue, boolean hadProperty, Object oldProperty, Object newValue) {
+		long time = System.currentTimeMillis();
+		if(position > 0 && position == size && commands[(start + position - 1) % CAPACITY] instanceof PropertyChange last && last.resource == resource && last.variable == variable && time - last.time < MERGE_MILLIS) {
+			commands[(start + position - 1) % CAPACITY] = new PropertyChange(resource, node, variable, last.oldValue, last.oldProperty, newValue, time);
+		} else {
+			record(new PropertyChange(resource, node, variable, oldValue, hadProperty ? oldProperty : ABSENT, newValue, time));
+		}
+	}
+
+	/**
+	 * Records the addition of a child.
+	 * Must be called after the child was added.
+	 *
+	 * @param parentResource Resource the child was added to
+	 * @param parentNode Node the child was added to
+	 * @param key Key of the child
+	 * @param resource The child's resource
+	 * @param node The child node
+	 */
+	public static void childAdded(NodeResource parentResource, Node parentNode, String key, NodeResource resource, Node node) {
+		record(new ChildChange(null, null, null, parentResource, parentNode, key, resource, node));
+	}
+
+	/**
+	 * Records the removal of a child.
+	 * Must be called after the child was removed.
+	 *
+	 * @param parentResource Resource the child was removed from
+	 * @param parentNode Node the child was removed from
+	 * @param key Key of the child
+	 * @param resource The child's resource
+	 * @param node The child node
+	 */
+	public static void childRemoved(NodeResource parentResource, Node parentNode, String key, NodeResource resource, Node node) {
+		record(new ChildChange(parentResource, parentNode, key, null, null, null, resource, node));
+	}
+
+	/**
+	 * Records a child that was moved to a different parent or renamed.
+	 * Must be called after the child was moved.
+	 *
+	 * @param oldParentResource Resource the child was removed from
+	 * @param oldParentNode Node the child was removed from
+	 * @param oldKey Key of the child in its old parent
+	 * @param newParentResource Resource the child was added to
+	 * @param newParentNode Node the child was added to
+	 * @param newKey Key of the child in its new parent
+	 * @param resource The child's resource
+	 * @param node The child node
+	 */
+	public static void childMoved(NodeResource oldParentResource, Node oldParentNode, String oldKey, NodeResource newParentResource, Node newParentNode, String newKey, NodeResource resource, Node node) {
+		record(new ChildChange(oldParentResource, oldParentNode, oldKey, newParentResource, newParentNode, newKey, resource, node));
+	}
+
+	/**
+	 * Adds the given command to the history.
+	 * Changes that were undone are discarded, the oldest change is discarded if the history is full.
+	 *
+	 * @param command The command to add
+	 */
+	private static void record(Command command) {
+		for(int i = position; i < size; i++) {
+			commands[(start + i) % CAPACITY] = null;
+		}
+		size = position;
+		if(size == CAPACITY) {
+			commands[start] = null;
+			start = (start + 1) % CAPACITY;
+			size--;
+		}
+		commands[(start + size) % CAPACITY] = command;
+		size++;
+		position = size;
+	}
+
+	/**
+	 * A change that can be undone and redone.
+	 */
+	private interface Command {
+
+		/**
+		 * Reverts the change.
+		 */
+		void undo();
+
+		/**
+		 * Applies the change again after it was undone.
+		 */
+		void redo();
+	}
+
+	/**
+	 * A change to a property of a node.
+	 *
+	 * @param resource The resource whose property was changed
+	 * @param node The node whose field was changed
+	 * @param variable The variable that was changed
+	 * @param oldValue Value of the node's field before the change
+	 * @param oldProperty Value of the property before the change or {@link EditorHistory#ABSENT}
+	 * @param newValue The new value
+	 * @param time Time of the change in milliseconds, used to merge consecutive changes
+	 */
+	private record PropertyChange(NodeResource resource, Node node, InspectorVariable variable, Object oldValue, Object oldProperty, Object newValue, long time) implements Command {
+
+		@Override
+		public void undo() {
+			this.variable.set(this.node, this.oldValue);
+			if(this.oldProperty == ABSENT) {
+				this.resource.properties.remove(this.variable.name());
+			} else {
+				this.resource.properties.put(this.variable.name(), this.oldProperty);
+			}
+			EditorScene.markChanged(this.resource);
+		}
+
+		@Override
+		public void redo() {
+			this.variable.set(this.node, this.newValue);
+			this.resource.properties.put(this.variable.name(), this.newValue);
+			EditorScene.markChanged(this.resource);
+		}
+	}
+
+	/**
+	 * A child that was added, removed, moved or renamed.
+	 * The old parent is null if the child was added and the new parent is null if the child was removed.
+	 *
+	 * @param oldParentResource Resource the child was removed from
+	 * @param oldParentNode Node the child was removed from
+	 * @param oldKey Key of the child in its old parent
+	 * @param newParentResource Resource the child was added to
+	 * @param newParentNode Node the child was added to
+	 * @param newKey Key of the child in its new parent
+	 * @param resource The child's resource
+	 * @param node The child node
+	 */
+	private record ChildChange(NodeResource oldParentResource, Node oldParentNode, String oldKey, NodeResource newParentResource, Node newParentNode, String newKey, NodeResource resource, Node node) implements Command {
+
+		@Override
+		public void undo() {
+			move(this.newParentResource, this.newParentNode, this.newKey, this.oldParentResource, this.oldParentNode, this.oldKey);
+		}
+
+		@Override
+		public void redo() {
+			move(this.oldParentResource, this.oldParentNode, this.oldKey, this.newParentResource, this.newParentNode, this.newKey);
+		}
+
+		/**
+		 * Removes the child from the given parent and adds it to the other one.
+		 *
+		 * @param fromResource Resource to remove the child from or null
+		 * @param fromNode Node to remove the child from or null if the child node had no parent
+		 * @param fromKey Key of the child in the parent it is removed from
+		 * @param toResource Resource to add the child to or null
+		 * @param toNode Node to add the child to or null
+		 * @param toKey Key of the child in the parent it is added to
+		 */
+		private void move(NodeResource fromResource, Node fromNode, String fromKey, NodeResource toResource, Node toNode, String toKey) {
+			if(fromResource != null) {
+				EditorScene.removeChild(fromResource, fromNode, fromKey);
+			}
+			if(toResource != null) {
+				EditorScene.addChild(toResource, toNode, toKey, this.resource, this.node);
+			}
+		}
+	}
+}
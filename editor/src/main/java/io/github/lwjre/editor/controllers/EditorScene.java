@@ -1,13 +1,14 @@
 package io.github.lwjre.editor.controllers;
 
 import io.github.lwjre.editor.ProjectPath;
+import io.github.lwjre.editor.utils.SceneCache;
 import io.github.lwjre.engine.nodes.Node;
 import io.github.lwjre.engine.resources.NodeResource;
 import io.github.lwjre.engine.utils.Reflection;
 import io.github.lwjre.engine.utils.ReflectionException;
-import io.github.lwjre.engine.utils.YamlSerializer;
 
 import java.nio.file.Path;
+import java.util.*;
 
 /**
  * Static class used to store the scene that is currently running in the editor.
@@ -19,26 +20,44 @@ public class EditorScene {
 	/** Path to the current scene in the resources folder */
 	private static String currentPath = null;
 
-	/** Copy of the current scene used to check if there are unsaved changes */
-	private static NodeResource copy = null;
+	/** Resources of the current scene that were changed since the scene was last saved */
+	private static final Set<NodeResource> changedResources = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
 	/** Resource of the current scene */
 	private static NodeResource rootResource = null;
 	/** Root of the current scene */
 	private static Node rootNode = new Node();
+	/** Incremented every time the nodes of the current scene are added, removed, renamed or replaced */
+	private static int treeVersion = 0;
 
 	/**
 	 * Changes the current scene.
+	 * Cancels the scene that is being loaded by the {@link SceneLoader}, if any.
 	 *
 	 * @param nodeResource Resource of the new scene
 	 * @param path Path to the new scene in the resources folder
 	 */
 	public static void changeScene(NodeResource nodeResource, String path) {
+		SceneLoader.cancel();
+		changeScene(nodeResource, nodeResource != null ? nodeResource.instantiate() : rootNode, path);
+	}
+
+	/**
+	 * Changes the current scene to a scene that was already instantiated.
+	 * Used by the {@link SceneLoader} to replace the current scene in one step once the new scene is loaded.
+	 *
+	 * @param nodeResource Resource of the new scene
+	 * @param node Root node instantiated from the given resource
+	 * @param path Path to the new scene in the resources folder
+	 */
+	public static void changeScene(NodeResource nodeResource, Node node, String path) {
 		rootResource = nodeResource;
-		if(nodeResource != null) {
-			copy = new NodeResource(nodeResource);
-			rootNode = rootResource.instantiate();
-		}
+		changedResources.clear();
+		SceneSaver.clear();
+		EditorHistory.clear();
+		rootNode = node;
 		currentPath = path;
+		SceneIndex.clear();
+		treeVersion++;
 	}
 
 	/**
@@ -47,29 +66,147 @@ public class EditorScene {
 	 */
 	public static void reload() {
 		if(rootResource != null) {
-			removeMissing(rootResource);
+			removeMissing(rootResource, null);
 			rootNode = rootResource.instantiate();
+			EditorHistory.clear();
+			SceneIndex.clear();
+			treeVersion++;
+		}
+	}
+
+	/**
+	 * Reloads only the parts of the current scene that are affected by the given classes.
+	 * Nodes whose type was reloaded are instantiated again together with their children, all the other nodes and the resources they loaded stay in the scene.
+	 * Must be called after the context class loader is replaced with one that reloads the given classes.
+	 *
+	 * @param reloadedClasses Names of the classes that were reloaded
+	 */
+	public static void reload(Set<String> reloadedClasses) {
+		if(rootResource != null) {
+			removeMissing(rootResource, rootNode);
+			HashMap<String, Boolean> checkedScenes = new HashMap<>();
+			if(isAffected(rootResource, reloadedClasses, checkedScenes)) {
+				rootNode = rootResource.instantiate();
+			} else {
+				reloadChildren(rootResource, rootNode, reloadedClasses, checkedScenes);
+			}
+			EditorHistory.clear();
+			SceneIndex.clear();
+			treeVersion++;
 		}
 	}
 
+	/**
+	 * Instantiates again the children of the given node that are affected by the given classes.
+	 * Children that are not affected are checked recursively.
+	 *
+	 * @param resource The node's resource
+	 * @param node The node
+	 * @param reloadedClasses Names of the classes that were reloaded
+	 * @param checkedScenes Base scenes that were already checked, mapped to whether they contain affected nodes
+	 */
+	private static void reloadChildren(NodeResource resource, Node node, Set<String> reloadedClasses, Map<String, Boolean> checkedScenes) {
+		resource.children.forEach((key, childResource) -> {
+			Node child = node.getChild(key);
+			if(child == null || isAffected(childResource, reloadedClasses, checkedScenes)) {
+				node.removeChild(key);
+				node.addChild(key, childResource.instantiate());
+			} else {
+				reloadChildren(childResource, child, reloadedClasses, checkedScenes);
+			}
+		});
+	}
+
+	/**
+	 * Checks if the node created from the given resource needs to be instantiated again after the given classes were reloaded.
+	 * If the resource has an override, its chain is resolved by the {@link OverrideResolver} and all the scenes in it are checked, since the base's children are not part of the resource.
+	 * Base scenes are read from the {@link SceneCache}, so that changes made to them after they were loaded are taken into account.
+	 *
+	 * @param resource The resource to check
+	 * @param reloadedClasses Names of the classes that were reloaded
+	 * @param checkedScenes Base scenes that were already checked, mapped to whether they contain affected nodes, the scenes checked by this method are added to it
+	 * @return True if the type of the given resource or a type in its base scenes was reloaded, false if it was not or if its base scene cannot be resolved
+	 */
+	private static boolean isAffected(NodeResource resource, Set<String> reloadedClasses, Map<String, Boolean> checkedScenes) {
+		if(resource.override != null && !resource.override.isEmpty()) {
+			OverrideResolver.ResolvedScene base = OverrideResolver.resolve(resource.override);
+			if(base == null) {
+				return false;
+			}
+			if(base.type() != null && reloadedClasses.contains(base.type())) {
+				return true;
+			}
+			for(String path : base.chain()) {
+				Boolean affected = checkedScenes.get(path);
+				if(affected == null) {
+					// Scenes being checked count as not affected, so that children overriding their own scene do not recurse forever
+					checkedScenes.put(path, false);
+					affected = false;
+					NodeResource scene = SceneCache.parse(path);
+					if(scene != null) {
+						for(NodeResource child : scene.children.values()) {
+							if(containsAffected(child, reloadedClasses, checkedScenes)) {
+								affected = true;
+								break;
+							}
+						}
+					}
+					checkedScenes.put(path, affected);
+				}
+				if(affected) {
+					return true;
+				}
+			}
+			return false;
+		}
+		return resource.type != null && reloadedClasses.contains(resource.type);
+	}
+
+	/**
+	 * Checks if the given resource or any of its children, including the ones in overridden resources, are affected by the given classes.
+	 *
+	 * @param resource The resource to check
+	 * @param reloadedClasses Names of the classes that were reloaded
+	 * @param checkedScenes Base scenes that were already checked, mapped to whether they contain affected nodes
+	 * @return True if the given resource or any of its children are affected, otherwise false
+	 */
+	private static boolean containsAffected(NodeResource resource, Set<String> reloadedClasses, Map<String, Boolean> checkedScenes) {
+		if(isAffected(resource, reloadedClasses, checkedScenes)) {
+			return true;
+		}
+		for(NodeResource child : resource.children.values()) {
+			if(containsAffected(child, reloadedClasses, checkedScenes)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Removes nodes whose class does not exist and properties they do not have.
 	 * Used when reloading the scene after the project's classes have been updated.
 	 *
 	 * @param resource Resource to remove missing nodes and fields from
+	 * @param node The node instantiated from the given resource, its children are removed together with the missing resources, may be null if the scene is going to be instantiated again
 	 */
-	private static void removeMissing(NodeResource resource) {
-		resource.children.values().removeIf(childResource -> {
+	private static void removeMissing(NodeResource resource, Node node) {
+		boolean removedChildren = false;
+		Iterator<Map.Entry<String, NodeResource>> iterator = resource.children.entrySet().iterator();
+		while(iterator.hasNext()) {
+			Map.Entry<String, NodeResource> entry = iterator.next();
 			try {
-				Thread.currentThread().getContextClassLoader().loadClass(childResource.type);
+				Thread.currentThread().getContextClassLoader().loadClass(entry.getValue().type);
+				removeMissing(entry.getValue(), node != null ? node.getChild(entry.getKey()) : null);
 			} catch (ClassNotFoundException e) {
-				return true;
+				iterator.remove();
+				if(node != null) {
+					node.removeChild(entry.getKey());
+				}
+				removedChildren = true;
 			}
-			return false;
-		});
-		resource.children.forEach((key, child) -> removeMissing(child));
-		String type = getActualType(resource);
-		resource.properties.keySet().removeIf(field -> {
+		}
+		String type = OverrideResolver.actualType(resource);
+		boolean removedProperties = resource.properties.keySet().removeIf(field -> {
 			try {
 				return !Reflection.hasField(field, type);
 			} catch (ReflectionException e) {
@@ -77,25 +214,26 @@ public class EditorScene {
 				return true;
 			}
 		});
-	}
-
-	/**
-	 * Gets the type of the given resource by taking into account overridden resources.
-	 *
-	 * @param resource The resource to check
-	 * @return The actual type of the given resource
-	 */
-	private static String getActualType(NodeResource resource) {
-		return resource.override == null || resource.override.isEmpty() ? resource.type : getActualType(NodeResource.getOrLoad(resource.override));
+		if(removedChildren) {
+			markChildrenChanged(resource);
+		} else if(removedProperties) {
+			markChanged(resource);
+		}
 	}
 
 	/**
 	 * Saves the current scene to its file.
+	 * The scene is written in the background by the {@link SceneSaver}, only the resources that changed since the last save are serialized again.
 	 */
 	public static void saveScene() {
-		if(currentPath != null) {
-			copy = new NodeResource(rootResource);
-			YamlSerializer.writeToFile(rootResource, ProjectPath.resourcesFolder(currentPath).toString());
+		if(currentPath != null && rootResource != null) {
+			Set<NodeResource> changed;
+			synchronized(changedResources) {
+				changed = Collections.newSetFromMap(new IdentityHashMap<>());
+				changed.addAll(changedResources);
+				changedResources.clear();
+			}
+			SceneSaver.save(rootResource, ProjectPath.resourcesFolder(currentPath), changed);
 		}
 	}
 
@@ -125,10 +263,70 @@ public class EditorScene {
 	 * @return True if the current scene has unsaved changes, otherwise false
 	 */
 	public static boolean hasUnsavedChanges() {
-		if(rootResource != null && copy != null) {
-			return !rootResource.equals(copy);
+		return !changedResources.isEmpty();
+	}
+
+	/**
+	 * Marks the given resource as changed.
+	 * Must be called every time a resource of the current scene is modified, either by changing its properties or its children.
+	 *
+	 * @param resource The resource that was changed
+	 */
+	public static void markChanged(NodeResource resource) {
+		changedResources.add(resource);
+	}
+
+	/**
+	 * Adds a child to a node of the current scene and to its resource.
+	 * All the changes to the scene's structure must go through this method or through {@link EditorScene#removeChild(NodeResource, Node, String)} to keep the {@link SceneIndex} up to date.
+	 *
+	 * @param parentResource Resource to add the child to
+	 * @param parentNode Node to add the child to
+	 * @param key Key of the child
+	 * @param resource The child's resource
+	 * @param node The child node
+	 */
+	public static void addChild(NodeResource parentResource, Node parentNode, String key, NodeResource resource, Node node) {
+		parentResource.children.put(key, resource);
+		parentNode.addChild(key, node);
+		SceneIndex.childAdded(parentResource, key, resource, node);
+		markChildrenChanged(parentResource);
+	}
+
+	/**
+	 * Removes a child from a node of the current scene and from its resource.
+	 *
+	 * @param parentResource Resource to remove the child from
+	 * @param parentNode Node to remove the child from or null if the child node has no parent
+	 * @param key Key of the child
+	 */
+	public static void removeChild(NodeResource parentResource, Node parentNode, String key) {
+		NodeResource resource = parentResource.children.remove(key);
+		if(parentNode != null) {
+			parentNode.removeChild(key);
 		}
-		return false;
+		SceneIndex.childRemoved(parentResource, key, resource);
+		markChildrenChanged(parentResource);
+	}
+
+	/**
+	 * Marks the given resource as changed after its children were added, removed or renamed.
+	 *
+	 * @param resource The resource whose children were changed
+	 */
+	private static void markChildrenChanged(NodeResource resource) {
+		markChanged(resource);
+		treeVersion++;
+	}
+
+	/**
+	 * Returns a number that changes every time the nodes of the current scene are added, removed, renamed or replaced.
+	 * Used by guis that show the scene's structure to know when they need to read it again.
+	 *
+	 * @return The current version of the scene's structure
+	 */
+	public static int treeVersion() {
+		return treeVersion;
 	}
 
 	/**
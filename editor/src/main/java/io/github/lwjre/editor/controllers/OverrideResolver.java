@@ -0,0 +1,142 @@
+package io.github.lwjre.editor.controllers;
+
+import io.github.lwjre.editor.ProjectPath;
+import io.github.lwjre.editor.utils.SceneCache;
+import io.github.lwjre.engine.resources.NodeResource;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Static class used to resolve chains of overridden scenes.
+ * The result of resolving a scene is cached until one of the scene files in its chain changes on disk, so that the type of a node with an override can be looked up every frame.
+ * Scenes that cannot be resolved are cached as well, so that a broken override is only reported once until one of its files changes.
+ * The cache is keyed by paths in the resources folder, it must be cleared with {@link OverrideResolver#init()} and {@link OverrideResolver#terminate()} when a project is opened or closed.
+ *
+ * @author Nico
+ */
+public final class OverrideResolver {
+
+	/** Results of resolving scenes by their path in the resources folder */
+	private static final ConcurrentHashMap<String, Resolution> resolutions = new ConcurrentHashMap<>();
+
+	/** Listener added to the {@link ResourceIndex} to invalidate the results whose files changed */
+	private static final Consumer<Set<Path>> LISTENER = OverrideResolver::invalidate;
+
+	/**
+	 * Clears the results of the previous project and starts listening for changes in the resources folder.
+	 * Must be called when a project is opened, after {@link ResourceIndex#init()}.
+	 */
+	public static void init() {
+		resolutions.clear();
+		ResourceIndex.addListener(LISTENER);
+	}
+
+	/**
+	 * Gets the type of the given resource by taking into account overridden resources.
+	 *
+	 * @param resource The resource to check
+	 * @return The actual type of the given resource, null if it has no type or if its override cannot be loaded
+	 */
+	public static String actualType(NodeResource resource) {
+		if(resource.override == null || resource.override.isEmpty()) {
+			return resource.type;
+		}
+		ResolvedScene resolvedScene = resolve(resource.override);
+		return resolvedScene != null ? resolvedScene.type() : null;
+	}
+
+	/**
+	 * Resolves the override chain of the scene at the given path.
+	 *
+	 * @param path Path to the scene in the resources folder
+	 * @return The resolved scene or null if the scene cannot be loaded or if its chain contains a cycle
+	 */
+	public static ResolvedScene resolve(String path) {
+		return resolve(path, new LinkedHashSet<>()).scene();
+	}
+
+	/**
+	 * Resolves the override chain of the scene at the given path.
+	 * Scenes in the chain that were already resolved, or that could not be resolved, are taken from the cache.
+	 *
+	 * @param path Path to the scene in the resources folder
+	 * @param visited Paths of the scenes that are being resolved, used to detect cycles
+	 * @return The result of resolving the scene
+	 */
+	private static Resolution resolve(String path, Set<String> visited) {
+		Resolution cached = resolutions.get(path);
+		if(cached != null) {
+			return cached;
+		}
+		if(!visited.add(path)) {
+			new IllegalStateException("Override cycle in " + visited).printStackTrace();
+			return new Resolution(null, Set.copyOf(visited));
+		}
+		Resolution result;
+		NodeResource resource = SceneCache.parse(path);
+		if(resource == null) {
+			result = new Resolution(null, Set.of(path));
+		} else if(resource.override != null && !resource.override.isEmpty()) {
+			Resolution base = resolve(resource.override, visited);
+			HashSet<String> chain = new HashSet<>(base.chain());
+			chain.add(path);
+			if(base.scene() == null) {
+				result = new Resolution(null, Set.copyOf(chain));
+			} else {
+				HashMap<String, Object> properties = new HashMap<>(base.scene().properties());
+				properties.putAll(resource.properties);
+				result = new Resolution(new ResolvedScene(base.scene().type(), Collections.unmodifiableMap(properties), Set.copyOf(chain)), Set.copyOf(chain));
+			}
+		} else {
+			result = new Resolution(new ResolvedScene(resource.type, Collections.unmodifiableMap(new HashMap<>(resource.properties)), Set.of(path)), Set.of(path));
+		}
+		resolutions.put(path, result);
+		return result;
+	}
+
+	/**
+	 * Removes the results whose chain contains one of the given files or a file in one of the given directories.
+	 * Called by the {@link ResourceIndex} when files in the resources folder change.
+	 *
+	 * @param paths Paths to the files that were created, modified or deleted
+	 */
+	static void invalidate(Set<Path> paths) {
+		for(Path path : paths) {
+			Path resourcePath = ProjectPath.resourcesFolder().relativize(path);
+			resolutions.values().removeIf(resolution -> resolution.chain().stream().anyMatch(scene -> Path.of(scene).startsWith(resourcePath)));
+		}
+	}
+
+	/**
+	 * Stops listening for changes in the resources folder and clears the results.
+	 * Must be called when the project is closed.
+	 */
+	public static void terminate() {
+		ResourceIndex.removeListener(LISTENER);
+		resolutions.clear();
+	}
+
+	/**
+	 * A scene whose override chain was resolved.
+	 *
+	 * @param type Type of the scene's root, taken from the last scene in the chain
+	 * @param properties Properties of the scene's root merged with the ones of the scenes it overrides
+	 * @param chain Paths to all the scenes in the chain
+	 */
+	public record ResolvedScene(String type, Map<String, Object> properties, Set<String> chain) {
+
+	}
+
+	/**
+	 * Result of resolving a scene, cached whether the scene could be resolved or not.
+	 *
+	 * @param scene The resolved scene or null if the scene cannot be loaded or if its chain contains a cycle
+	 * @param chain Paths to the scenes that were read to get this result, used to invalidate it
+	 */
+	private record Resolution(ResolvedScene scene, Set<String> chain) {
+
+	}
+}
@@ -7,24 +7,51 @@ import io.github.lwjre.editor.gui.NewScenePopup;
 import io.github.lwjre.editor.gui.SceneTreeWindow;
 import io.github.lwjre.editor.models.EditorClassLoader;
 import io.github.lwjre.editor.models.FileSystemListener;
+import io.github.lwjre.editor.models.IncrementalCompiler;
 import io.github.lwjre.editor.utils.ClassFilesLoader;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Listens to changes in the project's files and recompile the project if a change is detected.
+ * Changed source files are compiled in the editor's process by an {@link IncrementalCompiler}, maven is only used to build the project when it is opened and when its {@code pom.xml} changes.
+ * The project is compiled on the compiler thread, then the new classes are handed to the render thread, which swaps them in the next time {@link ProjectCompiler#update()} is called.
+ * Changes detected while the project is being compiled are kept and compiled as soon as the new classes are swapped in.
  *
  * @author Nico
  */
 public class ProjectCompiler {
 
-	/** Listens for changes in the project's files and reloads the project when a change is detected */
-	private final FileSystemListener fileSystemListener = new FileSystemListener(this::reloadProject);
+	/** Maximum number of class loader layers before the project's classes are loaded again from a fresh class loader */
+	private static final int MAX_CLASS_LOADER_DEPTH = 32;
+
+	/** Recompiles the source files that were changed */
+	private final IncrementalCompiler incrementalCompiler = new IncrementalCompiler();
+	/** Listens for changes in the project's source files and recompiles them */
+	private final FileSystemListener sourcesListener = new FileSystemListener(ProjectPath.sourcesFolder(), this::onSourcesChanged);
+	/** Listens for changes in the project's {@code pom.xml} file and rebuilds the project when its dependencies change */
+	private final FileSystemListener pomListener = new FileSystemListener(ProjectPath.current(), false, this::onProjectFilesChanged);
 	/** A reference to the calling thread is needed to update the thread's class loader */
 	private final Thread mainThread = Thread.currentThread();
-	/** Thread that uses the {@link FileSystemListener#listen} method */
-	private final Thread listenerThread = new Thread(this.fileSystemListener::listen);
+	/** Thread that uses the {@link FileSystemListener#listen} method of the sources listener */
+	private final Thread sourcesListenerThread = new Thread(this.sourcesListener::listen);
+	/** Thread that uses the {@link FileSystemListener#listen} method of the pom listener */
+	private final Thread pomListenerThread = new Thread(this.pomListener::listen);
+	/** Thread that compiles the project, so that the listeners can keep collecting changes during a compilation */
+	private final ExecutorService compilerThread = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "Project compiler");
+		thread.setDaemon(true);
+		return thread;
+	});
 
 	/** Needs to receive the newly loaded node classes */
 	private final SceneTreeWindow sceneTreeWindow;
@@ -35,8 +62,20 @@ public class ProjectCompiler {
 	/** Shown when the project is being reloaded */
 	private final BasicPopup compilingProjectPopup;
 
-	/** Prevents the project from being reloaded again if it is already being reloaded */
-	private boolean reloading = false;
+	/** The class loader currently used by the editor's threads, null until {@link ProjectCompiler#initClassLoader()} is called */
+	private volatile EditorClassLoader classLoader = null;
+	/** Set from the time a compilation is started until its classes are swapped in, prevents the project from being reloaded again if it is already being reloaded */
+	private final AtomicBoolean reloading = new AtomicBoolean(false);
+	/** Source files that were changed since they were last compiled */
+	private final Set<Path> pendingSources = ConcurrentHashMap.newKeySet();
+	/** Set when the project needs to be built again with maven */
+	private final AtomicBoolean pendingBuild = new AtomicBoolean(false);
+	/** Source files that failed to compile, compiled again with the next changes, only used by the compiler thread */
+	private final HashSet<Path> failedSources = new HashSet<>();
+	/** True if the last maven build failed, the next changes rebuild the project with maven, only used by the compiler thread */
+	private boolean failedBuild = false;
+	/** Classes that were compiled and are waiting to be swapped in by the render thread, null if there are none */
+	private volatile CompiledClasses compiledClasses = null;
 
 	/**
 	 * Constructs the project compiler.
@@ -54,105 +93,233 @@ public class ProjectCompiler {
 	}
 
 	/**
-	 * Initializes the project by running {@code mvn install -DskipTests} and reloading dependencies and project classes.
+	 * Creates the class loader used until the project is built and sets it as the context class loader of the calling thread.
+	 * The class loader is owned by the project compiler, it is closed when the built project is swapped in or when the compiler is terminated.
+	 * Must be called from the render thread before anything is loaded from the project's class path.
+	 */
+	public void initClassLoader() {
+		this.classLoader = new EditorClassLoader();
+		this.mainThread.setContextClassLoader(this.classLoader);
+	}
+
+	/**
+	 * Initializes the project by running {@code mvn clean install -DskipTests} and reloading dependencies and project classes.
 	 * Shows the popup when the reloading starts and closes it when it is finished.
-	 * This method does nothing if the project is already being reloaded.
 	 */
 	public void init() {
-		if(!this.reloading) try {
-			this.compilingProjectPopup.setTitle("Compiling project");
-			this.compilingProjectPopup.setContent("mvn clean install -DskipTests");
-			this.compilingProjectPopup.open();
-			this.reloading = true;
-			Runtime.getRuntime().exec("mvn clean install -DskipTests", null, ProjectPath.current().toFile()).onExit().thenRun(() -> {
-				this.compilingProjectPopup.setContent("Looking for classes");
-				HashSet<String> nodeClasses = ClassFilesLoader.lookForClasses();
-				this.sceneTreeWindow.setNodeClasses(nodeClasses);
-				this.newScenePopup.setNodeClasses(nodeClasses);
-				this.inspectorWindow.setNode(null);
-				EditorClassLoader classLoader = new EditorClassLoader();
-				this.mainThread.setContextClassLoader(classLoader);
-				this.listenerThread.setContextClassLoader(classLoader);
-				this.listenerThread.start();
-				this.compilingProjectPopup.close();
-				this.reloading = false;
+		ClassFilesLoader.loadCache();
+		this.reloading.set(true);
+		this.sourcesListenerThread.start();
+		this.pomListenerThread.start();
+		this.compilerThread.execute(() -> this.runMaven(false));
+	}
+
+	/**
+	 * Called by the sources listener when source files are changed.
+	 * Schedules the changed files to be recompiled in the editor's process or the whole project to be rebuilt with maven if the editor is not running on a JDK.
+	 *
+	 * @param paths Paths to the files that were changed
+	 */
+	private void onSourcesChanged(Set<Path> paths) {
+		for(Path path : paths) {
+			if(path.toString().endsWith(".java")) {
+				if(this.incrementalCompiler.isAvailable()) {
+					this.pendingSources.add(path);
+				} else {
+					this.pendingBuild.set(true);
+				}
+			}
+		}
+		this.scheduleCompilation();
+	}
+
+	/**
+	 * Called by the pom listener when files in the project's folder are changed.
+	 * Rebuilds the project with maven if the {@code pom.xml} file was changed, since its dependencies may have changed.
+	 *
+	 * @param paths Paths to the files that were changed
+	 */
+	private void onProjectFilesChanged(Set<Path> paths) {
+		for(Path path : paths) {
+			if(path.getFileName().toString().equals("pom.xml")) {
+				this.pendingBuild.set(true);
+				this.scheduleCompilation();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Starts a compilation on the compiler thread if there are pending changes and the project is not already being reloaded.
+	 * Called when changes are detected and when the previous compilation is done, so that changes detected during a compilation are never lost.
+	 */
+	private void scheduleCompilation() {
+		if((this.pendingBuild.get() || !this.pendingSources.isEmpty()) && this.reloading.compareAndSet(false, true)) {
+			this.compilerThread.execute(() -> {
+				if(this.pendingBuild.getAndSet(false) || this.failedBuild) {
+					this.pendingSources.clear();
+					this.failedSources.clear();
+					this.runMaven(true);
+				} else {
+					HashSet<Path> changedSources = new HashSet<>(this.failedSources);
+					for(Iterator<Path> iterator = this.pendingSources.iterator(); iterator.hasNext(); iterator.remove()) {
+						changedSources.add(iterator.next());
+					}
+					this.failedSources.clear();
+					this.reloadProject(changedSources);
+				}
 			});
-		} catch (IOException e) {
-			e.printStackTrace();
-			// TODO; Error popup
-			this.compilingProjectPopup.close();
-			this.reloading = false;
 		}
 	}
 
 	/**
-	 * Reloads the project's classes by running {@code mvn clean install -DskipTests} and loading the class files.
-	 * Shows the popup when the reloading starts and closes it when it is finished.
-	 * This method does nothing if the project is already being reloaded.
+	 * Shows the given errors in the popup and allows the project to be reloaded again.
+	 * Must be called from the compiler thread when a compilation fails.
+	 *
+	 * @param errors The errors to show
+	 */
+	private void compilationFailed(String errors) {
+		this.compilingProjectPopup.setTitle("Compilation failed");
+		this.compilingProjectPopup.setContent(errors);
+		this.compilingProjectPopup.openCloseable();
+		this.reloading.set(false);
+		this.scheduleCompilation();
+	}
+
+	/**
+	 * Recompiles the given source files and the files that depend on them with the {@link IncrementalCompiler} and hands the classes that changed to the render thread.
+	 * Only the nodes in the scene that are affected by the reloaded classes are instantiated again.
+	 * Shows the popup when the reloading starts, the popup is closed by the render thread once the classes are swapped in.
+	 * Shows the compiler's errors in the popup if the compilation fails.
+	 * Must be called from the compiler thread.
+	 *
+	 * @param changedSources Paths to the source files that were changed
 	 */
-	private void reloadProject() {
-		if(!this.reloading) try {
+	private void reloadProject(Set<Path> changedSources) {
+		this.compilingProjectPopup.setTitle("Compiling project");
+		this.compilingProjectPopup.setContent("Compiling changed files");
+		this.compilingProjectPopup.open();
+		if(this.incrementalCompiler.compile(changedSources)) {
+			Set<String> reloadedClasses = this.incrementalCompiler.reloadedClasses();
+			EditorClassLoader previous = this.classLoader;
+			if(previous != null && previous.depth() < MAX_CLASS_LOADER_DEPTH) {
+				this.compiledClasses = new CompiledClasses(new EditorClassLoader(previous, reloadedClasses), ClassFilesLoader.lookForClasses(), reloadedClasses, true);
+			} else {
+				this.compiledClasses = new CompiledClasses(new EditorClassLoader(), ClassFilesLoader.lookForClasses(), null, true);
+			}
+		} else {
+			this.failedSources.addAll(changedSources);
+			this.compilationFailed(this.incrementalCompiler.errors());
+		}
+	}
+
+	/**
+	 * Builds the project by running {@code mvn clean install -DskipTests}, then reloads the dependency graph of the {@link IncrementalCompiler} and hands the project's classes to the render thread.
+	 * Shows the popup when the reloading starts, the popup is closed by the render thread once the classes are swapped in.
+	 * Maven's output is written to the editor's console, the popup only shows whether the build failed.
+	 * Must be called from the compiler thread.
+	 *
+	 * @param reloadScene True if the current scene needs to be instantiated again with the new classes
+	 */
+	private void runMaven(boolean reloadScene) {
+		try {
 			this.compilingProjectPopup.setTitle("Compiling project");
 			this.compilingProjectPopup.setContent("mvn clean install -DskipTests");
 			this.compilingProjectPopup.open();
-			this.reloading = true;
-			Runtime.getRuntime().exec("mvn clean install -DskipTests", null, ProjectPath.current().toFile()).onExit().thenRun(() -> {
-				this.compilingProjectPopup.setContent("Looking for classes");
-				HashSet<String> nodeClasses = ClassFilesLoader.lookForClasses();
-				this.compilingProjectPopup.close();
-				this.sceneTreeWindow.setNodeClasses(nodeClasses);
-				this.newScenePopup.setNodeClasses(nodeClasses);
-				this.inspectorWindow.setNode(null);
-				EditorClassLoader classLoader = new EditorClassLoader();
-				this.mainThread.setContextClassLoader(classLoader);
-				Thread.currentThread().setContextClassLoader(classLoader);
-				EditorScene.reload();
-				this.reloading = false;
-			});
+			int exitCode = new ProcessBuilder("mvn", "clean", "install", "-DskipTests").directory(ProjectPath.current().toFile()).inheritIO().start().waitFor();
+			this.failedBuild = exitCode != 0;
+			if(exitCode != 0) {
+				this.compilationFailed("mvn clean install -DskipTests failed with exit code " + exitCode + ", see the console for details");
+				return;
+			}
+			this.compilingProjectPopup.setContent("Looking for classes");
+			this.incrementalCompiler.index();
+			this.compiledClasses = new CompiledClasses(new EditorClassLoader(), ClassFilesLoader.lookForClasses(), null, reloadScene);
 		} catch (IOException e) {
 			e.printStackTrace();
+			this.failedBuild = true;
+			this.compilationFailed("Cannot run maven: " + e.getMessage());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
 		}
 	}
 
 	/**
-	 * Reloads the project's classes by running {@code mvn clean install -DskipTests} and loading classes from the dependencies.
-	 * Shows the popup when the reloading starts and closes it when it is finished.
-	 * This method does nothing if the project is already being reloaded.
+	 * Swaps in the classes that were compiled, if there are any, and reloads the current scene.
+	 * Must be called every frame from the render thread, since it changes the scene that the render thread is drawing.
 	 */
-	private void reloadDependencies() {
-		if(!this.reloading) try {
-			this.compilingProjectPopup.setTitle("Compiling project");
-			this.compilingProjectPopup.setContent("mvn clean install -DskipTests");
-			this.compilingProjectPopup.open();
-			this.reloading = true;
-			Runtime.getRuntime().exec("mvn clean install -DskipTests", null, ProjectPath.current().toFile()).onExit().thenRun(() -> {
-				this.compilingProjectPopup.setContent("Looking for classes");
-				HashSet<String> nodeClasses = ClassFilesLoader.lookForClasses();
-				this.compilingProjectPopup.close();
-				this.sceneTreeWindow.setNodeClasses(nodeClasses);
-				this.newScenePopup.setNodeClasses(nodeClasses);
-				this.inspectorWindow.setNode(null);
-				EditorClassLoader classLoader = new EditorClassLoader();
-				this.mainThread.setContextClassLoader(classLoader);
-				Thread.currentThread().setContextClassLoader(classLoader);
+	public void update() {
+		CompiledClasses compiled = this.compiledClasses;
+		if(compiled != null) {
+			this.compiledClasses = null;
+			this.reloadClasses(compiled.classLoader(), compiled.nodeClasses());
+			if(compiled.reloadedClasses() != null) {
+				EditorScene.reload(compiled.reloadedClasses());
+			} else if(compiled.reloadScene()) {
 				EditorScene.reload();
-				this.reloading = false;
-			});
-		} catch (IOException e) {
-			e.printStackTrace();
+			}
+			this.compilingProjectPopup.close();
+			this.reloading.set(false);
+			this.scheduleCompilation();
+		}
+	}
+
+	/**
+	 * Updates the guis with the given node classes and replaces the class loader of the editor's threads.
+	 * The previous class loader is closed unless the new one is a layer on top of it.
+	 *
+	 * @param classLoader The new class loader
+	 * @param nodeClasses Names of the node classes in the compiled project
+	 */
+	private void reloadClasses(EditorClassLoader classLoader, HashSet<String> nodeClasses) {
+		this.sceneTreeWindow.setNodeClasses(nodeClasses);
+		this.newScenePopup.setNodeClasses(nodeClasses);
+		this.inspectorWindow.setNode(null);
+		this.inspectorWindow.clearLayouts();
+		EditorClassLoader previous = this.classLoader;
+		this.classLoader = classLoader;
+		if(previous != null && !classLoader.isLayeredOn(previous)) {
+			previous.close();
 		}
+		this.mainThread.setContextClassLoader(classLoader);
+		this.sourcesListenerThread.setContextClassLoader(classLoader);
+		this.pomListenerThread.setContextClassLoader(classLoader);
 	}
 
 	/**
-	 * Stops the thread handling the {@link FileSystemListener}.
+	 * Stops the threads handling the {@link FileSystemListener}s and the compiler thread and closes the class loaders.
 	 * Must be called when the editor is being closed.
 	 */
 	public void terminate() {
 		try {
-			this.fileSystemListener.stopListening();
-			this.listenerThread.join();
+			this.sourcesListener.stopListening();
+			this.pomListener.stopListening();
+			this.sourcesListenerThread.join();
+			this.pomListenerThread.join();
+			this.compilerThread.shutdownNow();
+			this.compilerThread.awaitTermination(10, TimeUnit.SECONDS);
 		} catch (InterruptedException e) {
 			e.printStackTrace();
 		}
+		CompiledClasses compiled = this.compiledClasses;
+		if(compiled != null) {
+			compiled.classLoader().close();
+		}
+		EditorClassLoader classLoader = this.classLoader;
+		if(classLoader != null) {
+			classLoader.close();
+		}
+	}
+
+	/**
+	 * Classes compiled on a background thread that are waiting to be swapped in by the render thread.
+	 *
+	 * @param classLoader Class loader that loads the compiled classes
+	 * @param nodeClasses Names of the node classes in the compiled project
+	 * @param reloadedClasses Names of the classes that were hot-swapped or null if all the classes were loaded again
+	 * @param reloadScene True if the current scene needs to be instantiated again when all the classes were loaded again
+	 */
+	private record CompiledClasses(EditorClassLoader classLoader, HashSet<String> nodeClasses, Set<String> reloadedClasses, boolean reloadScene) {
+
 	}
 }
@@ -0,0 +1,262 @@
+package io.github.lwjre.editor.controllers;
+
+import io.github.lwjre.editor.ProjectPath;
+import io.github.lwjre.editor.models.FileSystemListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Static class used to keep an in-memory index of the project's resources folder.
+ * The index is built once when the project is opened and is kept up to date by a {@link FileSystemListener}, so that guis can query it every frame without accessing the file system.
+ *
+ * @author Nico
+ */
+public final class ResourceIndex {
+
+	/** Paths to all the scene files relative to the resources folder, sorted alphabetically */
+	private static final ConcurrentSkipListSet<String> scenes = new ConcurrentSkipListSet<>();
+	/** Unmodifiable view of {@link ResourceIndex#scenes} */
+	private static final SortedSet<String> scenesView = Collections.unmodifiableSortedSet(scenes);
+	/** Set of all the directories in the resources folder */
+	private static final Set<Path> directories = ConcurrentHashMap.newKeySet();
+	/** Set of all the regular files in the resources folder */
+	private static final Set<Path> files = ConcurrentHashMap.newKeySet();
+	/** Content of every directory in the resources folder, directories come first and files are sorted alphabetically */
+	private static final ConcurrentHashMap<Path, List<Path>> children = new ConcurrentHashMap<>();
+	/** Order in which the content of a directory is shown */
+	private static final Comparator<Path> ORDER = (path1, path2) -> {
+		boolean isDirectory1 = directories.contains(path1);
+		if(isDirectory1 == directories.contains(path2))
+			return path1.getFileName().toString().compareToIgnoreCase(path2.getFileName().toString());
+		return isDirectory1 ? -1 : 1;
+	};
+
+	/** Functions called after the index is updated, with the paths to the files that changed */
+	private static final List<Consumer<Set<Path>>> listeners = new CopyOnWriteArrayList<>();
+	/** Incremented every time the index is built or updated */
+	private static volatile int version = 0;
+
+	/** Listens for changes in the resources folder */
+	private static FileSystemListener fileSystemListener;
+	/** Thread that uses the {@link FileSystemListener#listen} method */
+	private static Thread listenerThread;
+
+	/**
+	 * Builds the index for the current project and starts listening for changes in the resources folder.
+	 * Must be called when a project is opened.
+	 */
+	public static void init() {
+		scenes.clear();
+		directories.clear();
+		files.clear();
+		children.clear();
+		add(ProjectPath.resourcesFolder());
+		version++;
+		fileSystemListener = new FileSystemListener(ProjectPath.resourcesFolder(), ResourceIndex::update);
+		listenerThread = new Thread(fileSystemListener::listen);
+		listenerThread.start();
+	}
+
+	/**
+	 * Adds the given file to the index.
+	 * If the given file is a directory, all of its content is added.
+	 *
+	 * @param path Path to the file to add
+	 */
+	private static void add(Path path) {
+		if(Files.isDirectory(path)) try(Stream<Path> walk = Files.walk(path)) {
+			List<Path> walked = walk.toList();
+			HashMap<Path, ArrayList<Path>> listings = new HashMap<>();
+			for(Path file : walked) {
+				if(Files.isDirectory(file)) {
+					directories.add(file);
+					listings.putIfAbsent(file, new ArrayList<>());
+				} else {
+					files.add(file);
+					if(isScene(file)) {
+						scenes.add(ProjectPath.resourcesFolder().relativize(file).toString());
+					}
+				}
+				if(!file.equals(path)) {
+					listings.computeIfAbsent(file.getParent(), directory -> new ArrayList<>()).add(file);
+				}
+			}
+			listings.forEach((directory, content) -> {
+				content.sort(ORDER);
+				children.put(directory, List.copyOf(content));
+			});
+		} catch (IOException | UncheckedIOException e) {
+			e.printStackTrace();
+		} else {
+			files.add(path);
+			if(isScene(path)) {
+				scenes.add(ProjectPath.resourcesFolder().relativize(path).toString());
+			}
+		}
+		refresh(path.getParent());
+	}
+
+	/**
+	 * Removes the given file from the index.
+	 * If the given file was a directory, all of its content is removed.
+	 *
+	 * @param path Path to the file to remove
+	 */
+	private static void remove(Path path) {
+		directories.removeIf(directory -> directory.startsWith(path));
+		files.removeIf(file -> file.startsWith(path));
+		children.keySet().removeIf(directory -> directory.startsWith(path));
+		Path resourcePath = ProjectPath.resourcesFolder().relativize(path);
+		scenes.removeIf(scene -> Path.of(scene).startsWith(resourcePath));
+		refresh(path.getParent());
+	}
+
+	/**
+	 * Reads the content of the given directory again.
+	 * Does nothing if the given directory is not in the index.
+	 *
+	 * @param directory The directory to refresh
+	 */
+	private static void refresh(Path directory) {
+		if(directory != null && directories.contains(directory)) try(Stream<Path> files = Files.list(directory)) {
+			children.put(directory, files.sorted(ORDER).toList());
+		} catch (IOException | UncheckedIOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Updates the index after changes to the given files were detected.
+	 *
+	 * @param paths Paths to the files that were created, modified or deleted
+	 */
+	private static void update(Set<Path> paths) {
+		for(Path path : paths) {
+			update(path);
+		}
+		version++;
+		for(Consumer<Set<Path>> listener : listeners) {
+			listener.accept(paths);
+		}
+	}
+
+	/**
+	 * Adds a function that is called from the listener thread every time files in the resources folder are created, modified or deleted.
+	 * Used to invalidate data computed from the content of the files, since the index only tracks which files exist.
+	 *
+	 * @param listener Function called with the paths to the files that changed
+	 */
+	public static void addListener(Consumer<Set<Path>> listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Removes a function that was added with {@link ResourceIndex#addListener(Consumer)}.
+	 *
+	 * @param listener The function to remove
+	 */
+	public static void removeListener(Consumer<Set<Path>> listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Updates the index after a change to the given file was detected.
+	 *
+	 * @param path Path to the file that was created, modified or deleted
+	 */
+	private static void update(Path path) {
+		if(Files.exists(path)) {
+			if(!children(path.getParent()).contains(path)) {
+				add(path);
+			}
+		} else {
+			remove(path);
+		}
+	}
+
+	/**
+	 * Checks if the file at the given path is a scene file.
+	 *
+	 * @param path Path to the file
+	 * @return True if the given file is a {@code .yaml} or {@code .yml} file, otherwise false
+	 */
+	private static boolean isScene(Path path) {
+		String fileName = path.getFileName().toString();
+		return fileName.endsWith(".yaml") || fileName.endsWith(".yml");
+	}
+
+	/**
+	 * Returns the paths to all the scene files in the resources folder.
+	 * Paths are relative to the resources folder and sorted alphabetically.
+	 *
+	 * @return An unmodifiable view of the set of paths to all the scene files in the project
+	 */
+	public static SortedSet<String> scenes() {
+		return scenesView;
+	}
+
+	/**
+	 * Checks if the given path is a directory in the resources folder.
+	 *
+	 * @param path The path to check
+	 * @return True if the given path is a directory in the resources folder, otherwise false
+	 */
+	public static boolean isDirectory(Path path) {
+		return directories.contains(path);
+	}
+
+	/**
+	 * Checks if the given path is a regular file in the resources folder.
+	 *
+	 * @param path The path to check
+	 * @return True if the given path is a file in the resources folder, otherwise false
+	 */
+	public static boolean isFile(Path path) {
+		return files.contains(path);
+	}
+
+	/**
+	 * Returns the content of the given directory.
+	 * Directories come first and files are sorted alphabetically.
+	 *
+	 * @param directory Path to a directory in the resources folder
+	 * @return An unmodifiable list containing the content of the given directory or an empty list if the given path is not a directory in the resources folder
+	 */
+	public static List<Path> children(Path directory) {
+		return children.getOrDefault(directory, List.of());
+	}
+
+	/**
+	 * Returns a number that changes every time files in the resources folder are created or deleted.
+	 * Used by guis that show the content of the resources folder to know when they need to read it again.
+	 *
+	 * @return The current version of the index
+	 */
+	public static int version() {
+		return version;
+	}
+
+	/**
+	 * Stops listening for changes in the resources folder.
+	 * Must be called when the project is closed.
+	 */
+	public static void terminate() {
+		if(fileSystemListener != null) try {
+			fileSystemListener.stopListening();
+			listenerThread.join();
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+		fileSystemListener = null;
+		listenerThread = null;
+	}
+}
@@ -0,0 +1,278 @@
+package io.github.lwjre.editor.controllers;
+
+import io.github.lwjre.editor.ProjectPath;
+import io.github.lwjre.engine.resources.Model;
+import io.github.lwjre.engine.resources.Shader;
+import io.github.lwjre.engine.utils.FileUtils;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.*;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Static class used to load the resources referenced by a scene before the scene is parsed.
+ * <p>
+ *     The files of the resources are read concurrently on a bounded pool of worker threads, so that opening a scene waits for the slowest file instead of all of them.
+ *     The resources are then loaded from the render thread with {@link ResourcePreloader#load(Queue, long, Runnable)}, a few at a time every frame.
+ *     They are not loaded on the worker threads, since the engine does not guarantee that its caches of resources are thread-safe and models and shaders create OpenGL objects, which can only be done on the render thread.
+ * </p>
+ * Loaded resources are cached by the engine and are reused when the scene is parsed and instantiated.
+ *
+ * @author Nico
+ */
+public final class ResourcePreloader {
+
+	/** Functions used to load resources by their file extension */
+	private static final HashMap<String, Function<String, Object>> LOADERS = new HashMap<>();
+
+	static {
+		LOADERS.put("obj", Model::getOrLoad);
+		LOADERS.put("glsl", Shader::getOrLoad);
+	}
+
+	/** Tag used in scene files to reference a resource */
+	private static final String GET_OR_LOAD = "!getOrLoad";
+
+	/** Worker threads that read the files of resources, at least two so that files are never read one after another */
+	private static final ExecutorService WORKERS = Executors.newFixedThreadPool(Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)), runnable -> {
+		Thread thread = new Thread(runnable, "Resource preloader");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/**
+	 * Collects the paths to the resources referenced with {@code !getOrLoad} by the scene at the given path and by the scenes it overrides.
+	 * The scene files are walked as a stream of yaml events, since constructing them would load every referenced resource one after another.
+	 *
+	 * @param scenePath Path to the scene in the resources folder
+	 * @return A set containing the paths to the referenced resources that have a loader
+	 */
+	public static Set<String> collect(String scenePath) {
+		LinkedHashSet<String> result = new LinkedHashSet<>();
+		HashSet<String> visitedScenes = new HashSet<>();
+		ArrayDeque<String> queue = new ArrayDeque<>();
+		queue.add(scenePath);
+		visitedScenes.add(scenePath);
+		while(!queue.isEmpty()) {
+			String path = queue.poll();
+			Path file = ProjectPath.resourcesFolder(path);
+			if(Files.isRegularFile(file)) try(Reader reader = Files.newBufferedReader(file)) {
+				collect(reader, result, override -> {
+					if(visitedScenes.add(override)) {
+						queue.add(override);
+					}
+				});
+			} catch (IOException | YAMLException e) {
+				e.printStackTrace();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Collects the paths to the resources referenced with {@code !getOrLoad} in the given scene and the scenes it overrides.
+	 * The scene is walked like a {@link io.github.lwjre.engine.resources.NodeResource}: overrides are only read from the resource itself and from its children, resources are only read from their properties.
+	 *
+	 * @param reader Reader of the yaml text of a scene
+	 * @param resources Set where the paths to the referenced resources that have a loader are added
+	 * @param overrides Called with the path of every scene that is overridden in the given scene
+	 * @throws YAMLException If the given text is not valid yaml
+	 */
+	static void collect(Reader reader, Set<String> resources, Consumer<String> overrides) {
+		Iterator<Event> events = new Yaml().parse(reader).iterator();
+		while(events.hasNext()) {
+			Event event = events.next();
+			if(event instanceof NodeEvent) {
+				collectResource(event, events, resources, overrides);
+			}
+		}
+	}
+
+	/**
+	 * Collects the references in a node resource.
+	 *
+	 * @param event The first event of the resource
+	 * @param events The events that follow
+	 * @param resources Set where the paths to the referenced resources are added
+	 * @param overrides Called with the path of every overridden scene
+	 */
+	private static void collectResource(Event event, Iterator<Event> events, Set<String> resources, Consumer<String> overrides) {
+		if(!(event instanceof MappingStartEvent)) {
+			skip(event, events);
+			return;
+		}
+		for(Event key = events.next(); !(key instanceof MappingEndEvent); key = events.next()) {
+			Event value = events.next();
+			String name = key instanceof ScalarEvent scalar ? scalar.getValue() : null;
+			if(key instanceof CollectionStartEvent) {
+				skip(key, events);
+				skip(value, events);
+			} else if("override".equals(name) && value instanceof ScalarEvent scalar) {
+				if(!scalar.getValue().isEmpty()) {
+					overrides.accept(scalar.getValue());
+				}
+			} else if("children".equals(name) && value instanceof MappingStartEvent) {
+				for(Event child = events.next(); !(child instanceof MappingEndEvent); child = events.next()) {
+					skip(child, events);
+					collectResource(events.next(), events, resources, overrides);
+				}
+			} else if("properties".equals(name)) {
+				collectReferences(value, events, resources);
+			} else {
+				skip(value, events);
+			}
+		}
+	}
+
+	/**
+	 * Collects the paths to the resources referenced with {@code !getOrLoad} in the given yaml node and in all the nodes it contains.
+	 *
+	 * @param event The first event of the node
+	 * @param events The events that follow
+	 * @param resources Set where the paths to the referenced resources that have a loader are added
+	 */
+	private static void collectReferences(Event event, Iterator<Event> events, Set<String> resources) {
+		if(event instanceof ScalarEvent scalar) {
+			if(GET_OR_LOAD.equals(scalar.getTag()) && loader(scalar.getValue()) != null) {
+				resources.add(scalar.getValue());
+			}
+		} else if(event instanceof CollectionStartEvent) {
+			for(Event next = events.next(); !(next instanceof CollectionEndEvent); next = events.next()) {
+				collectReferences(next, events, resources);
+			}
+		}
+	}
+
+	/**
+	 * Skips the given yaml node and all the nodes it contains.
+	 *
+	 * @param event The first event of the node
+	 * @param events The events that follow
+	 */
+	private static void skip(Event event, Iterator<Event> events) {
+		int depth = event instanceof CollectionStartEvent ? 1 : 0;
+		while(depth > 0) {
+			Event next = events.next();
+			if(next instanceof CollectionStartEvent) {
+				depth++;
+			} else if(next instanceof CollectionEndEvent) {
+				depth--;
+			}
+		}
+	}
+
+	/**
+	 * Reads the files of the given resources on the worker threads and waits until all of them are read.
+	 * Reading the files does not use the engine, it only makes them ready in the file system's cache, so that loading the resources on the render thread does not wait for the disk.
+	 * Files that cannot be read are skipped, the error is left to be reported when the resource is loaded.
+	 *
+	 * @param paths Paths to the resources in the resources folder
+	 * @param cancelled Checked before reading each file, files that were not read yet are skipped if it returns true
+	 * @param onRead Called after each file is read, may be called from any worker thread
+	 */
+	public static void prefetch(Set<String> paths, BooleanSupplier cancelled, Runnable onRead) {
+		prefetch(paths, cancelled, onRead, path -> {
+			try(InputStream inputStream = Files.newInputStream(ProjectPath.resourcesFolder(path))) {
+				inputStream.transferTo(OutputStream.nullOutputStream());
+			} catch (IOException e) {
+				return null;
+			}
+			return path;
+		});
+	}
+
+	/**
+	 * Reads the given resources on the worker threads with the given function and waits until all of them are read.
+	 *
+	 * @param paths Paths to the resources
+	 * @param cancelled Checked before reading each resource, resources that were not read yet are skipped if it returns true
+	 * @param onRead Called after each resource is read, may be called from any worker thread
+	 * @param read Function used to read a resource
+	 */
+	static void prefetch(Set<String> paths, BooleanSupplier cancelled, Runnable onRead, Function<String, Object> read) {
+		ArrayList<Future<?>> futures = new ArrayList<>();
+		for(String path : paths) {
+			futures.add(WORKERS.submit(() -> {
+				try {
+					if(!cancelled.getAsBoolean()) {
+						read.apply(path);
+					}
+				} finally {
+					onRead.run();
+				}
+			}));
+		}
+		for(Future<?> future : futures) try {
+			future.get();
+		} catch (ExecutionException e) {
+			e.getCause().printStackTrace();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+	}
+
+	/**
+	 * Loads resources from the given queue until it is empty or until the given time is over.
+	 * Must be called from the render thread.
+	 * Resources that fail to load are skipped, the error is left to be reported when the scene is instantiated.
+	 *
+	 * @param paths Paths to the resources to load, loaded resources are removed from the queue
+	 * @param budget Time in nanoseconds after which no more resources are loaded, at least one resource is loaded anyway
+	 * @param onLoaded Called after each resource is loaded
+	 * @return True if all the resources in the queue were loaded, otherwise false
+	 */
+	public static boolean load(Queue<String> paths, long budget, Runnable onLoaded) {
+		return load(paths, budget, onLoaded, path -> FileUtils.resourceExists(path) ? loader(path).apply(path) : null);
+	}
+
+	/**
+	 * Loads resources from the given queue with the given function until it is empty or until the given time is over.
+	 *
+	 * @param paths Paths to the resources to load, loaded resources are removed from the queue
+	 * @param budget Time in nanoseconds after which no more resources are loaded, at least one resource is loaded anyway
+	 * @param onLoaded Called after each resource is loaded
+	 * @param load Function used to load a resource
+	 * @return True if all the resources in the queue were loaded, otherwise false
+	 */
+	static boolean load(Queue<String> paths, long budget, Runnable onLoaded, Function<String, Object> load) {
+		long start = System.nanoTime();
+		String path = paths.poll();
+		while(path != null) {
+			try {
+				load.apply(path);
+			} catch (RuntimeException e) {
+				e.printStackTrace();
+			} finally {
+				onLoaded.run();
+			}
+			if(System.nanoTime() - start >= budget) {
+				return paths.isEmpty();
+			}
+			path = paths.poll();
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the function used to load the resource at the given path.
+	 *
+	 * @param path Path to the resource
+	 * @return The function used to load the resource or null if there is no loader for the resource's extension
+	 */
+	private static Function<String, Object> loader(String path) {
+		int dot = path.lastIndexOf('.');
+		return dot != -1 ? LOADERS.get(path.substring(dot + 1)) : null;
+	}
+}
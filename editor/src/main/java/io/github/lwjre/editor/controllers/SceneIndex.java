@@ -0,0 +1,271 @@
+package io.github.lwjre.editor.controllers;
+
+import io.github.lwjre.editor.models.EditorNode;
+import io.github.lwjre.engine.nodes.Node;
+import io.github.lwjre.engine.resources.NodeResource;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * Static class used to index the structure of the current scene.
+ * The children of a resource are sorted the first time they are requested, then the sorted list is kept up to date when children are added or removed through the {@link EditorScene}.
+ * The index also keeps the parent of every resource, so that the ancestors of a resource can be found without searching the whole scene.
+ * When new children are added, the suffixes that were already used for each name are remembered, so that unused keys can be found without trying all the previous ones.
+ *
+ * @author Nico
+ */
+public final class SceneIndex {
+
+	/** Children of every indexed resource, sorted by their key */
+	private static final IdentityHashMap<NodeResource, ArrayList<EditorNode>> sortedChildren = new IdentityHashMap<>();
+	/** Parent and key of every resource in the current scene, null until the parents are first needed */
+	private static IdentityHashMap<NodeResource, Link> links = null;
+	/** Next suffix to try for every name, mapped by the resource the children are added to */
+	private static final IdentityHashMap<NodeResource, HashMap<String, Integer>> suffixes = new IdentityHashMap<>();
+
+	/**
+	 * Gets the children of the given node sorted by their key.
+	 * Children whose node was not instantiated are skipped.
+	 *
+	 * @param parent The parent node
+	 * @return An unmodifiable list containing the children of the given node
+	 */
+	public static List<EditorNode> children(EditorNode parent) {
+		ArrayList<EditorNode> children = sortedChildren.get(parent.resource());
+		if(children == null) {
+			ArrayList<String> keys = new ArrayList<>(parent.resource().children.keySet());
+			Collections.sort(keys);
+			children = new ArrayList<>(keys.size());
+			for(String key : keys) {
+				Node child = parent.node().getChild(key);
+				if(child != null) {
+					children.add(new EditorNode(child, parent.resource().children.get(key), key, parent.resource()));
+				}
+			}
+			sortedChildren.put(parent.resource(), children);
+		}
+		return Collections.unmodifiableList(children);
+	}
+
+	/**
+	 * Checks if the given descendant is a child or grandchild of the given ancestor.
+	 * Only walks up from the descendant, so it takes time proportional to the descendant's depth.
+	 *
+	 * @param ancestor The ancestor
+	 * @param descendant The descendant
+	 * @return True if the given ancestor is an ancestor of the given descendant, otherwise false
+	 */
+	public static boolean isDescendant(NodeResource ancestor, NodeResource descendant) {
+		IdentityHashMap<NodeResource, Link> links = links();
+		Link link = links.get(descendant);
+		while(link != null) {
+			if(link.parent() == ancestor) {
+				return true;
+			}
+			link = links.get(link.parent());
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the keys of the nodes on the path from the root of the current scene to the given resource.
+	 *
+	 * @param resource The resource
+	 * @return A list containing the keys on the path to the given resource, an empty list if the given resource is the root, or null if the given resource is not in the current scene
+	 */
+	public static List<String> path(NodeResource resource) {
+		IdentityHashMap<NodeResource, Link> links = links();
+		Link link = links.get(resource);
+		if(link == null && resource != EditorScene.rootResource()) {
+			return null;
+		}
+		ArrayDeque<String> keys = new ArrayDeque<>();
+		while(link != null) {
+			keys.addFirst(link.key());
+			link = links.get(link.parent());
+		}
+		return List.copyOf(keys);
+	}
+
+	/**
+	 * Finds a key that is not used by any of the children of the given resource.
+	 * If the given key is already used, its trailing digits are replaced with the lowest number, starting from 2, that is higher than the ones that were already given out for the same name.
+	 *
+	 * @param parentResource The resource the child is going to be added to
+	 * @param from The key to start from
+	 * @return The given key if it is not used, otherwise the given key with a different number at the end
+	 */
+	public static String unusedKey(NodeResource parentResource, String from) {
+		if(!parentResource.children.containsKey(from)) {
+			return from;
+		}
+		int end = from.length();
+		while(end > 0 && from.charAt(end - 1) >= '0' && from.charAt(end - 1) <= '9') {
+			end--;
+		}
+		String name = from.substring(0, end);
+		HashMap<String, Integer> nextSuffixes = suffixes.computeIfAbsent(parentResource, resource -> new HashMap<>());
+		int suffix = nextSuffixes.getOrDefault(name, 2);
+		String key = name + suffix;
+		while(parentResource.children.containsKey(key)) {
+			suffix++;
+			key = name + suffix;
+		}
+		nextSuffixes.put(name, suffix + 1);
+		return key;
+	}
+
+	/**
+	 * Gets the parents of the resources in the current scene.
+	 * The parents are looked up the first time they are needed, then they are kept up to date when children are added or removed.
+	 *
+	 * @return A map containing the parent and key of every resource in the current scene
+	 */
+	private static IdentityHashMap<NodeResource, Link> links() {
+		if(links == null) {
+			links = new IdentityHashMap<>();
+			if(EditorScene.rootResource() != null) {
+				addLinks(EditorScene.rootResource());
+			}
+		}
+		return links;
+	}
+
+	/**
+	 * Adds the links of all the descendants of the given resource.
+	 *
+	 * @param resource The resource
+	 */
+	private static void addLinks(NodeResource resource) {
+		ArrayDeque<NodeResource> stack = new ArrayDeque<>();
+		stack.push(resource);
+		while(!stack.isEmpty()) {
+			NodeResource parent = stack.pop();
+			parent.children.forEach((key, child) -> {
+				links.put(child, new Link(parent, key));
+				stack.push(child);
+			});
+		}
+	}
+
+	/**
+	 * Adds a child to the index.
+	 * The list of children is only updated if the children of the given parent were already indexed.
+	 *
+	 * @param parentResource Resource the child was added to
+	 * @param key Key of the child
+	 * @param resource The child's resource
+	 * @param node The child node
+	 */
+	static void childAdded(NodeResource parentResource, String key, NodeResource resource, Node node) {
+		if(links != null) {
+			links.put(resource, new Link(parentResource, key));
+			addLinks(resource);
+		}
+		ArrayList<EditorNode> children = sortedChildren.get(parentResource);
+		if(children != null) {
+			EditorNode child = new EditorNode(node, resource, key, parentResource);
+			int index = indexOf(children, key);
+			if(index >= 0) {
+				children.set(index, child);
+			} else {
+				children.add(-index - 1, child);
+			}
+		}
+	}
+
+	/**
+	 * Removes a child from the index.
+	 * The child and all of its descendants are removed from the index, the list of children of the given parent is only updated if it was already indexed.
+	 *
+	 * @param parentResource Resource the child was removed from
+	 * @param key Key of the child
+	 * @param resource The child's resource, may be null if there was no child with the given key
+	 */
+	static void childRemoved(NodeResource parentResource, String key, NodeResource resource) {
+		if(resource != null) {
+			Link link = links != null ? links.get(resource) : null;
+			if(link == null || link.parent() == parentResource) {
+				removeSubtree(resource);
+			}
+		}
+		ArrayList<EditorNode> children = sortedChildren.get(parentResource);
+		if(children != null) {
+			int index = indexOf(children, key);
+			if(index >= 0) {
+				children.remove(index);
+			}
+		}
+	}
+
+	/**
+	 * Removes the given resource and all of its descendants from the index.
+	 * Mirrors {@link SceneIndex#addLinks(NodeResource)}.
+	 *
+	 * @param resource The resource
+	 */
+	private static void removeSubtree(NodeResource resource) {
+		ArrayDeque<NodeResource> stack = new ArrayDeque<>();
+		stack.push(resource);
+		while(!stack.isEmpty()) {
+			NodeResource removed = stack.pop();
+			if(links != null) {
+				links.remove(removed);
+			}
+			sortedChildren.remove(removed);
+			suffixes.remove(removed);
+			for(NodeResource child : removed.children.values()) {
+				stack.push(child);
+			}
+		}
+	}
+
+	/**
+	 * Clears the index.
+	 * Must be called when the current scene is changed or when its nodes are instantiated again.
+	 */
+	static void clear() {
+		sortedChildren.clear();
+		links = null;
+		suffixes.clear();
+	}
+
+	/**
+	 * Looks for the child with the given key with a binary search.
+	 *
+	 * @param children Sorted list of children
+	 * @param key The key to look for
+	 * @return The index of the child with the given key or {@code -(insertion point) - 1} if there is no such child, like {@link Collections#binarySearch(List, Object)}
+	 */
+	private static int indexOf(List<EditorNode> children, String key) {
+		int low = 0;
+		int high = children.size() - 1;
+		while(low <= high) {
+			int middle = (low + high) >>> 1;
+			int comparison = children.get(middle).label().compareTo(key);
+			if(comparison < 0) {
+				low = middle + 1;
+			} else if(comparison > 0) {
+				high = middle - 1;
+			} else {
+				return middle;
+			}
+		}
+		return -low - 1;
+	}
+
+	/**
+	 * Parent of a resource in the current scene.
+	 *
+	 * @param parent The parent resource
+	 * @param key Key of the resource in its parent
+	 */
+	private record Link(NodeResource parent, String key) {
+
+	}
+}
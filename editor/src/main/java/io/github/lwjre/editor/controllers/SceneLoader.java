@@ -0,0 +1,256 @@
+package io.github.lwjre.editor.controllers;
+
+import io.github.lwjre.editor.utils.SceneCache;
+import io.github.lwjre.engine.resources.NodeResource;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Static class used to open scenes in the background.
+ * The files of the resources a scene references are read in the background, the resources are loaded on the render thread, then the scene is parsed and its overrides are resolved on the loader thread.
+ * The finished resource tree is then instantiated on the render thread, where it replaces the current scene.
+ * <p>
+ *     Nodes are not instantiated on the loader thread, since instantiating a scene runs the nodes' constructors and loads resources through the engine's caches.
+ *     The engine does not guarantee that those are thread-safe or free of OpenGL calls, and the render thread uses them as well.
+ * </p>
+ * Only one scene can be loaded at a time, loading a new scene cancels the previous one.
+ *
+ * @author Nico
+ */
+public final class SceneLoader {
+
+	/** Thread that loads scenes */
+	private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "Scene loader");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/** Time in nanoseconds that can be spent loading resources on the render thread every frame */
+	private static final long FRAME_BUDGET = TimeUnit.MILLISECONDS.toNanos(8);
+
+	/** The scene that is currently being loaded, null if no scene is being loaded */
+	private static volatile LoadingTask currentTask = null;
+
+	/**
+	 * Starts loading the scene at the given path.
+	 * The scene that is currently being loaded, if any, is cancelled.
+	 * Classes are loaded with the calling thread's context class loader.
+	 *
+	 * @param path Path to the scene in the resources folder
+	 */
+	public static void load(String path) {
+		cancel();
+		LoadingTask task = new LoadingTask(path, Thread.currentThread().getContextClassLoader());
+		currentTask = task;
+		EXECUTOR.execute(task);
+	}
+
+	/**
+	 * Cancels the scene that is currently being loaded.
+	 * The current scene is not changed.
+	 */
+	public static void cancel() {
+		LoadingTask task = currentTask;
+		if(task != null) {
+			task.cancelled = true;
+			currentTask = null;
+		}
+	}
+
+	/**
+	 * Loads the resources of the scene that is being loaded, then instantiates the scene when it is finished and replaces the current scene with it.
+	 * Must be called every frame from the render thread.
+	 */
+	public static void update() {
+		LoadingTask task = currentTask;
+		if(task != null && task.resources != null && task.resourcesLoaded.getCount() > 0) {
+			Thread thread = Thread.currentThread();
+			ClassLoader previous = thread.getContextClassLoader();
+			try {
+				thread.setContextClassLoader(task.classLoader);
+				if(ResourcePreloader.load(task.resources, FRAME_BUDGET, task.completedSteps::incrementAndGet)) {
+					task.resourcesLoaded.countDown();
+				}
+			} finally {
+				thread.setContextClassLoader(previous);
+			}
+		} else if(task != null && task.finished) {
+			currentTask = null;
+			if(!task.cancelled && task.rootResource != null) try {
+				EditorScene.changeScene(task.rootResource, task.rootResource.instantiate(), task.path);
+			} catch (RuntimeException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Checks if a scene is being loaded.
+	 *
+	 * @return True if a scene is being loaded, otherwise false
+	 */
+	public static boolean isLoading() {
+		return currentTask != null;
+	}
+
+	/**
+	 * Returns the progress of the scene that is being loaded.
+	 *
+	 * @return A value between zero and one or zero if no scene is being loaded
+	 */
+	public static float progress() {
+		LoadingTask task = currentTask;
+		return task != null ? (float) task.completedSteps.get() / task.totalSteps : 0.0f;
+	}
+
+	/**
+	 * Returns a description of what is being loaded.
+	 *
+	 * @return A description of the current loading step or an empty string if no scene is being loaded
+	 */
+	public static String status() {
+		LoadingTask task = currentTask;
+		return task != null ? task.status : "";
+	}
+
+	/**
+	 * Task that loads a scene on the loader thread.
+	 */
+	private static class LoadingTask implements Runnable {
+
+		/** Path to the scene in the resources folder */
+		private final String path;
+		/** Class loader used to load the scene's classes */
+		private final ClassLoader classLoader;
+
+		/** Set to true to stop loading the scene */
+		private volatile boolean cancelled = false;
+		/** Set to true when the task is over, whether it succeeded or not */
+		private volatile boolean finished = false;
+		/** Description of the current step */
+		private volatile String status = "Reading resources";
+		/** Number of steps that were completed */
+		private final AtomicInteger completedSteps = new AtomicInteger();
+		/** Total number of steps, grows as resources and overridden scenes are found */
+		private volatile int totalSteps = 2;
+
+		/** Paths to the resources that are waiting to be loaded on the render thread, only used by the render thread once it is set */
+		private volatile Queue<String> resources = null;
+		/** Released by the render thread once all the resources are loaded */
+		private final CountDownLatch resourcesLoaded = new CountDownLatch(1);
+
+		/** Resource of the loaded scene, null if the scene could not be loaded */
+		private volatile NodeResource rootResource = null;
+
+		/**
+		 * Creates a task that loads the given scene.
+		 *
+		 * @param path Path to the scene in the resources folder
+		 * @param classLoader Class loader used to load the scene's classes
+		 */
+		private LoadingTask(String path, ClassLoader classLoader) {
+			this.path = path;
+			this.classLoader = classLoader;
+		}
+
+		@Override
+		public void run() {
+			Thread.currentThread().setContextClassLoader(this.classLoader);
+			try {
+				this.preloadResources();
+				if(this.cancelled) {
+					return;
+				}
+				this.status = "Parsing scene";
+				NodeResource nodeResource = SceneCache.parse(this.path);
+				this.completedSteps.incrementAndGet();
+				if(nodeResource != null && !this.cancelled) {
+					this.resolveOverrides(nodeResource);
+					if(!this.cancelled) {
+						this.status = "Instantiating nodes";
+						this.completedSteps.set(this.totalSteps);
+						this.rootResource = nodeResource;
+					}
+				}
+			} catch (RuntimeException e) {
+				e.printStackTrace();
+			} finally {
+				this.finished = true;
+			}
+		}
+
+		/**
+		 * Loads all the scenes overridden by the given resource and its children, so that they are in the engine's cache when the scene is instantiated.
+		 * Scenes are loaded one after another on the loader thread, the engine's cache of scenes is never used by more than one background thread.
+		 *
+		 * @param rootResource The root resource
+		 */
+		private void resolveOverrides(NodeResource rootResource) {
+			this.status = "Resolving overrides";
+			HashSet<String> visited = new HashSet<>();
+			List<String> overrides = overrides(List.of(rootResource), visited);
+			this.totalSteps += overrides.size();
+			while(!overrides.isEmpty() && !this.cancelled) {
+				ArrayList<NodeResource> resources = new ArrayList<>();
+				for(String override : overrides) {
+					NodeResource resource = NodeResource.getOrLoad(override);
+					if(resource != null) {
+						resources.add(resource);
+					}
+					this.completedSteps.incrementAndGet();
+				}
+				overrides = overrides(resources, visited);
+				this.totalSteps += overrides.size();
+			}
+		}
+
+		/**
+		 * Loads the resources referenced by the scene and by the scenes it overrides with the {@link ResourcePreloader}.
+		 * Their files are read on the worker threads, then the resources are loaded on the render thread while this thread waits.
+		 * Resources are loaded before the scene is parsed, so that the parser finds them in the engine's cache.
+		 */
+		private void preloadResources() {
+			Set<String> resources = ResourcePreloader.collect(this.path);
+			this.totalSteps += 2 * resources.size();
+			ResourcePreloader.prefetch(resources, () -> this.cancelled, this.completedSteps::incrementAndGet);
+			if(resources.isEmpty() || this.cancelled) {
+				return;
+			}
+			this.status = "Loading resources";
+			this.resources = new ArrayDeque<>(resources);
+			try {
+				while(!this.cancelled) {
+					if(this.resourcesLoaded.await(50, TimeUnit.MILLISECONDS)) {
+						return;
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				this.cancelled = true;
+			}
+		}
+
+		/**
+		 * Collects the overrides of the given resources and their children that were not visited yet.
+		 *
+		 * @param resources The resources to check
+		 * @param visited Paths to the scenes that were already collected, the paths found are added to it
+		 * @return A list containing the paths to the overridden scenes
+		 */
+		private static List<String> overrides(List<NodeResource> resources, Set<String> visited) {
+			ArrayList<String> result = new ArrayList<>();
+			ArrayDeque<NodeResource> queue = new ArrayDeque<>(resources);
+			while(!queue.isEmpty()) {
+				NodeResource resource = queue.poll();
+				if(resource.override != null && !resource.override.isEmpty() && visited.add(resource.override)) {
+					result.add(resource.override);
+				}
+				queue.addAll(resource.children.values());
+			}
+			return result;
+		}
+	}
+}
@@ -0,0 +1,236 @@
+package io.github.lwjre.editor.controllers;
+
+import io.github.lwjre.engine.resources.NodeResource;
+import io.github.lwjre.engine.utils.YamlSerializer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Static class used to save scenes on a background thread.
+ * <p>
+ *     When a scene is saved, a snapshot of the resources that changed since the last save is taken on the render thread.
+ *     The snapshot is serialized on the saver thread, written to a temporary file and moved over the scene file, so that the scene file is never left half written.
+ * </p>
+ * <p>
+ *     The yaml text of every resource is kept after it is written.
+ *     Subtrees that were not changed since the previous save are not serialized again, their text is reused as it is.
+ * </p>
+ *
+ * @author Nico
+ */
+public final class SceneSaver {
+
+	/** Tag written before every node resource */
+	private static final String TAG = "!!" + NodeResource.class.getName();
+
+	/** Thread that writes scenes */
+	private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "Scene saver");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	/** Yaml text of the resources written by the previous saves, without their tag */
+	private static final Map<NodeResource, String> serializedResources = Collections.synchronizedMap(new IdentityHashMap<>());
+
+	/**
+	 * Saves the given scene to the given file on the saver thread.
+	 * Must be called from the render thread, which is the thread that modifies the scene.
+	 * If the scene cannot be written, the changed resources are marked as changed again.
+	 *
+	 * @param rootResource Root of the scene to save
+	 * @param file Path to the scene file
+	 * @param changedResources Resources that were changed since the previous save
+	 */
+	public static void save(NodeResource rootResource, Path file, Set<NodeResource> changedResources) {
+		Snapshot snapshot = snapshot(rootResource, changedResources);
+		EXECUTOR.execute(() -> {
+			try {
+				Path temporaryFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+				try(BufferedWriter writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+					writer.write(TAG);
+					String text = snapshot.text();
+					writer.write(text.isEmpty() ? " {}\n" : "\n");
+					writer.write(text);
+				} catch (IOException e) {
+					Files.deleteIfExists(temporaryFile);
+					throw e;
+				}
+				Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				snapshot.storeText();
+			} catch (IOException | RuntimeException e) {
+				e.printStackTrace();
+				changedResources.forEach(EditorScene::markChanged);
+			}
+		});
+	}
+
+	/**
+	 * Forgets the text of the resources written by the previous saves.
+	 * Must be called when the current scene changes.
+	 */
+	public static void clear() {
+		serializedResources.clear();
+	}
+
+	/**
+	 * Waits until all the scenes that are being saved are written.
+	 * Must be called before the editor is closed.
+	 */
+	public static void awaitSaves() {
+		try {
+			EXECUTOR.submit(() -> {}).get(10, TimeUnit.SECONDS);
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Takes a snapshot of the given resource and its children.
+	 * Resources that were not changed and whose children were not changed reuse their previous text, the others are copied.
+	 *
+	 * @param resource The resource
+	 * @param changedResources Resources that were changed since the previous save
+	 * @return The snapshot of the resource
+	 */
+	private static Snapshot snapshot(NodeResource resource, Set<NodeResource> changedResources) {
+		LinkedHashMap<String, Snapshot> children = new LinkedHashMap<>();
+		boolean changed = changedResources.contains(resource);
+		for(Map.Entry<String, NodeResource> child : new TreeMap<>(resource.children).entrySet()) {
+			Snapshot snapshot = snapshot(child.getValue(), changedResources);
+			changed |= snapshot.text == null;
+			children.put(child.getKey(), snapshot);
+		}
+		String text = changed ? null : serializedResources.get(resource);
+		if(text != null) {
+			return new Snapshot(resource, text, null, null, null, null);
+		}
+		return new Snapshot(resource, null, resource.type, resource.override, new TreeMap<>(resource.properties), children);
+	}
+
+	/**
+	 * Appends a yaml entry to the given string builder.
+	 * The first line of the value is written after the key if the value is a single line or if it starts with a tag or a block scalar indicator, the other lines are indented under the key.
+	 *
+	 * @param builder The string builder
+	 * @param indent Indentation of the entry
+	 * @param key The entry's key
+	 * @param value Yaml text of the entry's value, may span multiple lines
+	 */
+	private static void appendEntry(StringBuilder builder, String indent, String key, String value) {
+		builder.append(indent).append(key).append(':');
+		String[] lines = value.split("\n");
+		int start = 0;
+		if(lines.length == 1 || lines[0].startsWith("!") || lines[0].startsWith("|") || lines[0].startsWith(">")) {
+			builder.append(' ').append(lines[0]);
+			start = 1;
+		}
+		builder.append('\n');
+		for(int i = start; i < lines.length; i++) {
+			if(!lines[i].isEmpty()) {
+				builder.append(indent).append("  ");
+			}
+			builder.append(lines[i]).append('\n');
+		}
+	}
+
+	/**
+	 * Serializes a single value to yaml.
+	 *
+	 * @param value The value
+	 * @return The yaml text of the value, without the trailing new line
+	 */
+	private static String serialize(Object value) {
+		String text = YamlSerializer.serialize(value);
+		return text.endsWith("\n") ? text.substring(0, text.length() - 1) : text;
+	}
+
+	/**
+	 * Snapshot of a resource taken when the scene is saved.
+	 * Either contains the text of the resource written by a previous save or a copy of the resource's fields.
+	 */
+	private static class Snapshot {
+
+		/** The resource this snapshot was taken from */
+		private final NodeResource resource;
+		/** Yaml text of the resource, null until the snapshot is serialized if the resource changed */
+		private String text;
+		/** Copy of the resource's type */
+		private final String type;
+		/** Copy of the resource's override */
+		private final String override;
+		/** Copy of the resource's properties */
+		private final Map<String, Object> properties;
+		/** Snapshots of the resource's children */
+		private final Map<String, Snapshot> children;
+
+		/**
+		 * Creates a snapshot.
+		 *
+		 * @param resource The resource this snapshot was taken from
+		 * @param text Yaml text of the resource or null if the resource changed
+		 * @param type Copy of the resource's type
+		 * @param override Copy of the resource's override
+		 * @param properties Copy of the resource's properties
+		 * @param children Snapshots of the resource's children
+		 */
+		private Snapshot(NodeResource resource, String text, String type, String override, Map<String, Object> properties, Map<String, Snapshot> children) {
+			this.resource = resource;
+			this.text = text;
+			this.type = type;
+			this.override = override;
+			this.properties = properties;
+			this.children = children;
+		}
+
+		/**
+		 * Returns the yaml text of the resource without its tag, serializing it if it changed.
+		 * Entries are written in alphabetical order, like the engine's serializer does.
+		 *
+		 * @return The yaml text of the resource
+		 */
+		private String text() {
+			if(this.text == null) {
+				StringBuilder builder = new StringBuilder();
+				if(!this.children.isEmpty()) {
+					builder.append("children:\n");
+					this.children.forEach((key, child) -> {
+						String childText = child.text();
+						appendEntry(builder, "  ", serialize(key), childText.isEmpty() ? TAG + " {}" : TAG + "\n" + childText);
+					});
+				}
+				if(this.override != null && !this.override.isEmpty()) {
+					appendEntry(builder, "", "override", serialize(this.override));
+				}
+				if(!this.properties.isEmpty()) {
+					builder.append("properties:\n");
+					this.properties.forEach((key, value) -> appendEntry(builder, "  ", serialize(key), serialize(value)));
+				}
+				if(this.type != null) {
+					appendEntry(builder, "", "type", serialize(this.type));
+				}
+				this.text = builder.toString();
+			}
+			return this.text;
+		}
+
+		/**
+		 * Stores the text of this snapshot and of its children so that it can be reused by the next save.
+		 */
+		private void storeText() {
+			serializedResources.put(this.resource, this.text);
+			if(this.children != null) {
+				this.children.values().forEach(Snapshot::storeText);
+			}
+		}
+	}
+}
@@ -6,20 +6,24 @@ import java.util.Objects;
 
 /**
  * A basic popup that contains a single label.
+ * The popup can be opened with a "Close" button, for messages the user needs to dismiss, or without one, for operations that close the popup when they are done.
+ * Its title and content may be changed from other threads.
  *
  * @author Nico
  */
 public class BasicPopup implements GuiComponent {
 
 	/** The popup's title */
-	private String title = "Popup";
+	private volatile String title = "Popup";
 	/** Text to write in the popup's body */
-	private String content = "Content";
+	private volatile String content = "Content";
 
 	/** Set to true to open the popup */
-	private boolean shouldOpen = false;
+	private volatile boolean shouldOpen = false;
 	/** Set to true to close the popup */
-	private boolean shouldClose = false;
+	private volatile boolean shouldClose = false;
+	/** True if the popup has a "Close" button */
+	private volatile boolean closeable = false;
 
 	@Override
 	public void draw() {
@@ -29,6 +33,9 @@ public class BasicPopup implements GuiComponent {
 		}
 		if(ImGui.beginPopupModal(this.title)) {
 			ImGui.text(this.content);
+			if(this.closeable && ImGui.button("Close")) {
+				ImGui.closeCurrentPopup();
+			}
 			if(this.shouldClose) {
 				ImGui.closeCurrentPopup();
 				this.shouldClose = false;
@@ -56,9 +63,19 @@ public class BasicPopup implements GuiComponent {
 	}
 
 	/**
-	 * Opens the popup.
+	 * Opens the popup without a "Close" button.
 	 */
 	public void open() {
+		this.closeable = false;
+		this.shouldOpen = true;
+		this.shouldClose = false;
+	}
+
+	/**
+	 * Opens the popup with a "Close" button.
+	 */
+	public void openCloseable() {
+		this.closeable = true;
 		this.shouldOpen = true;
 		this.shouldClose = false;
 	}
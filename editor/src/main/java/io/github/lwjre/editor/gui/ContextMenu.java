@@ -3,28 +3,32 @@ package io.github.lwjre.editor.gui;
 import imgui.ImGui;
 
 import java.util.ArrayList;
+import java.util.function.Consumer;
 
 /**
  * Represents a context menu shown when an item is right-clicked.
+ * The menu does not refer to a specific item, the item is passed to the menu's actions when the menu is drawn, so that the same menu can be reused for different items.
+ *
+ * @param <N> Type of item this menu is shown for
  *
  * @author Nico
  */
-public class ContextMenu {
+public class ContextMenu<N> {
 
 	/** List of menu items */
-	private final ArrayList<Runnable> menuItems = new ArrayList<>();
+	private final ArrayList<Consumer<N>> menuItems = new ArrayList<>();
 
 	/**
 	 * Adds an item to the menu.
 	 *
 	 * @param label The item's label
 	 * @param shortcut The item's shortcut
-	 * @param action Action to perform when the item is clicked
+	 * @param action Action to perform on the item the menu was opened for when the menu item is clicked
 	 */
-	public void menuItem(String label, String shortcut, Runnable action) {
-		this.menuItems.add(() -> {
+	public void menuItem(String label, String shortcut, Consumer<N> action) {
+		this.menuItems.add(item -> {
 			if(ImGui.menuItem(label, shortcut)) {
-				action.run();
+				action.accept(item);
 			}
 		});
 	}
@@ -33,12 +37,12 @@ public class ContextMenu {
 	 * Adds an item to the menu.
 	 *
 	 * @param label The item's label
-	 * @param action Action to perform when the item is clicked
+	 * @param action Action to perform on the item the menu was opened for when the menu item is clicked
 	 */
-	public void menuItem(String label, Runnable action) {
-		this.menuItems.add(() -> {
+	public void menuItem(String label, Consumer<N> action) {
+		this.menuItems.add(item -> {
 			if(ImGui.menuItem(label)) {
-				action.run();
+				action.accept(item);
 			}
 		});
 	}
@@ -47,7 +51,7 @@ public class ContextMenu {
 	 * Adds a separator to the menu.
 	 */
 	public void separator() {
-		this.menuItems.add(ImGui::separator);
+		this.menuItems.add(item -> ImGui.separator());
 	}
 
 	/**
@@ -56,26 +60,40 @@ public class ContextMenu {
 	 * @param label The item's label
 	 * @param submenu The submenu
 	 */
-	public void submenu(String label, ContextMenu submenu) {
-		this.menuItems.add(() -> {
+	public void submenu(String label, ContextMenu<N> submenu) {
+		this.menuItems.add(item -> {
+			if(ImGui.beginMenu(label)) {
+				submenu.drawItems(item);
+				ImGui.endMenu();
+			}
+		});
+	}
+
+	/**
+	 * Adds a submenu whose content changes over time to the menu.
+	 * The given function is called to draw the content of the submenu only while the submenu is open.
+	 *
+	 * @param label The item's label
+	 * @param content Function that draws the content of the submenu for the item the menu was opened for
+	 */
+	public void submenu(String label, Consumer<N> content) {
+		this.menuItems.add(item -> {
 			if(ImGui.beginMenu(label)) {
-				submenu.menuItems.forEach(Runnable::run);
+				content.accept(item);
 				ImGui.endMenu();
 			}
 		});
 	}
 
 	/**
-	 * Draws the menu.
+	 * Draws the menu items.
+	 * Must be called while the popup that contains this menu is open.
 	 *
-	 * @return True if the menu is open, otherwise false
+	 * @param item The item the menu was opened for
 	 */
-	public boolean draw() {
-		if(ImGui.beginPopupContextItem()) {
-			this.menuItems.forEach(Runnable::run);
-			ImGui.endPopup();
-			return true;
+	public void drawItems(N item) {
+		for(int i = 0; i < this.menuItems.size(); i++) {
+			this.menuItems.get(i).accept(item);
 		}
-		return false;
 	}
 }
@@ -3,16 +3,15 @@ package io.github.lwjre.editor.gui;
 import imgui.ImGui;
 import io.github.lwjre.editor.ProjectPath;
 import io.github.lwjre.editor.controllers.Clipboard;
-import io.github.lwjre.editor.controllers.EditorScene;
+import io.github.lwjre.editor.controllers.ResourceIndex;
+import io.github.lwjre.editor.controllers.SceneLoader;
 import io.github.lwjre.editor.utils.EditorFileUtils;
-import io.github.lwjre.engine.resources.NodeResource;
-import io.github.lwjre.engine.utils.YamlParser;
 import org.lwjgl.glfw.GLFW;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.stream.Stream;
+import java.util.Collection;
 
 /**
  * Represents the file system gui.
@@ -60,20 +59,17 @@ public class FileSystemWindow extends TreeWindow<Path> {
 
 	@Override
 	protected boolean isLeaf(Path node) {
-		return !Files.isDirectory(node);
+		return !ResourceIndex.isDirectory(node);
 	}
 
 	@Override
-	protected void drawChildren(Path node) {
-		try(Stream<Path> files = Files.list(node)) {
-			files.sorted((path1, path2) -> {
-				if(Files.isDirectory(path1) == Files.isDirectory(path2))
-					return path1.getFileName().toString().compareToIgnoreCase(path2.getFileName().toString());
-				return Files.isDirectory(path1) ? -1 : 1;
-			}).forEach(this::drawNode);
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
+	protected Collection<Path> getChildren(Path node) {
+		return ResourceIndex.children(node);
+	}
+
+	@Override
+	protected int treeVersion() {
+		return ResourceIndex.version();
 	}
 
 	@Override
@@ -86,32 +82,34 @@ public class FileSystemWindow extends TreeWindow<Path> {
 		String path = this.getRoot().relativize(node).toString();
 		if(path.endsWith(".yaml") || path.endsWith(".yml")) {
 			// TODO: Remove selected node from the fields
-			Object resource = YamlParser.parseResource(path);
-			if(resource instanceof NodeResource nodeResource) {
-				EditorScene.changeScene(nodeResource, path);
-			}
+			SceneLoader.load(path);
 		}
 	}
 
 	@Override
-	protected ContextMenu contextMenu(Path node) {
-		ContextMenu contextMenu = super.contextMenu(node);
-		contextMenu.menuItem("New folder", "Ctrl + N", () -> this.newFolder(node));
+	protected ContextMenu<Path> contextMenu(Path node) {
+		ContextMenu<Path> contextMenu = super.contextMenu(node);
+		contextMenu.menuItem("New folder", "Ctrl + N", this::newFolder);
 		contextMenu.separator();
 		boolean isRoot = node.equals(this.getRoot());
 		if(!isRoot) {
-			contextMenu.menuItem("Cut", "Ctrl + X", () -> cutPath(node));
-			contextMenu.menuItem("Copy", "Ctrl + C", () -> copyPath(node));
+			contextMenu.menuItem("Cut", "Ctrl + X", FileSystemWindow::cutPath);
+			contextMenu.menuItem("Copy", "Ctrl + C", FileSystemWindow::copyPath);
 		}
-		contextMenu.menuItem("Paste", "Ctrl + V", () -> pastePath(node));
+		contextMenu.menuItem("Paste", "Ctrl + V", FileSystemWindow::pastePath);
 		if(!isRoot) {
 			contextMenu.separator();
-			contextMenu.menuItem("Rename", "Shift + F6", () -> this.rename(node));
-			contextMenu.menuItem("Delete", "Del", () -> this.delete(node));
+			contextMenu.menuItem("Rename", "Shift + F6", this::rename);
+			contextMenu.menuItem("Delete", "Del", this::delete);
 		}
 		return contextMenu;
 	}
 
+	@Override
+	protected Object contextMenuType(Path node) {
+		return node.equals(this.getRoot());
+	}
+
 	@Override
 	protected void hotkeys(Path node) {
 		if(ImGui.isKeyDown(GLFW.GLFW_KEY_LEFT_CONTROL) || ImGui.isKeyDown(GLFW.GLFW_KEY_RIGHT_CONTROL)) {
@@ -213,7 +211,7 @@ public class FileSystemWindow extends TreeWindow<Path> {
 	 */
 	private void delete(Path path) {
 		this.askConfirmationPopup.setTitle("Delete file");
-		if(Files.isDirectory(path)) {
+		if(ResourceIndex.isDirectory(path)) {
 			this.askConfirmationPopup.setContent("Delete directory \"" + path + "\" and all of its content?");
 		} else {
 			this.askConfirmationPopup.setContent("Delete file \"" + path + "\"?");
@@ -6,6 +6,10 @@ import imgui.flag.ImGuiTableFlags;
 import io.github.hexagonnico.vecmatlib.color.Color3f;
 import io.github.hexagonnico.vecmatlib.color.Color4f;
 import io.github.hexagonnico.vecmatlib.vector.*;
+import io.github.lwjre.editor.controllers.EditorHistory;
+import io.github.lwjre.editor.controllers.EditorScene;
+import io.github.lwjre.editor.controllers.OverrideResolver;
+import io.github.lwjre.editor.controllers.OverrideResolver.ResolvedScene;
 import io.github.lwjre.editor.gui.inspector.*;
 import io.github.lwjre.editor.models.EditorNode;
 import io.github.lwjre.engine.annotations.EditorVariable;
@@ -16,7 +20,11 @@ import io.github.lwjre.engine.resources.Shader;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The inspector gui.
@@ -46,15 +54,34 @@ public class InspectorWindow implements GuiComponent {
 		FIELDS.put(Shader.class, new ResourceInspectorField(Shader::getOrLoad));
 	}
 
+	/** Inspector layouts of the classes that have already been inspected, mapped by the name of the class, so that the class is not looked up every frame */
+	private final ConcurrentHashMap<String, List<InspectorSection>> layouts = new ConcurrentHashMap<>();
+
 	/** Current node */
 	private EditorNode editorNode = null;
+	/** Variable that is being edited, its value is written to the node resource when the user stops editing it */
+	private InspectorVariable editedVariable = null;
+	/** Node to which the edited variable belongs */
+	private Node editedNode = null;
+	/** Resource in which the value of the edited variable is stored */
+	private NodeResource editedResource = null;
+	/** Values of the current node's variables after the last change, read once when a variable is first shown so that changes can be recorded in the {@link EditorHistory} */
+	private final HashMap<InspectorVariable, Object> committedValues = new HashMap<>();
+	/** Version of the {@link EditorHistory} the committed values were read at */
+	private int historyVersion = EditorHistory.version();
 
 	@Override
 	public void draw() {
+		if(this.historyVersion != EditorHistory.version()) {
+			this.committedValues.clear();
+			this.historyVersion = EditorHistory.version();
+		}
 		if(ImGui.begin("Inspector")) {
 			if(this.editorNode != null) {
-				this.renderFields(this.editorNode.resource(), this.editorNode.node(), this.editorNode.resource());
+				this.renderFields(this.editorNode.resource(), this.editorNode.node());
 			}
+		} else {
+			this.commitEdit();
 		}
 		ImGui.end();
 	}
@@ -66,84 +93,196 @@ public class InspectorWindow implements GuiComponent {
 	 * @param editorNode The node to inspect
 	 */
 	public void setNode(EditorNode editorNode) {
+		this.commitEdit();
+		this.committedValues.clear();
 		this.editorNode = editorNode;
 	}
 
+	/**
+	 * Clears the cached inspector layouts.
+	 * Must be called when the project's classes are reloaded.
+	 */
+	public void clearLayouts() {
+		this.layouts.clear();
+	}
+
 	/**
 	 * Renders the inspector of the given node.
-	 * If the given node resource has an override, this function will call itself recursively to show its base's inspector as well.
+	 * If the given node resource has an override, its base is resolved by the {@link OverrideResolver} to get its type and the values it overrides.
 	 *
 	 * @param nodeResource The resource to show
 	 * @param node The actual node
-	 * @param base The base resource if the given resource has an override or the same resource if it doesn't
 	 */
-	private void renderFields(NodeResource nodeResource, Node node, NodeResource base) {
-		try {
-			if(nodeResource.override != null && !nodeResource.override.isEmpty()) {
-				NodeResource override = NodeResource.getOrLoad(nodeResource.override);
-				this.renderFields(override, node, base);
-			} else if(nodeResource.type != null && !nodeResource.type.isEmpty()) {
-				Class<?> nodeClass = Thread.currentThread().getContextClassLoader().loadClass(nodeResource.type);
-				if(!nodeClass.equals(Node.class)) {
-					this.renderFields(nodeClass, base, node);
+	private void renderFields(NodeResource nodeResource, Node node) {
+		ResolvedScene base = null;
+		String type = nodeResource.type;
+		if(nodeResource.override != null && !nodeResource.override.isEmpty()) {
+			base = OverrideResolver.resolve(nodeResource.override);
+			type = base != null ? base.type() : null;
+		}
+		List<InspectorSection> layout = this.getLayout(type);
+		if(!layout.isEmpty()) {
+			this.readCommittedValues(layout, node);
+			this.renderFields(layout, nodeResource, node, base);
+		}
+	}
+
+	/**
+	 * Reads the values of the given node's variables that were not read yet, so that the next change can be recorded in the {@link EditorHistory}.
+	 *
+	 * @param layout The layout of the node's class
+	 * @param node The actual node
+	 */
+	void readCommittedValues(List<InspectorSection> layout, Node node) {
+		for(int i = 0; i < layout.size(); i++) {
+			List<InspectorVariable> variables = layout.get(i).variables();
+			for(int j = 0; j < variables.size(); j++) {
+				InspectorVariable variable = variables.get(j);
+				if(!this.committedValues.containsKey(variable)) {
+					this.committedValues.put(variable, variable.get(node));
 				}
 			}
-		} catch (ClassNotFoundException e) {
-			e.printStackTrace();
 		}
 	}
 
 	/**
-	 * Renders the inspector of the given class from the given node resource.
-	 * This function calls itself recursively to render inspector of parent classes as well.
+	 * Renders the inspector of the given node resource using the given layout.
+	 * If the node has a base scene, the labels of the variables the node overrides are highlighted and show the base's value when they are hovered.
 	 *
-	 * @param fromClass Class to start from
+	 * @param layout The layout of the node's class
 	 * @param nodeResource The node resource
 	 * @param node The actual node
+	 * @param base The resolved base scene or null if the node resource does not have an override
 	 */
-	private void renderFields(Class<?> fromClass, NodeResource nodeResource, Node node) {
-		ImGui.text(fromClass.getSimpleName());
-		if(ImGui.beginTable("##" + fromClass, 2, ImGuiTableFlags.SizingStretchProp)) {
-			ImGui.tableSetupColumn("", ImGuiTableColumnFlags.WidthFixed);
-			ImGui.tableSetupColumn("", ImGuiTableColumnFlags.WidthStretch);
+	private void renderFields(List<InspectorSection> layout, NodeResource nodeResource, Node node, ResolvedScene base) {
+		for(int i = 0; i < layout.size(); i++) {
+			InspectorSection section = layout.get(i);
+			ImGui.text(section.title());
+			if(ImGui.beginTable(section.tableId(), 2, ImGuiTableFlags.SizingStretchProp)) {
+				ImGui.tableSetupColumn("", ImGuiTableColumnFlags.WidthFixed);
+				ImGui.tableSetupColumn("", ImGuiTableColumnFlags.WidthStretch);
+				List<InspectorVariable> variables = section.variables();
+				for(int j = 0; j < variables.size(); j++) {
+					InspectorVariable variable = variables.get(j);
+					ImGui.tableNextColumn();
+					if(base != null && nodeResource.properties.containsKey(variable.name())) {
+						ImGui.textColored(1.0f, 1.0f, 1.0f, 1.0f, variable.label());
+						if(ImGui.isItemHovered()) {
+							Object baseValue = base.properties().get(variable.name());
+							ImGui.setTooltip(baseValue != null ? "Overrides " + baseValue : "Overrides the default value");
+						}
+					} else {
+						ImGui.textColored(0.75f, 0.75f, 0.75f, 1.0f, variable.label());
+					}
+					ImGui.tableNextColumn();
+					if(inputGui(variable, node)) {
+						this.editedVariable = variable;
+						this.editedNode = node;
+						this.editedResource = nodeResource;
+					}
+					if(variable == this.editedVariable && !variable.inspectorField().isActive(variable)) {
+						this.commitEdit();
+					}
+				}
+				ImGui.endTable();
+			}
+			ImGui.separator();
+		}
+	}
+
+	/**
+	 * Writes the value of the variable that is being edited to its node resource and records the change in the {@link EditorHistory}.
+	 * Widgets like sliders change the value of the field every frame while they are being used, the value is only boxed and written to the resource once the widget is released.
+	 */
+	private void commitEdit() {
+		if(this.editedVariable != null) {
+			Object value = this.editedVariable.get(this.editedNode);
+			Object oldValue = this.committedValues.put(this.editedVariable, value);
+			boolean hadProperty = this.editedResource.properties.containsKey(this.editedVariable.name());
+			Object oldProperty = this.editedResource.properties.put(this.editedVariable.name(), value);
+			EditorScene.markChanged(this.editedResource);
+			EditorHistory.propertyChanged(this.editedResource, this.editedNode, this.editedVariable, oldValue, hadProperty, oldProperty, value);
+			this.editedVariable = null;
+			this.editedNode = null;
+			this.editedResource = null;
+		}
+	}
+
+	/**
+	 * Gets the inspector layout of the class with the given name.
+	 * The class is loaded with the context class loader and its layout is computed the first time it is requested, then the layout is cached until {@link InspectorWindow#clearLayouts()} is called.
+	 *
+	 * @param type Full name of the node's class, may be null or empty
+	 * @return A list containing one section for the given class and one for each of its superclasses up to {@link Node} or an empty list if the class cannot be loaded
+	 */
+	List<InspectorSection> getLayout(String type) {
+		if(type == null || type.isEmpty()) {
+			return List.of();
+		}
+		List<InspectorSection> layout = this.layouts.get(type);
+		if(layout == null) try {
+			layout = createLayout(Thread.currentThread().getContextClassLoader().loadClass(type));
+			this.layouts.put(type, layout);
+		} catch (ClassNotFoundException e) {
+			e.printStackTrace();
+			return List.of();
+		}
+		return layout;
+	}
+
+	/**
+	 * Creates the inspector layout of the given class by looking for fields annotated with {@link EditorVariable} in the given class and in its superclasses.
+	 *
+	 * @param nodeClass The node's class
+	 * @return A list containing one section for the given class and one for each of its superclasses up to {@link Node}
+	 */
+	private static List<InspectorSection> createLayout(Class<?> nodeClass) {
+		ArrayList<InspectorSection> layout = new ArrayList<>();
+		for(Class<?> fromClass = nodeClass; fromClass != null && !fromClass.equals(Node.class); fromClass = fromClass.getSuperclass()) {
+			ArrayList<InspectorVariable> variables = new ArrayList<>();
 			for(Field field : fromClass.getDeclaredFields()) {
-				field.setAccessible(true);
 				int modifiers = field.getModifiers();
 				if(!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers)) {
 					EditorVariable editorVariable = field.getAnnotation(EditorVariable.class);
-					if(editorVariable != null) {
-						ImGui.tableNextColumn();
-						String label = editorVariable.name().isEmpty() ? field.getName() : editorVariable.name();
-						ImGui.textColored(0.75f, 0.75f, 0.75f, 1.0f, label);
-						ImGui.tableNextColumn();
-						inputGui(field, node, nodeResource.properties);
+					if(editorVariable != null) try {
+						variables.add(new InspectorVariable(nodeClass, field, editorVariable, findInspectorField(field.getType())));
+					} catch (IllegalAccessException e) {
+						e.printStackTrace();
 					}
 				}
 			}
-			ImGui.endTable();
+			layout.add(new InspectorSection(fromClass.getSimpleName(), "##" + fromClass, List.copyOf(variables)));
 		}
-		ImGui.separator();
-		fromClass = fromClass.getSuperclass();
-		if(!fromClass.equals(Node.class)) {
-			this.renderFields(fromClass, nodeResource, node);
+		return List.copyOf(layout);
+	}
+
+	/**
+	 * Finds the {@link InspectorField} that can render fields of the given type.
+	 *
+	 * @param type Type of the field
+	 * @return The {@link InspectorField} that can render fields of the given type or null if the given type is not supported
+	 */
+	private static InspectorField findInspectorField(Class<?> type) {
+		for(Map.Entry<Class<?>, InspectorField> entry : FIELDS.entrySet()) {
+			if(entry.getKey().isAssignableFrom(type)) {
+				return entry.getValue();
+			}
 		}
+		return null;
 	}
 
 	/**
 	 * Renders an input gui.
 	 *
-	 * @param field The field to render
-	 * @param object The object to which the field belongs
-	 * @param values Values map
+	 * @param variable The variable to render
+	 * @param object The object to which the variable belongs
+	 * @return True if the value of the variable was changed, otherwise false
 	 */
-	private static void inputGui(Field field, Object object, HashMap<String, Object> values) {
-		FIELDS.keySet().stream().filter(type -> type.isAssignableFrom(field.getType())).findFirst().ifPresent(type -> {
-			try {
-				ImGui.setNextItemWidth(-1);
-				FIELDS.get(type).inputGui(field, object, values);
-			} catch (IllegalAccessException e) {
-				e.printStackTrace();
-			}
-		});
+	private static boolean inputGui(InspectorVariable variable, Object object) {
+		if(variable.inspectorField() != null) {
+			ImGui.setNextItemWidth(-1);
+			return variable.inspectorField().inputGui(variable, object);
+		}
+		return false;
 	}
 }
@@ -0,0 +1,32 @@
+package io.github.lwjre.editor.gui;
+
+import imgui.ImGui;
+import io.github.lwjre.editor.controllers.SceneLoader;
+import org.lwjgl.glfw.GLFW;
+
+/**
+ * Popup shown while the {@link SceneLoader} is loading a scene.
+ * Shows the progress of the loading and allows to cancel it.
+ *
+ * @author Nico
+ */
+public class LoadingScenePopup implements GuiComponent {
+
+	@Override
+	public void draw() {
+		if(SceneLoader.isLoading() && !ImGui.isPopupOpen("Loading scene")) {
+			ImGui.openPopup("Loading scene");
+		}
+		if(ImGui.beginPopupModal("Loading scene")) {
+			ImGui.text(SceneLoader.status());
+			ImGui.progressBar(SceneLoader.progress());
+			if(ImGui.button("Cancel") || ImGui.isKeyPressed(GLFW.GLFW_KEY_ESCAPE)) {
+				SceneLoader.cancel();
+			}
+			if(!SceneLoader.isLoading()) {
+				ImGui.closeCurrentPopup();
+			}
+			ImGui.endPopup();
+		}
+	}
+}
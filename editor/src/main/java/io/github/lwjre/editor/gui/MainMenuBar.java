@@ -4,6 +4,7 @@ import imgui.ImGui;
 import io.github.lwjre.editor.EditorApplication;
 import io.github.lwjre.editor.ProjectManagerState;
 import io.github.lwjre.editor.ProjectPath;
+import io.github.lwjre.editor.controllers.EditorHistory;
 import io.github.lwjre.editor.controllers.EditorScene;
 import org.lwjgl.glfw.GLFW;
 
@@ -60,10 +61,10 @@ public class MainMenuBar implements GuiComponent {
 			}
 			if(ImGui.beginMenu("Edit")) {
 				if(ImGui.menuItem("Undo", "Ctrl + Z")) {
-
+					EditorHistory.undo();
 				}
 				if(ImGui.menuItem("Redo", "Ctrl + Shift + Z")) {
-
+					EditorHistory.redo();
 				}
 				ImGui.endMenu();
 			}
@@ -91,8 +92,8 @@ public class MainMenuBar implements GuiComponent {
 				this.openScenePopup.open();
 			} else if(ImGui.isKeyPressed(GLFW.GLFW_KEY_S)) {
 				EditorScene.saveScene();
-			} else if(ImGui.isKeyPressed(GLFW.GLFW_KEY_Z)) {
-
+			} else if(ImGui.isKeyPressed(GLFW.GLFW_KEY_Z) && !ImGui.isKeyDown(GLFW.GLFW_KEY_LEFT_SHIFT) && !ImGui.isKeyDown(GLFW.GLFW_KEY_RIGHT_SHIFT)) {
+				EditorHistory.undo();
 			} else if(ImGui.isKeyPressed(GLFW.GLFW_KEY_E)) {
 
 			} else if(ImGui.isKeyPressed(GLFW.GLFW_KEY_Q)) {
@@ -102,7 +103,7 @@ public class MainMenuBar implements GuiComponent {
 			}
 			if(ImGui.isKeyDown(GLFW.GLFW_KEY_LEFT_SHIFT) || ImGui.isKeyDown(GLFW.GLFW_KEY_RIGHT_SHIFT)) {
 				if(ImGui.isKeyPressed(GLFW.GLFW_KEY_Z)) {
-
+					EditorHistory.redo();
 				} else if(ImGui.isKeyPressed(GLFW.GLFW_KEY_Q)) {
 
 				}
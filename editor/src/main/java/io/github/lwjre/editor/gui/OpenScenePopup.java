@@ -1,17 +1,10 @@
 package io.github.lwjre.editor.gui;
 
 import imgui.ImGui;
-import io.github.lwjre.editor.ProjectPath;
-import io.github.lwjre.editor.controllers.EditorScene;
-import io.github.lwjre.engine.resources.NodeResource;
-import io.github.lwjre.engine.utils.YamlParser;
+import io.github.lwjre.editor.controllers.ResourceIndex;
+import io.github.lwjre.editor.controllers.SceneLoader;
 import org.lwjgl.glfw.GLFW;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.stream.Stream;
-
 /**
  * Popup used to show a list of all the project's scenes and select one to open.
  *
@@ -29,23 +22,12 @@ public class OpenScenePopup implements GuiComponent {
 			this.shouldOpen = false;
 		}
 		if(ImGui.beginPopupModal("Open scene")) {
-			try(Stream<Path> files = Files.walk(ProjectPath.resourcesFolder())) {
-				files.forEach(path -> {
-					String fileName = path.getFileName().toString();
-					if(!fileName.equals("settings.yaml") && (fileName.endsWith(".yaml") || fileName.endsWith(".yml"))) {
-						String resourcePath = ProjectPath.resourcesFolder().relativize(path).toString();
-						if(ImGui.menuItem(resourcePath)) {
-							// TODO: Remove selected node from the fields
-							Object resource = YamlParser.parseResource(resourcePath);
-							if(resource instanceof NodeResource nodeResource) {
-								EditorScene.changeScene(nodeResource, resourcePath);
-							}
-							ImGui.closeCurrentPopup();
-						}
-					}
-				});
-			} catch (IOException e) {
-				e.printStackTrace();
+			for(String resourcePath : ResourceIndex.scenes()) {
+				if(!resourcePath.equals("settings.yaml") && ImGui.menuItem(resourcePath)) {
+					// TODO: Remove selected node from the fields
+					SceneLoader.load(resourcePath);
+					ImGui.closeCurrentPopup();
+				}
 			}
 			if(ImGui.button("Cancel") || ImGui.isKeyPressed(GLFW.GLFW_KEY_ESCAPE)) {
 				ImGui.closeCurrentPopup();
@@ -4,16 +4,14 @@ import imgui.ImGui;
 import io.github.lwjre.editor.ProjectPath;
 import io.github.lwjre.editor.controllers.Clipboard;
 import io.github.lwjre.editor.controllers.EditorScene;
+import io.github.lwjre.editor.controllers.ResourceIndex;
+import io.github.lwjre.editor.controllers.SceneIndex;
 import io.github.lwjre.editor.models.EditorNode;
 import io.github.lwjre.engine.resources.NodeResource;
 import org.lwjgl.glfw.GLFW;
 
-import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
-import java.util.Map;
-import java.util.stream.Stream;
 
 /**
  * Class that represents the scene tree gui.
@@ -72,11 +70,18 @@ public class SceneTreeWindow extends TreeWindow<EditorNode> {
 	}
 
 	@Override
-	protected void drawChildren(EditorNode node) {
-		node.resource().children.entrySet().stream()
-				.sorted(Map.Entry.comparingByKey())
-				.filter(entry -> node.node().getChild(entry.getKey()) != null)
-				.forEach(entry -> this.drawNode(new EditorNode(node.node().getChild(entry.getKey()), entry.getValue(), entry.getKey(), node.resource())));
+	protected Collection<EditorNode> getChildren(EditorNode node) {
+		return SceneIndex.children(node);
+	}
+
+	@Override
+	protected int treeVersion() {
+		return EditorScene.treeVersion();
+	}
+
+	@Override
+	protected Object expansionKey(EditorNode node) {
+		return node.node();
 	}
 
 	@Override
@@ -94,41 +99,44 @@ public class SceneTreeWindow extends TreeWindow<EditorNode> {
 	}
 
 	@Override
-	protected ContextMenu contextMenu(EditorNode node) {
-		ContextMenu contextMenu = super.contextMenu(node);
-		ContextMenu addNodeSubmenu = new ContextMenu();
-		if(this.nodeClasses != null) {
-			this.nodeClasses.forEach(nodeClass -> addNodeSubmenu.menuItem(nodeClass.substring(nodeClass.lastIndexOf('.') + 1), () -> node.addChild(nodeClass)));
-		}
-		contextMenu.submenu("Add node", addNodeSubmenu);
-		ContextMenu addChildSceneSubmenu = new ContextMenu();
-		try(Stream<Path> files = Files.walk(ProjectPath.resourcesFolder())) {
-			files.forEach(path -> {
-				String fileName = path.getFileName().toString();
-				if(fileName.endsWith(".yaml") || fileName.endsWith(".yml")) {
-					Path resourcePath = ProjectPath.resourcesFolder().relativize(path);
-					addChildSceneSubmenu.menuItem(resourcePath.toString(), () -> node.addChild(resourcePath));
+	protected ContextMenu<EditorNode> contextMenu(EditorNode node) {
+		ContextMenu<EditorNode> contextMenu = super.contextMenu(node);
+		contextMenu.submenu("Add node", target -> {
+			if(this.nodeClasses != null) {
+				for(String nodeClass : this.nodeClasses) {
+					if(ImGui.menuItem(nodeClass.substring(nodeClass.lastIndexOf('.') + 1))) {
+						target.addChild(nodeClass);
+					}
 				}
-			});
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
-		contextMenu.submenu("Add child scene", addChildSceneSubmenu);
+			}
+		});
+		contextMenu.submenu("Add child scene", target -> {
+			for(String resourcePath : ResourceIndex.scenes()) {
+				if(ImGui.menuItem(resourcePath)) {
+					target.addChild(Path.of(resourcePath));
+				}
+			}
+		});
 		contextMenu.separator();
-		boolean isRoot = node.equals(this.getRoot());
+		boolean isRoot = node.parent() == null;
 		if(!isRoot) {
-			contextMenu.menuItem("Cut", "Ctrl + X", () -> cutNode(node));
-			contextMenu.menuItem("Copy", "Ctrl + C", () -> copyNode(node));
+			contextMenu.menuItem("Cut", "Ctrl + X", SceneTreeWindow::cutNode);
+			contextMenu.menuItem("Copy", "Ctrl + C", SceneTreeWindow::copyNode);
 		}
-		contextMenu.menuItem("Paste", "Ctrl + V", () -> pasteNode(node));
+		contextMenu.menuItem("Paste", "Ctrl + V", SceneTreeWindow::pasteNode);
 		if(!isRoot) {
 			contextMenu.separator();
-			contextMenu.menuItem("Rename", "Shift + F6", () -> this.rename(node));
-			contextMenu.menuItem("Delete node", "Del", () -> this.delete(node));
+			contextMenu.menuItem("Rename", "Shift + F6", this::rename);
+			contextMenu.menuItem("Delete node", "Del", this::delete);
 		}
 		return contextMenu;
 	}
 
+	@Override
+	protected Object contextMenuType(EditorNode node) {
+		return node.parent() == null;
+	}
+
 	@Override
 	protected void hotkeys(EditorNode node) {
 		if(ImGui.isKeyDown(GLFW.GLFW_KEY_LEFT_CONTROL) || ImGui.isKeyDown(GLFW.GLFW_KEY_RIGHT_CONTROL)) {
@@ -1,11 +1,20 @@
 package io.github.lwjre.editor.gui;
 
 import imgui.ImGui;
+import imgui.ImGuiListClipper;
+import imgui.callback.ImListClipperCallback;
 import imgui.flag.ImGuiCol;
 import imgui.flag.ImGuiMouseButton;
 import imgui.flag.ImGuiTreeNodeFlags;
 import io.github.lwjre.editor.controllers.Clipboard;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
 /**
  * Class that represents a gui window that can show a tree.
  *
@@ -17,17 +26,149 @@ public abstract class TreeWindow<N> implements GuiComponent {
 
 	/** Currently selected node */
 	private N selected = null;
+	/** Context menus that have already been built, mapped by the type returned by {@link TreeWindow#contextMenuType(Object)} */
+	private final HashMap<Object, ContextMenu<N>> contextMenus = new HashMap<>();
+	/** True if the selected node is one of the visible rows */
+	private boolean selectedVisible = false;
+
+	/** Rows of the tree that are currently visible, in the order in which they are drawn */
+	private final ArrayList<Row<N>> rows = new ArrayList<>();
+	/** Keys returned by {@link TreeWindow#expansionKey(Object)} for the nodes that are expanded */
+	private final HashSet<Object> expanded = new HashSet<>();
+	/** Ids pushed to the id stack when drawing the visible rows, mapped by {@link TreeWindow#expansionKey(Object)} */
+	private HashMap<Object, Integer> ids = new HashMap<>();
+	/** Ids of the rows that are being built, swapped with {@link TreeWindow#ids} once they are built */
+	private HashMap<Object, Integer> nextIds = new HashMap<>();
+	/** Id given to the next node that becomes visible */
+	private int nextId = 0;
+	/** Value of {@link TreeWindow#treeVersion()} when the rows were built */
+	private int rowsVersion = 0;
+	/** True if the rows need to be built again because a node was expanded or collapsed */
+	private boolean rowsInvalid = true;
+	/** Called by the list clipper to draw the rows that are visible in the window */
+	private final ImListClipperCallback rowDrawer = new ImListClipperCallback() {
+		@Override
+		public void accept(int index) {
+			drawRow(index);
+		}
+	};
 
 	/**
 	 * Draws the tree.
+	 * The visible rows are built again only if the tree's structure changed or if a node was expanded or collapsed, then only the rows that fit in the window are drawn.
 	 */
 	protected final void drawTree() {
+		this.updateRows();
+		ImGuiListClipper.forEach(this.rows.size(), this.rowDrawer);
+		if(this.selectedVisible && ImGui.isWindowFocused()) {
+			this.hotkeys(this.selected);
+		}
+	}
+
+	/**
+	 * Builds the visible rows again if the tree's structure changed or if a node was expanded or collapsed since they were last built.
+	 */
+	void updateRows() {
+		int version = this.treeVersion();
+		if(this.rowsInvalid || version != this.rowsVersion) {
+			this.buildRows();
+			this.rowsVersion = version;
+			this.rowsInvalid = false;
+		}
+	}
+
+	/**
+	 * Gets the rows that were built by the last call to {@link TreeWindow#updateRows()}.
+	 *
+	 * @return An unmodifiable list containing the visible rows in the order in which they are drawn
+	 */
+	List<Row<N>> rows() {
+		return Collections.unmodifiableList(this.rows);
+	}
+
+	/**
+	 * Expands or collapses the given node.
+	 * The rows are built again the next time the tree is drawn.
+	 *
+	 * @param node The node
+	 * @param open True to expand the node, false to collapse it
+	 */
+	void setExpanded(N node, boolean open) {
+		if(open) {
+			this.expanded.add(this.expansionKey(node));
+		} else {
+			this.expanded.remove(this.expansionKey(node));
+		}
+		this.rowsInvalid = true;
+	}
+
+	/**
+	 * Builds the list of visible rows by walking the tree from its root.
+	 * The children of a node are only visited if the node is expanded.
+	 * Nodes that were already visible keep their id, nodes that are no longer visible forget it.
+	 */
+	private void buildRows() {
+		this.rows.clear();
+		this.nextIds.clear();
 		N root = this.getRoot();
 		if(root != null) {
-			this.drawNode(root);
+			this.addRows(root, 0);
+		}
+		HashMap<Object, Integer> ids = this.ids;
+		this.ids = this.nextIds;
+		this.nextIds = ids;
+		this.selectedVisible = false;
+		if(this.selected != null) {
+			for(int i = 0; i < this.rows.size() && !this.selectedVisible; i++) {
+				this.selectedVisible = this.selected.equals(this.rows.get(i).node());
+			}
 		}
 	}
 
+	/**
+	 * Adds the row of the given node and the rows of its children if the node is expanded.
+	 *
+	 * @param node The node
+	 * @param depth Depth of the node in the tree
+	 */
+	private void addRows(N node, int depth) {
+		boolean leaf = this.isLeaf(node);
+		Object key = this.expansionKey(node);
+		boolean open = !leaf && this.expanded.contains(key);
+		Integer id = this.ids.get(key);
+		if(id == null) {
+			id = this.nextId++;
+		}
+		this.nextIds.put(key, id);
+		this.rows.add(new Row<>(node, this.getLabel(node), depth, leaf, open, id));
+		if(open) {
+			for(N child : this.getChildren(node)) {
+				this.addRows(child, depth + 1);
+			}
+		}
+	}
+
+	/**
+	 * Returns a number that changes every time the structure of the tree changes.
+	 * The visible rows are built again when this number changes.
+	 *
+	 * @return The current version of the tree's structure
+	 */
+	protected int treeVersion() {
+		return 0;
+	}
+
+	/**
+	 * Gets the object used to remember if the given node is expanded and to give it the same id every frame.
+	 * Must stay the same when the rows are built again.
+	 *
+	 * @param node The node
+	 * @return The key used to remember if the given node is expanded
+	 */
+	protected Object expansionKey(N node) {
+		return node;
+	}
+
 	/**
 	 * Gets the tree's root.
 	 * Might be null.
@@ -53,36 +194,47 @@ public abstract class TreeWindow<N> implements GuiComponent {
 	protected abstract boolean isLeaf(N node);
 
 	/**
-	 * Draws the given node.
-	 * This function calls {@link TreeWindow#drawChildren(Object)} to draw the node's children.
+	 * Draws the row at the given index.
+	 * Nodes are drawn without pushing them to the tree stack, their depth is shown by indenting them.
+	 * The row's id is pushed to the id stack instead of its index, so that the state of a node's widgets stays with the node when rows above it are added or removed.
 	 *
-	 * @param node The node to draw
+	 * @param index Index of the row to draw
 	 */
-	protected final void drawNode(N node) {
-		if(node.equals(Clipboard.getContent())) {
+	private void drawRow(int index) {
+		Row<N> row = this.rows.get(index);
+		N node = row.node();
+		ImGui.pushID(row.id());
+		float indent = row.depth() * ImGui.getTreeNodeToLabelSpacing();
+		if(indent > 0.0f) {
+			ImGui.indent(indent);
+		}
+		boolean cut = node.equals(Clipboard.getContent());
+		if(cut) {
 			ImGui.pushStyleColor(ImGuiCol.Text, 0.7f, 0.7f, 0.7f, 1.0f);
 		}
-		String label = this.getLabel(node);
-		if(ImGui.treeNodeEx(label, this.nodeFlags(node))) {
-			if(node.equals(Clipboard.getContent())) {
-				ImGui.popStyleColor();
-			}
-			this.dragDrop(node, label);
-			if(ImGui.isItemClicked() || this.contextMenu(node).draw()) {
-				this.selected = node;
-				this.onSelect(node);
-			}
-			if(ImGui.isItemHovered() && ImGui.isMouseDoubleClicked(ImGuiMouseButton.Left)) {
-				this.onDoubleClick(node);
-			}
-			if(node.equals(this.selected) && ImGui.isWindowFocused()) {
-				this.hotkeys(node);
-			}
-			if(!this.isLeaf(node)) {
-				this.drawChildren(node);
-			}
-			ImGui.treePop();
+		if(!row.leaf()) {
+			ImGui.setNextItemOpen(row.open());
 		}
+		boolean open = ImGui.treeNodeEx(row.label(), this.nodeFlags(node) | ImGuiTreeNodeFlags.NoTreePushOnOpen);
+		if(cut) {
+			ImGui.popStyleColor();
+		}
+		if(!row.leaf() && open != row.open()) {
+			this.setExpanded(node, open);
+		}
+		this.dragDrop(node, row.label());
+		if(ImGui.isItemClicked() || this.drawContextMenu(node)) {
+			this.selected = node;
+			this.selectedVisible = true;
+			this.onSelect(node);
+		}
+		if(ImGui.isItemHovered() && ImGui.isMouseDoubleClicked(ImGuiMouseButton.Left)) {
+			this.onDoubleClick(node);
+		}
+		if(indent > 0.0f) {
+			ImGui.unindent(indent);
+		}
+		ImGui.popID();
 	}
 
 	/**
@@ -105,22 +257,69 @@ public abstract class TreeWindow<N> implements GuiComponent {
 	}
 
 	/**
-	 * Gets the context menu for the given node.
+	 * Draws the context menu for the given node if it is open.
+	 * The menu is only built the first time it is opened for a node of its type and then reused.
+	 *
+	 * @param node The node
+	 * @return True if the menu is open, otherwise false
+	 */
+	private boolean drawContextMenu(N node) {
+		if(ImGui.beginPopupContextItem()) {
+			this.contextMenuFor(node).drawItems(node);
+			ImGui.endPopup();
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the context menu for the given node from the menus that were already built or builds it if no menu was built for its type yet.
 	 *
 	 * @param node The node
-	 * @return The context menu for the given node
+	 * @return The context menu to draw for the given node
 	 */
-	protected ContextMenu contextMenu(N node) {
-		return new ContextMenu();
+	ContextMenu<N> contextMenuFor(N node) {
+		Object type = this.contextMenuType(node);
+		ContextMenu<N> contextMenu = this.contextMenus.get(type);
+		if(contextMenu == null) {
+			contextMenu = this.contextMenu(node);
+			this.contextMenus.put(type, contextMenu);
+		}
+		return contextMenu;
 	}
 
 	/**
-	 * Draws the given node's children.
-	 * This function should call {@link TreeWindow#drawNode(Object)} for every child of the given node.
+	 * Builds the context menu for the given node.
+	 * This method is only called the first time a context menu is opened for a node of a certain type, the same menu is used for all the nodes of that type.
+	 *
+	 * @see TreeWindow#contextMenuType(Object)
+	 *
+	 * @param node The node the menu was opened for
+	 * @return The context menu for nodes of the same type as the given one
+	 */
+	protected ContextMenu<N> contextMenu(N node) {
+		return new ContextMenu<>();
+	}
+
+	/**
+	 * Gets the type of context menu to use for the given node.
+	 * Nodes of the same type share the same context menu.
+	 *
+	 * @param node The node
+	 * @return An object that identifies the type of context menu to use for the given node
+	 */
+	protected Object contextMenuType(N node) {
+		return null;
+	}
+
+	/**
+	 * Gets the children of the given node in the order in which they should be shown.
+	 * Only called when the visible rows are built again.
 	 *
 	 * @param node The parent node
+	 * @return The given node's children
 	 */
-	protected abstract void drawChildren(N node);
+	protected abstract Collection<N> getChildren(N node);
 
 	/**
 	 * Called when the given node is selected.
@@ -194,4 +393,19 @@ public abstract class TreeWindow<N> implements GuiComponent {
 	 * @param payload The drop payload
 	 */
 	protected abstract void onDrop(N target, Object payload);
+
+	/**
+	 * A row of the tree that is visible in the window.
+	 *
+	 * @param node The node shown in this row
+	 * @param label The node's label
+	 * @param depth Depth of the node in the tree
+	 * @param leaf True if the node is a leaf
+	 * @param open True if the node is expanded
+	 * @param id Id pushed to the id stack when drawing this row, stays the same as long as the node is visible
+	 * @param <N> Type of node of the tree
+	 */
+	record Row<N>(N node, String label, int depth, boolean leaf, boolean open, int id) {
+
+	}
 }
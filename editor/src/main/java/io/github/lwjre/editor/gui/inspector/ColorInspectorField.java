@@ -4,28 +4,37 @@ import imgui.ImGui;
 import io.github.hexagonnico.vecmatlib.color.Color3f;
 import io.github.hexagonnico.vecmatlib.color.Color4f;
 
-import java.lang.reflect.Field;
-import java.util.HashMap;
-
 public class ColorInspectorField implements InspectorField {
 
+	private final WidgetBuffers<float[]> buffers = new WidgetBuffers<>((variable, value) -> {
+		if(value instanceof Color3f color) {
+			return new float[] {color.r(), color.g(), color.b()};
+		} else if(value instanceof Color4f color) {
+			return new float[] {color.r(), color.g(), color.b(), color.a()};
+		}
+		return null;
+	});
+
 	@Override
-	public void inputGui(Field field, Object object, HashMap<String, Object> values) throws IllegalAccessException {
-		Object obj = field.get(object);
-		if(obj instanceof Color3f color) {
-			float[] ptr = {color.r(), color.g(), color.b()}; // TODO: Color flags
-			if(ImGui.colorEdit3("##" + object.getClass() + ":" + field.getName(), ptr)) {
-				color = new Color3f(ptr[0], ptr[1], ptr[2]);
-				field.set(object, color);
-				values.put(field.getName(), color);
+	public boolean inputGui(InspectorVariable variable, Object object) {
+		Object obj = variable.get(object);
+		if(obj instanceof Color3f) {
+			float[] ptr = this.buffers.get(variable, obj); // TODO: Color flags
+			if(ImGui.colorEdit3(variable.widgetId(), ptr)) {
+				Color3f color = new Color3f(ptr[0], ptr[1], ptr[2]);
+				variable.set(object, color);
+				this.buffers.update(variable, color);
+				return true;
 			}
-		} else if(obj instanceof Color4f color) {
-			float[] ptr = {color.r(), color.g(), color.b(), color.a()}; // TODO: Color flags
-			if(ImGui.colorEdit4("##" + object.getClass() + ":" + field.getName(), ptr)) {
-				color = new Color4f(ptr[0], ptr[1], ptr[2], ptr[3]);
-				field.set(object, color);
-				values.put(field.getName(), color);
+		} else if(obj instanceof Color4f) {
+			float[] ptr = this.buffers.get(variable, obj); // TODO: Color flags
+			if(ImGui.colorEdit4(variable.widgetId(), ptr)) {
+				Color4f color = new Color4f(ptr[0], ptr[1], ptr[2], ptr[3]);
+				variable.set(object, color);
+				this.buffers.update(variable, color);
+				return true;
 			}
 		}
+		return false;
 	}
 }
@@ -3,17 +3,17 @@ package io.github.lwjre.editor.gui.inspector;
 import imgui.ImGui;
 import imgui.type.ImDouble;
 
-import java.lang.reflect.Field;
-import java.util.HashMap;
-
 public class DoubleInspectorField implements InspectorField {
 
+	private final ImDouble ptr = new ImDouble();
+
 	@Override
-	public void inputGui(Field field, Object object, HashMap<String, Object> values) throws IllegalAccessException {
-		ImDouble ptr = new ImDouble(field.getDouble(object));
-		if(ImGui.inputDouble("##" + object.getClass() + ":" + field.getName(), ptr)) {
-			field.set(object, ptr.get());
-			values.put(field.getName(), ptr.get());
+	public boolean inputGui(InspectorVariable variable, Object object) {
+		this.ptr.set(variable.getDouble(object));
+		if(ImGui.inputDouble(variable.widgetId(), this.ptr)) {
+			variable.setDouble(object, this.ptr.get());
+			return true;
 		}
+		return false;
 	}
 }
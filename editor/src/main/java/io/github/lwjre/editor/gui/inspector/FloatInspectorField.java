@@ -6,41 +6,42 @@ import io.github.lwjre.engine.annotations.EditorAngle;
 import io.github.lwjre.engine.annotations.EditorRange;
 import io.github.lwjre.engine.annotations.EditorSlider;
 
-import java.lang.reflect.Field;
-import java.util.HashMap;
-
 public class FloatInspectorField implements InspectorField {
 
+	private final float[] ptr = new float[1];
+	private final ImFloat imFloat = new ImFloat();
+
 	@Override
-	public void inputGui(Field field, Object object, HashMap<String, Object> values) throws IllegalAccessException {
-		EditorAngle angle = field.getAnnotation(EditorAngle.class);
-		EditorSlider slider = field.getAnnotation(EditorSlider.class);
-		EditorRange range = field.getAnnotation(EditorRange.class);
-		String label = "##" + object.getClass() + ":" + field.getName();
+	public boolean inputGui(InspectorVariable variable, Object object) {
+		EditorAngle angle = variable.getAnnotation(EditorAngle.class);
+		EditorSlider slider = variable.getAnnotation(EditorSlider.class);
+		EditorRange range = variable.getAnnotation(EditorRange.class);
+		String label = variable.widgetId();
 		if(angle != null) {
-			float[] ptr = new float[] {field.getFloat(object)};
-			if(ImGui.sliderAngle(label, ptr, angle.min(), angle.max())) {
-				field.set(object, ptr[0]);
-				values.put(field.getName(), ptr[0]);
+			this.ptr[0] = variable.getFloat(object);
+			if(ImGui.sliderAngle(label, this.ptr, angle.min(), angle.max())) {
+				variable.setFloat(object, this.ptr[0]);
+				return true;
 			}
 		} else if(slider != null) {
-			float[] ptr = new float[] {field.getFloat(object)};
-			if(ImGui.sliderFloat(label, ptr, slider.min(), slider.max())) {
-				field.set(object, ptr[0]);
-				values.put(field.getName(), ptr[0]);
+			this.ptr[0] = variable.getFloat(object);
+			if(ImGui.sliderFloat(label, this.ptr, slider.min(), slider.max())) {
+				variable.setFloat(object, this.ptr[0]);
+				return true;
 			}
 		} else if(range != null) {
-			float[] ptr = new float[] {field.getFloat(object)};
-			if(ImGui.dragFloat(label, ptr, range.step(), range.min(), range.max())) {
-				field.set(object, ptr[0]);
-				values.put(field.getName(), ptr[0]);
+			this.ptr[0] = variable.getFloat(object);
+			if(ImGui.dragFloat(label, this.ptr, range.step(), range.min(), range.max())) {
+				variable.setFloat(object, this.ptr[0]);
+				return true;
 			}
 		} else {
-			ImFloat ptr = new ImFloat(field.getFloat(object));
-			if(ImGui.inputFloat(label, ptr)) {
-				field.set(object, ptr.get());
-				values.put(field.getName(), ptr.get());
+			this.imFloat.set(variable.getFloat(object));
+			if(ImGui.inputFloat(label, this.imFloat)) {
+				variable.setFloat(object, this.imFloat.get());
+				return true;
 			}
 		}
+		return false;
 	}
 }
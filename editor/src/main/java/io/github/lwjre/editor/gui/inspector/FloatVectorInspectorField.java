@@ -4,8 +4,6 @@ import io.github.hexagonnico.vecmatlib.vector.VecFloat;
 import io.github.lwjre.engine.annotations.EditorRange;
 import io.github.lwjre.engine.annotations.EditorSlider;
 
-import java.lang.reflect.Field;
-import java.util.HashMap;
 import java.util.function.Function;
 
 public class FloatVectorInspectorField implements InspectorField {
@@ -14,6 +12,7 @@ public class FloatVectorInspectorField implements InspectorField {
 	private final DragFunction dragFunction;
 	private final SliderFunction sliderFunction;
 	private final Function<float[], VecFloat<?>> constructorFunction;
+	private final WidgetBuffers<float[]> buffers = new WidgetBuffers<>((variable, value) -> ((VecFloat<?>) value).toArray());
 
 	public FloatVectorInspectorField(InputFunction inputFunction, DragFunction dragFunction, SliderFunction sliderFunction, Function<float[], VecFloat<?>> constructorFunction) {
 		this.inputFunction = inputFunction;
@@ -23,29 +22,33 @@ public class FloatVectorInspectorField implements InspectorField {
 	}
 
 	@Override
-	public void inputGui(Field field, Object object, HashMap<String, Object> values) throws IllegalAccessException {
-		EditorSlider slider = field.getAnnotation(EditorSlider.class);
-		EditorRange range = field.getAnnotation(EditorRange.class);
-		VecFloat<?> vector = (VecFloat<?>) field.get(object);
-		float[] ptr = vector.toArray();
-		String label = "##" + object.getClass() + ":" + field.getName();
+	public boolean inputGui(InspectorVariable variable, Object object) {
+		EditorSlider slider = variable.getAnnotation(EditorSlider.class);
+		EditorRange range = variable.getAnnotation(EditorRange.class);
+		VecFloat<?> vector = (VecFloat<?>) variable.get(object);
+		float[] ptr = this.buffers.get(variable, vector);
+		String label = variable.widgetId();
 		if(slider != null) {
 			if(this.sliderFunction.apply(label, ptr, slider.min(), slider.max())) {
 				vector = this.constructorFunction.apply(ptr);
-				field.set(object, vector);
-				values.put(field.getName(), vector);
+				variable.set(object, vector);
+				this.buffers.update(variable, vector);
+				return true;
 			}
 		} else if(range != null) {
 			if(this.dragFunction.apply(label, ptr, range.step(), range.min(), range.max())) {
 				vector = this.constructorFunction.apply(ptr);
-				field.set(object, vector);
-				values.put(field.getName(), vector);
+				variable.set(object, vector);
+				this.buffers.update(variable, vector);
+				return true;
 			}
 		} else if(this.inputFunction.apply(label, ptr)) {
 			vector = this.constructorFunction.apply(ptr);
-			field.set(object, vector);
-			values.put(field.getName(), vector);
+			variable.set(object, vector);
+			this.buffers.update(variable, vector);
+			return true;
 		}
+		return false;
 	}
 
 	public interface DragFunction {
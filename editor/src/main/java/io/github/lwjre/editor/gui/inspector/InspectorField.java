@@ -1,9 +1,12 @@
 package io.github.lwjre.editor.gui.inspector;
 
-import java.lang.reflect.Field;
-import java.util.HashMap;
+import imgui.ImGui;
 
 public interface InspectorField {
 
-	void inputGui(Field field, Object object, HashMap<String, Object> values) throws IllegalAccessException;
+	boolean inputGui(InspectorVariable variable, Object object);
+
+	default boolean isActive(InspectorVariable variable) {
+		return ImGui.isItemActive();
+	}
 }
@@ -0,0 +1,16 @@
+package io.github.lwjre.editor.gui.inspector;
+
+import java.util.List;
+
+/**
+ * Part of the inspector that shows the variables declared by a single class.
+ *
+ * @param title Title of the section, the class' simple name
+ * @param tableId Id of the table used to show the variables
+ * @param variables Variables declared by the class
+ *
+ * @author Nico
+ */
+public record InspectorSection(String title, String tableId, List<InspectorVariable> variables) {
+
+}
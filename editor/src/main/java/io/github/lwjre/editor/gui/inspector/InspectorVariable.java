@@ -0,0 +1,250 @@
+package io.github.lwjre.editor.gui.inspector;
+
+import io.github.lwjre.engine.annotations.EditorVariable;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+
+/**
+ * Holds everything the inspector needs to know about a field annotated with {@link EditorVariable}.
+ * Instances are created once per class, so that the inspector does not need to use reflection every frame.
+ * The field is accessed through a {@link VarHandle}, primitive fields can be read and written without boxing their values.
+ * Handles of final fields are read-only, so final fields are written through reflection like before.
+ *
+ * @author Nico
+ */
+public class InspectorVariable {
+
+	/** The field */
+	private final Field field;
+	/** Used to read the field and to write it if it is not final */
+	private final VarHandle handle;
+	/** False if the field is final and needs to be written through reflection */
+	private final boolean writable;
+	/** Label to show in the inspector */
+	private final String label;
+	/** ImGui ID of the widget used to edit the variable */
+	private final String widgetId;
+	/** Annotations of the field */
+	private final HashMap<Class<? extends Annotation>, Annotation> annotations = new HashMap<>();
+	/** Used to render the field in the inspector, null if the field's type is not supported */
+	private final InspectorField inspectorField;
+
+	/**
+	 * Constructs an inspector variable.
+	 *
+	 * @param nodeClass Class of the nodes this variable is shown for, may be a subclass of the class that declares the field
+	 * @param field The field
+	 * @param editorVariable The field's {@link EditorVariable} annotation
+	 * @param inspectorField Used to render the field in the inspector, null if the field's type is not supported
+	 * @throws IllegalAccessException If the field cannot be accessed
+	 */
+	public InspectorVariable(Class<?> nodeClass, Field field, EditorVariable editorVariable, InspectorField inspectorField) throws IllegalAccessException {
+		this.field = field;
+		this.handle = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup()).unreflectVarHandle(field);
+		this.writable = !Modifier.isFinal(field.getModifiers());
+		if(!this.writable) {
+			field.setAccessible(true);
+		}
+		this.label = editorVariable.name().isEmpty() ? field.getName() : editorVariable.name();
+		this.widgetId = "##" + nodeClass + ":" + field.getName();
+		for(Annotation annotation : field.getAnnotations()) {
+			this.annotations.put(annotation.annotationType(), annotation);
+		}
+		this.inspectorField = inspectorField;
+	}
+
+	/**
+	 * Returns the field.
+	 *
+	 * @return The field
+	 */
+	public Field field() {
+		return this.field;
+	}
+
+	/**
+	 * Returns the name of the field.
+	 * Used as a key in the node resource's properties.
+	 *
+	 * @return The name of the field
+	 */
+	public String name() {
+		return this.field.getName();
+	}
+
+	/**
+	 * Returns the label to show in the inspector.
+	 *
+	 * @return The name given in {@link EditorVariable#name()} or the name of the field if it is empty
+	 */
+	public String label() {
+		return this.label;
+	}
+
+	/**
+	 * Returns the ImGui ID of the widget used to edit this variable.
+	 * The ID is computed once, so that inspector fields do not need to build it every frame.
+	 *
+	 * @return A hidden label that is unique for each class and field
+	 */
+	public String widgetId() {
+		return this.widgetId;
+	}
+
+	/**
+	 * Returns the field's annotation of the given type.
+	 *
+	 * @param type Type of the annotation
+	 * @return The field's annotation of the given type or null if the field does not have such annotation
+	 * @param <A> Type of the annotation
+	 */
+	public <A extends Annotation> A getAnnotation(Class<A> type) {
+		return type.cast(this.annotations.get(type));
+	}
+
+	/**
+	 * Returns the {@link InspectorField} used to render this variable.
+	 *
+	 * @return The {@link InspectorField} used to render this variable or null if the field's type is not supported
+	 */
+	public InspectorField inspectorField() {
+		return this.inspectorField;
+	}
+
+	/**
+	 * Gets the value of this variable.
+	 * Primitive values are boxed, use the specialized getters to avoid it.
+	 *
+	 * @param object The object to which the variable belongs
+	 * @return The value of this variable
+	 */
+	public Object get(Object object) {
+		return this.handle.get(object);
+	}
+
+	/**
+	 * Sets the value of this variable.
+	 * Primitive values are unboxed, use the specialized setters to avoid boxing them.
+	 *
+	 * @param object The object to which the variable belongs
+	 * @param value The new value
+	 */
+	public void set(Object object, Object value) {
+		if(this.writable) {
+			this.handle.set(object, value);
+		} else try {
+			this.field.set(object, value);
+		} catch (IllegalAccessException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Gets the value of a {@code float} variable.
+	 *
+	 * @param object The object to which the variable belongs
+	 * @return The value of this variable
+	 */
+	public float getFloat(Object object) {
+		return (float) this.handle.get(object);
+	}
+
+	/**
+	 * Sets the value of a {@code float} variable.
+	 *
+	 * @param object The object to which the variable belongs
+	 * @param value The new value
+	 */
+	public void setFloat(Object object, float value) {
+		if(this.writable) {
+			this.handle.set(object, value);
+		} else try {
+			this.field.setFloat(object, value);
+		} catch (IllegalAccessException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Gets the value of a {@code double} variable.
+	 *
+	 * @param object The object to which the variable belongs
+	 * @return The value of this variable
+	 */
+	public double getDouble(Object object) {
+		return (double) this.handle.get(object);
+	}
+
+	/**
+	 * Sets the value of a {@code double} variable.
+	 *
+	 * @param object The object to which the variable belongs
+	 * @param value The new value
+	 */
+	public void setDouble(Object object, double value) {
+		if(this.writable) {
+			this.handle.set(object, value);
+		} else try {
+			this.field.setDouble(object, value);
+		} catch (IllegalAccessException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Gets the value of an {@code int} variable.
+	 *
+	 * @param object The object to which the variable belongs
+	 * @return The value of this variable
+	 */
+	public int getInt(Object object) {
+		return (int) this.handle.get(object);
+	}
+
+	/**
+	 * Sets the value of an {@code int} variable.
+	 *
+	 * @param object The object to which the variable belongs
+	 * @param value The new value
+	 */
+	public void setInt(Object object, int value) {
+		if(this.writable) {
+			this.handle.set(object, value);
+		} else try {
+			this.field.setInt(object, value);
+		} catch (IllegalAccessException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Gets the value of a {@code boolean} variable.
+	 *
+	 * @param object The object to which the variable belongs
+	 * @return The value of this variable
+	 */
+	public boolean getBoolean(Object object) {
+		return (boolean) this.handle.get(object);
+	}
+
+	/**
+	 * Sets the value of a {@code boolean} variable.
+	 *
+	 * @param object The object to which the variable belongs
+	 * @param value The new value
+	 */
+	public void setBoolean(Object object, boolean value) {
+		if(this.writable) {
+			this.handle.set(object, value);
+		} else try {
+			this.field.setBoolean(object, value);
+		} catch (IllegalAccessException e) {
+			e.printStackTrace();
+		}
+	}
+}
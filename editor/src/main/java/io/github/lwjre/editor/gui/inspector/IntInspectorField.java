@@ -5,34 +5,35 @@ import imgui.type.ImInt;
 import io.github.lwjre.engine.annotations.EditorRange;
 import io.github.lwjre.engine.annotations.EditorSlider;
 
-import java.lang.reflect.Field;
-import java.util.HashMap;
-
 public class IntInspectorField implements InspectorField {
 
+	private final int[] ptr = new int[1];
+	private final ImInt imInt = new ImInt();
+
 	@Override
-	public void inputGui(Field field, Object object, HashMap<String, Object> values) throws IllegalAccessException {
-		EditorSlider slider = field.getAnnotation(EditorSlider.class);
-		EditorRange range = field.getAnnotation(EditorRange.class);
-		String label = "##" + object.getClass() + ":" + field.getName();
+	public boolean inputGui(InspectorVariable variable, Object object) {
+		EditorSlider slider = variable.getAnnotation(EditorSlider.class);
+		EditorRange range = variable.getAnnotation(EditorRange.class);
+		String label = variable.widgetId();
 		if(slider != null) {
-			int[] ptr = new int[] {field.getInt(object)};
-			if(ImGui.sliderInt(label, ptr, (int) slider.min(), (int) slider.max())) {
-				field.set(object, ptr[0]);
-				values.put(field.getName(), ptr[0]);
+			this.ptr[0] = variable.getInt(object);
+			if(ImGui.sliderInt(label, this.ptr, (int) slider.min(), (int) slider.max())) {
+				variable.setInt(object, this.ptr[0]);
+				return true;
 			}
 		} else if(range != null) {
-			int[] ptr = new int[] {field.getInt(object)};
-			if(ImGui.dragInt(label, ptr, range.step(), range.min(), range.max())) {
-				field.set(object, ptr[0]);
-				values.put(field.getName(), ptr[0]);
+			this.ptr[0] = variable.getInt(object);
+			if(ImGui.dragInt(label, this.ptr, range.step(), range.min(), range.max())) {
+				variable.setInt(object, this.ptr[0]);
+				return true;
 			}
 		} else {
-			ImInt ptr = new ImInt(field.getInt(object));
-			if(ImGui.inputInt(label, ptr)) {
-				field.set(object, ptr.get());
-				values.put(field.getName(), ptr.get());
+			this.imInt.set(variable.getInt(object));
+			if(ImGui.inputInt(label, this.imInt)) {
+				variable.setInt(object, this.imInt.get());
+				return true;
 			}
 		}
+		return false;
 	}
 }
@@ -4,8 +4,6 @@ import io.github.hexagonnico.vecmatlib.vector.VecInt;
 import io.github.lwjre.engine.annotations.EditorRange;
 import io.github.lwjre.engine.annotations.EditorSlider;
 
-import java.lang.reflect.Field;
-import java.util.HashMap;
 import java.util.function.Function;
 
 public class IntVectorInspectorField implements InspectorField {
@@ -14,6 +12,7 @@ public class IntVectorInspectorField implements InspectorField {
 	private final DragFunction dragFunction;
 	private final SliderFunction sliderFunction;
 	private final Function<int[], VecInt<?>> constructorFunction;
+	private final WidgetBuffers<int[]> buffers = new WidgetBuffers<>((variable, value) -> ((VecInt<?>) value).toArray());
 
 	public IntVectorInspectorField(InputFunction inputFunction, DragFunction dragFunction, SliderFunction sliderFunction, Function<int[], VecInt<?>> constructorFunction) {
 		this.inputFunction = inputFunction;
@@ -23,28 +22,32 @@ public class IntVectorInspectorField implements InspectorField {
 	}
 
 	@Override
-	public void inputGui(Field field, Object object, HashMap<String, Object> values) throws IllegalAccessException {
-		EditorSlider slider = field.getAnnotation(EditorSlider.class);
-		EditorRange range = field.getAnnotation(EditorRange.class);
-		VecInt<?> vector = (VecInt<?>) field.get(object);
-		int[] ptr = vector.toArray();
+	public boolean inputGui(InspectorVariable variable, Object object) {
+		EditorSlider slider = variable.getAnnotation(EditorSlider.class);
+		EditorRange range = variable.getAnnotation(EditorRange.class);
+		VecInt<?> vector = (VecInt<?>) variable.get(object);
+		int[] ptr = this.buffers.get(variable, vector);
 		if(slider != null) {
-			if(this.sliderFunction.apply("##" + object.getClass() + ":" + field.getName(), ptr, (int) slider.min(), (int) slider.max())) {
+			if(this.sliderFunction.apply(variable.widgetId(), ptr, (int) slider.min(), (int) slider.max())) {
 				vector = this.constructorFunction.apply(ptr);
-				field.set(object, vector);
-				values.put(field.getName(), vector);
+				variable.set(object, vector);
+				this.buffers.update(variable, vector);
+				return true;
 			}
 		} else if(range != null) {
-			if(this.dragFunction.apply("##" + object.getClass() + ":" + field.getName(), ptr, range.step(), range.min(), range.max())) {
+			if(this.dragFunction.apply(variable.widgetId(), ptr, range.step(), range.min(), range.max())) {
 				vector = this.constructorFunction.apply(ptr);
-				field.set(object, vector);
-				values.put(field.getName(), vector);
+				variable.set(object, vector);
+				this.buffers.update(variable, vector);
+				return true;
 			}
-		} else if(this.inputFunction.apply("##" + object.getClass() + ":" + field.getName(), ptr)) {
+		} else if(this.inputFunction.apply(variable.widgetId(), ptr)) {
 			vector = this.constructorFunction.apply(ptr);
-			field.set(object, vector);
-			values.put(field.getName(), vector);
+			variable.set(object, vector);
+			this.buffers.update(variable, vector);
+			return true;
 		}
+		return false;
 	}
 
 	public interface DragFunction {
@@ -7,52 +7,76 @@ import io.github.lwjre.engine.annotations.DefaultResource;
 import io.github.lwjre.engine.resources.Resources;
 import io.github.lwjre.engine.utils.FileUtils;
 
-import java.lang.reflect.Field;
 import java.nio.file.Path;
-import java.util.HashMap;
 import java.util.function.Function;
 
 public class ResourceInspectorField implements InspectorField {
 
 	private final Function<String, Object> getOrLoad;
+	private final WidgetBuffers<PathBuffer> buffers = new WidgetBuffers<>((variable, value) -> {
+		String path = Resources.pathOf(value);
+		DefaultResource defaultResource = variable.getAnnotation(DefaultResource.class);
+		if(defaultResource != null && defaultResource.path().equals(path)) {
+			path = "";
+		}
+		return new PathBuffer(path, new ImString(path, 256));
+	});
+	private InspectorVariable activeVariable;
 
 	public ResourceInspectorField(Function<String, Object> getOrLoad) {
 		this.getOrLoad = getOrLoad;
 	}
 
 	@Override
-	public void inputGui(Field field, Object object, HashMap<String, Object> values) throws IllegalAccessException {
-		String value = Resources.pathOf(field.get(object));
-		DefaultResource defaultResource = field.getAnnotation(DefaultResource.class);
-		if(defaultResource != null && defaultResource.path().equals(value)) {
-			value = "";
+	public boolean inputGui(InspectorVariable variable, Object object) {
+		PathBuffer buffer = this.buffers.get(variable, variable.get(object));
+		boolean changed = false;
+		if(ImGui.inputText(variable.widgetId(), buffer.ptr())) {
+			changed = setResource(object, variable, buffer.ptr().get());
+		}
+		if(ImGui.isItemActive()) {
+			this.activeVariable = variable;
+		} else if(this.activeVariable == variable) {
+			this.activeVariable = null;
 		}
-		ImString ptr = new ImString(value, 256);
-		if(ImGui.inputText("##" + object.getClass() + ":" + field.getName(), ptr)) {
-			setResource(object, field, ptr.get(), values);
+		if(!changed && ImGui.isItemDeactivated()) {
+			buffer.ptr().set(buffer.path());
 		}
 		if(ImGui.beginDragDropTarget()) {
 			Object payload = ImGui.acceptDragDropPayload("Path");
 			if(payload instanceof Path path) {
-				setResource(object, field, ProjectPath.resourcesFolder().relativize(path).toString(), values);
+				changed = setResource(object, variable, ProjectPath.resourcesFolder().relativize(path).toString()) || changed;
 			}
 			ImGui.endDragDropTarget();
 		}
-		if(!value.isEmpty()) {
+		if(!buffer.path().isEmpty()) {
 			ImGui.sameLine();
-			if(ImGui.smallButton("X##" + object.getClass() + ":" + field.getName())) {
-				setResource(object, field, "", values);
+			ImGui.pushID(variable.widgetId());
+			if(ImGui.smallButton("X")) {
+				changed = setResource(object, variable, "") || changed;
 			}
+			ImGui.popID();
 		}
+		return changed;
+	}
+
+	@Override
+	public boolean isActive(InspectorVariable variable) {
+		return this.activeVariable == variable;
 	}
 
-	private void setResource(Object object, Field field, String path, HashMap<String, Object> values) throws IllegalAccessException {
+	private boolean setResource(Object object, InspectorVariable variable, String path) {
 		if(path.isEmpty() || (FileUtils.resourceExists(path) && Resources.hasLoader(path))) {
 			Object resource = this.getOrLoad.apply(path);
-			if(resource.getClass().isAssignableFrom(field.getType())) {
-				field.set(object, resource);
-				values.put(field.getName(), resource);
+			if(resource.getClass().isAssignableFrom(variable.field().getType())) {
+				variable.set(object, resource);
+				return true;
 			}
 		}
+		return false;
+	}
+
+	private record PathBuffer(String path, ImString ptr) {
+
 	}
 }
@@ -4,29 +4,30 @@ import imgui.ImGui;
 import imgui.type.ImString;
 import io.github.lwjre.engine.annotations.EditorText;
 
-import java.lang.reflect.Field;
-import java.util.HashMap;
-
 public class TextInspectorField implements InspectorField {
 
+	private final WidgetBuffers<ImString> buffers = new WidgetBuffers<>((variable, value) -> {
+		EditorText text = variable.getAnnotation(EditorText.class);
+		return new ImString((String) value, text != null ? text.maxLength() : 256);
+	});
+
 	@Override
-	public void inputGui(Field field, Object object, HashMap<String, Object> values) throws IllegalAccessException {
-		EditorText text = field.getAnnotation(EditorText.class);
-		int length = text != null ? text.maxLength() : 256;
-		ImString ptr = new ImString((String) field.get(object), length);
+	public boolean inputGui(InspectorVariable variable, Object object) {
+		EditorText text = variable.getAnnotation(EditorText.class);
+		ImString ptr = this.buffers.get(variable, variable.get(object));
+		boolean changed;
 		if(text != null && text.multiline()) {
-			if(ImGui.inputTextMultiline("##" + object.getClass() + ":" + field.getName(), ptr)) {
-				field.set(object, ptr.get());
-				values.put(field.getName(), ptr.get());
-			}
+			changed = ImGui.inputTextMultiline(variable.widgetId(), ptr);
 		} else if(text != null && !text.hint().isEmpty()) {
-			if(ImGui.inputTextWithHint("##" + object.getClass() + ":" + field.getName(), text.hint(), ptr)) {
-				field.set(object, ptr.get());
-				values.put(field.getName(), ptr.get());
-			}
-		} else if (ImGui.inputText("##" + object.getClass() + ":" + field.getName(), ptr)) {
-			field.set(object, ptr.get());
-			values.put(field.getName(), ptr.get());
+			changed = ImGui.inputTextWithHint(variable.widgetId(), text.hint(), ptr);
+		} else {
+			changed = ImGui.inputText(variable.widgetId(), ptr);
+		}
+		if(changed) {
+			String value = ptr.get();
+			variable.set(object, value);
+			this.buffers.update(variable, value);
 		}
+		return changed;
 	}
 }
@@ -0,0 +1,77 @@
+package io.github.lwjre.editor.gui.inspector;
+
+import java.util.WeakHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Keeps the buffers passed to ImGui widgets between frames.
+ * A variable's buffer is only recreated when the value of the variable changes, so that inspector fields do not need to allocate a new buffer every frame.
+ *
+ * @param <B> Type of the buffers
+ *
+ * @author Nico
+ */
+class WidgetBuffers<B> {
+
+	/** Buffers of the variables that have been rendered, entries are removed when the inspector layouts are discarded */
+	private final WeakHashMap<InspectorVariable, Entry<B>> entries = new WeakHashMap<>();
+	/** Creates a buffer for the given variable and value */
+	private final BiFunction<InspectorVariable, Object, B> factory;
+
+	/**
+	 * Creates a cache of widget buffers.
+	 *
+	 * @param factory Creates a buffer for the given variable and value
+	 */
+	WidgetBuffers(BiFunction<InspectorVariable, Object, B> factory) {
+		this.factory = factory;
+	}
+
+	/**
+	 * Gets the buffer of the given variable.
+	 * A new buffer is created if the given value is not the same instance that was used to create the current one.
+	 *
+	 * @param variable The variable
+	 * @param value The current value of the variable
+	 * @return The buffer of the given variable
+	 */
+	B get(InspectorVariable variable, Object value) {
+		Entry<B> entry = this.entries.get(variable);
+		if(entry == null) {
+			entry = new Entry<>();
+			this.entries.put(variable, entry);
+		}
+		if(entry.buffer == null || entry.value != value) {
+			entry.buffer = this.factory.apply(variable, value);
+			entry.value = value;
+		}
+		return entry.buffer;
+	}
+
+	/**
+	 * Must be called after the value of the variable was changed by the widget that uses its buffer.
+	 * The buffer already contains the new value, so it does not need to be recreated.
+	 *
+	 * @param variable The variable
+	 * @param value The new value of the variable
+	 */
+	void update(InspectorVariable variable, Object value) {
+		Entry<B> entry = this.entries.get(variable);
+		if(entry != null) {
+			entry.value = value;
+		}
+	}
+
+	/**
+	 * A variable's buffer and the value it was created from.
+	 *
+	 * @param <B> Type of the buffer
+	 */
+	private static class Entry<B> {
+
+		/** The value the buffer was created from */
+		private Object value;
+		/** The buffer */
+		private B buffer;
+	}
+}
@@ -0,0 +1,184 @@
+package io.github.lwjre.editor.models;
+
+import io.github.lwjre.editor.ProjectPath;
+import io.github.lwjre.editor.utils.ClassFilesLoader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Index of the files in the project's {@code target/classes} directory and in the {@code .jar} files of its dependencies.
+ * The directory and the jars are only listed once when the index is built, lookups do not access the file system unless the file exists.
+ * An index is immutable once it is built and can be used by multiple threads.
+ * The jar files stay open until the index is closed, indices created with {@link ClassPathIndex#update(Set)} share the jar files of the index they were created from.
+ *
+ * @author Nico
+ */
+final class ClassPathIndex implements Closeable {
+
+	/** Files in the {@code target/classes} directory by their resource name */
+	private final Map<String, Path> classesFolder;
+	/** Jar files containing each resource, if a resource is in more than one jar the first one in the class path is used */
+	private final Map<String, JarFile> jarEntries;
+
+	/**
+	 * Creates an index with the given content.
+	 *
+	 * @param classesFolder Files in the {@code target/classes} directory
+	 * @param jarEntries Jar files containing each resource
+	 */
+	private ClassPathIndex(Map<String, Path> classesFolder, Map<String, JarFile> jarEntries) {
+		this.classesFolder = classesFolder;
+		this.jarEntries = jarEntries;
+	}
+
+	/**
+	 * Builds the index of the current project's {@code target/classes} directory and of its dependencies.
+	 * Jar files are kept open by the index.
+	 *
+	 * @return The new index
+	 */
+	public static ClassPathIndex build() {
+		HashMap<String, Path> classesFolder = new HashMap<>();
+		Path folder = classesFolder();
+		if(Files.isDirectory(folder)) try(Stream<Path> files = Files.walk(folder)) {
+			files.filter(Files::isRegularFile).forEach(file -> classesFolder.put(resourceName(folder, file), file));
+		} catch (IOException | UncheckedIOException e) {
+			e.printStackTrace();
+		}
+		HashMap<String, JarFile> jarEntries = new HashMap<>();
+		for(Path path : ClassFilesLoader.dependencies()) try {
+			JarFile jarFile = new JarFile(path.toFile());
+			Enumeration<JarEntry> entries = jarFile.entries();
+			while(entries.hasMoreElements()) {
+				JarEntry entry = entries.nextElement();
+				if(!entry.isDirectory()) {
+					jarEntries.putIfAbsent(entry.getName(), jarFile);
+				}
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return new ClassPathIndex(classesFolder, jarEntries);
+	}
+
+	/**
+	 * Creates a copy of this index where the class files of the given classes are looked up again in the {@code target/classes} directory.
+	 * Used after the given classes were recompiled, the jar files are shared with this index.
+	 *
+	 * @param classNames Full names of the classes that were added, changed or removed
+	 * @return The updated index
+	 */
+	public ClassPathIndex update(Set<String> classNames) {
+		HashMap<String, Path> classesFolder = new HashMap<>(this.classesFolder);
+		for(String className : classNames) {
+			String name = classFileName(className);
+			Path file = classesFolder().resolve(name);
+			if(Files.isRegularFile(file)) {
+				classesFolder.put(name, file);
+			} else {
+				classesFolder.remove(name);
+			}
+		}
+		return new ClassPathIndex(classesFolder, this.jarEntries);
+	}
+
+	/**
+	 * Reads the bytecode of the class with the given name.
+	 * Classes in the {@code target/classes} directory come before classes in the dependencies.
+	 *
+	 * @param className Full name of the class
+	 * @return The content of the class file or null if the class is not in the index
+	 * @throws IOException If an I/O error occurs or if the class is in a jar file and the index was closed
+	 */
+	public byte[] classBytes(String className) throws IOException {
+		String name = classFileName(className);
+		Path file = this.classesFolder.get(name);
+		if(file != null) {
+			return Files.readAllBytes(file);
+		}
+		JarFile jarFile = this.jarEntries.get(name);
+		if(jarFile != null) try(InputStream inputStream = jarFile.getInputStream(jarFile.getJarEntry(name))) {
+			return inputStream.readAllBytes();
+		} catch (IllegalStateException e) {
+			throw new IOException("The index was closed", e);
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the URL of the resource with the given name in the dependencies.
+	 *
+	 * @param name Name of the resource
+	 * @return A {@code jar:} URL to the resource or null if the resource is not in the dependencies
+	 */
+	public URL jarResource(String name) {
+		JarFile jarFile = this.jarEntries.get(name);
+		if(jarFile != null) try {
+			return new URL("jar:" + Path.of(jarFile.getName()).toUri() + "!/" + name);
+		} catch (MalformedURLException e) {
+			e.printStackTrace();
+		}
+		return null;
+	}
+
+	/**
+	 * Closes the jar files of this index.
+	 * The jar files are shared with the indices created from this one, which cannot read from the dependencies anymore.
+	 */
+	@Override
+	public void close() {
+		Set<JarFile> jarFiles = Collections.newSetFromMap(new IdentityHashMap<>());
+		jarFiles.addAll(this.jarEntries.values());
+		for(JarFile jarFile : jarFiles) try {
+			jarFile.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Returns the name of the class file of the given class.
+	 *
+	 * @param className Full name of the class
+	 * @return The class's resource name
+	 */
+	private static String classFileName(String className) {
+		return className.replace('.', '/') + ".class";
+	}
+
+	/**
+	 * Returns the resource name of the given file.
+	 *
+	 * @param folder The folder the file is in
+	 * @param file Path to the file
+	 * @return The path of the file relative to the given folder, separated by {@code /}
+	 */
+	private static String resourceName(Path folder, Path file) {
+		return folder.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+	}
+
+	/**
+	 * Returns the path to the {@code target/classes} folder for the current project.
+	 *
+	 * @return The path to the {@code target/classes} folder for the current project
+	 */
+	private static Path classesFolder() {
+		return ProjectPath.append("target/classes");
+	}
+}
@@ -1,25 +1,145 @@
 package io.github.lwjre.editor.models;
 
 import io.github.lwjre.editor.ProjectPath;
+import io.github.lwjre.editor.controllers.ResourceIndex;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Set;
 
 /**
- * Implementation of a dynamic class loader that can load classes from the {@code target/classes} directory and resources from the {@link ProjectPath#resourcesFolder()} directory.
+ * Implementation of a dynamic class loader that can load classes from the {@code target/classes} directory and from the project's dependencies and resources from the {@link ProjectPath#resourcesFolder()} directory.
+ * Class files are looked up in a {@link ClassPathIndex} built the first time a class is loaded and resources are looked up in the {@link ResourceIndex}.
+ * The class loader is parallel capable, classes can be loaded by multiple threads at the same time.
+ * <p>
+ *     Class loaders can be layered on top of each other to hot-swap classes.
+ *     A layer defines only the classes that were reloaded and delegates all the other classes to the previous layer, so that classes that did not change keep their identity and their instances stay valid.
+ *     All the layers share the jar files of the first one, which are closed when any of the layers is closed.
+ * </p>
  *
  * @author Nico
  */
-public class EditorClassLoader extends ClassLoader {
+public class EditorClassLoader extends ClassLoader implements Closeable {
+
+	static {
+		registerAsParallelCapable();
+	}
+
+	/** Names of the classes this loader defines itself instead of delegating to its parent, null if this is the first layer */
+	private final Set<String> reloadedClasses;
+	/** Number of layers below this one */
+	private final int depth;
+	/** Index of the class path, null until it is needed */
+	private volatile ClassPathIndex index;
+
+	/**
+	 * Creates the first layer of class loaders.
+	 * Loads all the project's classes.
+	 */
+	public EditorClassLoader() {
+		this.reloadedClasses = null;
+		this.depth = 0;
+	}
+
+	/**
+	 * Creates a class loader on top of the given one.
+	 * The given classes are loaded again by this loader, all the other classes are delegated to the previous loader.
+	 *
+	 * @param previous The previous layer
+	 * @param reloadedClasses Names of the classes that were changed or removed and of the classes that depend on them
+	 */
+	public EditorClassLoader(EditorClassLoader previous, Set<String> reloadedClasses) {
+		super(previous);
+		this.reloadedClasses = Set.copyOf(reloadedClasses);
+		this.depth = previous.depth + 1;
+		this.index = previous.index().update(this.reloadedClasses);
+	}
+
+	@Override
+	protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+		if(this.reloadedClasses != null && this.reloadedClasses.contains(name)) {
+			synchronized(this.getClassLoadingLock(name)) {
+				Class<?> loadedClass = this.findLoadedClass(name);
+				if(loadedClass == null) {
+					loadedClass = this.findClass(name);
+				}
+				if(resolve) {
+					this.resolveClass(loadedClass);
+				}
+				return loadedClass;
+			}
+		}
+		return super.loadClass(name, resolve);
+	}
+
+	/**
+	 * Returns the number of layers below this one.
+	 * Every layer keeps the previous ones alive, a new first layer should be created when there are too many.
+	 *
+	 * @return The number of layers below this one, zero if this is the first layer
+	 */
+	public int depth() {
+		return this.depth;
+	}
+
+	/**
+	 * Checks if this class loader is a layer on top of the given one.
+	 *
+	 * @param previous The previous class loader
+	 * @return True if the given class loader is one of the layers below this one, otherwise false
+	 */
+	public boolean isLayeredOn(EditorClassLoader previous) {
+		ClassLoader parent = this.getParent();
+		while(parent instanceof EditorClassLoader layer) {
+			if(layer == previous) {
+				return true;
+			}
+			parent = layer.getParent();
+		}
+		return false;
+	}
+
+	/**
+	 * Closes the jar files of the dependencies.
+	 * Must be called when this class loader and the layers below it are not going to be used anymore.
+	 */
+	@Override
+	public void close() {
+		ClassPathIndex index = this.index;
+		if(index != null) {
+			index.close();
+		}
+	}
+
+	/**
+	 * Returns the index of the class path, builds it if it was not built yet.
+	 *
+	 * @return The index of the class path
+	 */
+	private ClassPathIndex index() {
+		ClassPathIndex result = this.index;
+		if(result == null) {
+			synchronized(this) {
+				result = this.index;
+				if(result == null) {
+					result = ClassPathIndex.build();
+					this.index = result;
+				}
+			}
+		}
+		return result;
+	}
 
 	@Override
 	protected Class<?> findClass(String name) throws ClassNotFoundException {
 		try {
-			Path path = ProjectPath.append("target/classes/" + name.replace('.', '/') + ".class");
-			byte[] bytes = Files.readAllBytes(path);
+			byte[] bytes = this.index().classBytes(name);
+			if(bytes == null) {
+				throw new ClassNotFoundException(name);
+			}
 			return this.defineClass(name, bytes, 0, bytes.length);
 		} catch (IOException e) {
 			throw new ClassNotFoundException("Failed to load class: " + name, e);
@@ -28,12 +148,13 @@ public class EditorClassLoader extends ClassLoader {
 
 	@Override
 	protected URL findResource(String name) {
-		try {
-			Path path = ProjectPath.resourcesFolder(name);
-			return Files.exists(path) ? path.toUri().toURL() : null;
+		Path path = ProjectPath.resourcesFolder(name);
+		if(ResourceIndex.isFile(path)) try {
+			return path.toUri().toURL();
 		} catch (MalformedURLException e) {
 			e.printStackTrace();
 			return null;
 		}
+		return this.index().jarResource(name);
 	}
 }
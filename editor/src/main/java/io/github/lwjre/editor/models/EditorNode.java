@@ -1,9 +1,12 @@
 package io.github.lwjre.editor.models;
 
+import io.github.lwjre.editor.controllers.EditorHistory;
+import io.github.lwjre.editor.controllers.EditorScene;
+import io.github.lwjre.editor.controllers.SceneIndex;
 import io.github.lwjre.editor.gui.SceneTreeWindow;
+import io.github.lwjre.editor.utils.SceneCache;
 import io.github.lwjre.engine.nodes.Node;
 import io.github.lwjre.engine.resources.NodeResource;
-import io.github.lwjre.engine.utils.YamlParser;
 
 import java.nio.file.Path;
 
@@ -20,29 +23,10 @@ public record EditorNode(Node node, NodeResource resource, String label, NodeRes
 
 	public void addChild(String className) {
 		NodeResource resource = new NodeResource(className);
-		String key = this.findUnusedKey(className.substring(className.lastIndexOf('.') + 1));
-		this.resource().children.put(key, resource);
-		this.node().addChild(key, resource.instantiate());
-	}
-
-	/**
-	 * Iterates through the resource's children looking for a suitable key to use.
-	 * Appends a number at the end of the given starting key to find an unused one.
-	 *
-	 * @param from The key to start from
-	 * @return The resulting key
-	 */
-	private String findUnusedKey(String from) {
-		if(this.resource().children.containsKey(from)) {
-			int index = 2;
-			from = from.replaceAll("\\d+$", "");
-			while(this.resource().children.containsKey(from + index)) {
-				index++;
-			}
-			return from + index;
-		} else {
-			return from;
-		}
+		String key = SceneIndex.unusedKey(this.resource(), className.substring(className.lastIndexOf('.') + 1));
+		Node node = resource.instantiate();
+		EditorScene.addChild(this.resource(), this.node(), key, resource, node);
+		EditorHistory.childAdded(this.resource(), this.node(), key, resource, node);
 	}
 
 	/**
@@ -54,13 +38,14 @@ public record EditorNode(Node node, NodeResource resource, String label, NodeRes
 		String fileName = filePath.getFileName().toString();
 		if(fileName.endsWith(".yaml") || fileName.endsWith(".yml")) {
 			String resourcePath = filePath.toString();
-			Object resource = YamlParser.parseResource(resourcePath);
-			if(resource instanceof NodeResource loadedResource) {
+			NodeResource loadedResource = SceneCache.parse(resourcePath);
+			if(loadedResource != null) {
 				NodeResource nodeResource = new NodeResource(loadedResource.type);
 				nodeResource.override = resourcePath;
-				String key = this.findUnusedKey(fileName.replaceAll("(\\.yaml|\\.yml)", ""));
-				this.node().addChild(key, nodeResource.instantiate());
-				this.resource().children.put(key, nodeResource);
+				String key = SceneIndex.unusedKey(this.resource(), fileName.replaceAll("(\\.yaml|\\.yml)", ""));
+				Node node = nodeResource.instantiate();
+				EditorScene.addChild(this.resource(), this.node(), key, nodeResource, node);
+				EditorHistory.childAdded(this.resource(), this.node(), key, nodeResource, node);
 			}
 		}
 	}
@@ -71,50 +56,46 @@ public record EditorNode(Node node, NodeResource resource, String label, NodeRes
 	 * @param parent The new parent
 	 */
 	public void reparent(EditorNode parent) {
-		if(!isDescendant(this.resource(), parent.resource())) {
-			if(this.parent() != null)
-				this.parent().children.remove(this.label());
-			if(this.node().getParent() != null)
-				this.node().getParent().removeChild(this.label());
-			String key = parent.findUnusedKey(this.label());
-			parent.resource().children.put(key, this.resource());
-			parent.node().addChild(key, this.node());
-		}
-	}
-
-	/**
-	 * Checks if the given descendant is a child or grandchild of the given ancestor.
-	 *
-	 * @param ancestor The ancestor
-	 * @param descendant The descendant
-	 * @return True if the given ancestor is an ancestor of the given descendant, otherwise false
-	 */
-	private static boolean isDescendant(NodeResource ancestor, NodeResource descendant) {
-		if(ancestor.children.containsValue(descendant)) {
-			return true;
-		} else {
-			return ancestor.children.values().stream().anyMatch(next -> isDescendant(next, descendant));
+		if(this.resource() != parent.resource() && !SceneIndex.isDescendant(this.resource(), parent.resource())) {
+			Node oldParent = this.node().getParent();
+			if(this.parent() != null) {
+				EditorScene.removeChild(this.parent(), oldParent, this.label());
+			} else if(oldParent != null) {
+				oldParent.removeChild(this.label());
+			}
+			String key = SceneIndex.unusedKey(parent.resource(), this.label());
+			EditorScene.addChild(parent.resource(), parent.node(), key, this.resource(), this.node());
+			if(this.parent() != null) {
+				EditorHistory.childMoved(this.parent(), oldParent, this.label(), parent.resource(), parent.node(), key, this.resource(), this.node());
+			} else {
+				EditorHistory.childAdded(parent.resource(), parent.node(), key, this.resource(), this.node());
+			}
 		}
 	}
 
 	/**
 	 * Renames this node.
+	 * If the given name is already used by a sibling, a number is added at the end of it, so that the sibling is not replaced.
 	 *
 	 * @param name The new name
 	 */
 	public void rename(String name) {
+		if(this.parent() == null || name.isBlank() || name.equals(this.label())) {
+			return;
+		}
+		name = SceneIndex.unusedKey(this.parent(), name);
 		Node parent = this.node().getParent();
-		parent.removeChild(this.label());
-		parent.addChild(name, this.node());
-		this.parent().children.remove(this.label());
-		this.parent().children.put(name, this.resource());
+		EditorScene.removeChild(this.parent(), parent, this.label());
+		EditorScene.addChild(this.parent(), parent, name, this.resource(), this.node());
+		EditorHistory.childMoved(this.parent(), parent, this.label(), this.parent(), parent, name, this.resource(), this.node());
 	}
 
 	/**
 	 * Deletes this node.
 	 */
 	public void delete() {
-		this.node().getParent().removeChild(this.label());
-		this.parent().children.remove(this.label());
+		Node parent = this.node().getParent();
+		EditorScene.removeChild(this.parent(), parent, this.label());
+		EditorHistory.childRemoved(this.parent(), parent, this.label(), this.resource(), this.node());
 	}
 }
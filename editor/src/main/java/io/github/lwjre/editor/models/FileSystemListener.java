@@ -1,67 +1,130 @@
 package io.github.lwjre.editor.models;
 
-import io.github.lwjre.editor.ProjectPath;
-
 import java.io.IOException;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Implementation of a {@link WatchService} that listens for changes in the file system.
+ * The listener blocks until a change is detected, then waits for the file system to be quiet for {@link FileSystemListener#DEBOUNCE_MILLIS} milliseconds and reports all the changes at once.
  *
  * @author Nico
  */
 public class FileSystemListener {
 
+	/** Time in milliseconds without new events after which a burst of changes is reported */
+	private static final long DEBOUNCE_MILLIS = 200;
+
+	/** The folder to listen to */
+	private final Path folder;
+	/** True if sub-folders are listened to as well */
+	private final boolean recursive;
 	/** Action to perform */
-	private final Runnable onEvent;
+	private final Consumer<Set<Path>> onChange;
 	/** True when running, false when stopped */
-	private boolean listening = true;
+	private volatile boolean listening = true;
+	/** The watch service used by the running listener, closed to stop listening */
+	private volatile WatchService watchService;
 
 	/**
 	 * Constructs a {@code FileSystemListener}.
 	 *
-	 * @param onEvent Action to perform when a change in the file system is detected
+	 * @param folder The folder to listen to
+	 * @param recursive True if sub-folders should be listened to as well, false to only listen to the files directly in the given folder
+	 * @param onChange Action to perform when a burst of changes in the file system is over, receives the paths to the files that were created, modified or deleted
 	 */
-	public FileSystemListener(Runnable onEvent) {
-		this.onEvent = onEvent;
+	public FileSystemListener(Path folder, boolean recursive, Consumer<Set<Path>> onChange) {
+		this.folder = folder;
+		this.recursive = recursive;
+		this.onChange = onChange;
+	}
+
+	/**
+	 * Constructs a {@code FileSystemListener} that listens to the given folder and all of its sub-folders.
+	 *
+	 * @param folder The folder to listen to, sub-folders are listened to as well
+	 * @param onChange Action to perform when a burst of changes in the file system is over, receives the paths to the files that were created, modified or deleted
+	 */
+	public FileSystemListener(Path folder, Consumer<Set<Path>> onChange) {
+		this(folder, true, onChange);
 	}
 
 	/**
 	 * Starts listening for changes to the file system.
-	 * This method is supposed to be called on a separate thread, since it enters an infinite loop that terminates when {@link FileSystemListener#stopListening()} is called.
+	 * This method is supposed to be called on a separate thread, since it blocks until {@link FileSystemListener#stopListening()} is called.
 	 */
 	public void listen() {
 		try(WatchService watchService = FileSystems.getDefault().newWatchService()) {
-			Files.walkFileTree(ProjectPath.sourcesFolder(), new SimpleFileVisitor<>() {
-				@Override
-				public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) throws IOException {
-					directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
-					return FileVisitResult.CONTINUE;
-				}
-			});
+			this.watchService = watchService;
+			if(this.recursive) {
+				register(this.folder, watchService);
+			} else {
+				this.folder.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+			}
+			LinkedHashSet<Path> changes = new LinkedHashSet<>();
 			while(this.listening) {
-				WatchKey watchKey = watchService.poll();
+				WatchKey watchKey = changes.isEmpty() ? watchService.take() : watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
 				if(watchKey != null) {
+					Path directory = (Path) watchKey.watchable();
 					for(WatchEvent<?> event : watchKey.pollEvents()) {
-						if(event.context().toString().endsWith(".java")) {
-							this.onEvent.run();
-							break;
+						if(event.kind() != StandardWatchEventKinds.OVERFLOW) {
+							Path path = directory.resolve((Path) event.context());
+							if(this.recursive && event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+								register(path, watchService);
+							}
+							changes.add(path);
 						}
 					}
 					watchKey.reset();
+				} else {
+					this.onChange.accept(Collections.unmodifiableSet(changes));
+					changes = new LinkedHashSet<>();
 				}
 			}
+		} catch (ClosedWatchServiceException ignored) {
+			// The listener was stopped while waiting for changes
 		} catch (IOException e) {
 			e.printStackTrace();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
 		}
+		this.watchService = null;
 		this.listening = true;
 	}
 
+	/**
+	 * Registers the given directory and all of its sub-directories to the given watch service.
+	 *
+	 * @param directory The directory to register
+	 * @param watchService The watch service
+	 * @throws IOException If an I/O error occurs
+	 */
+	private static void register(Path directory, WatchService watchService) throws IOException {
+		Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path directory, BasicFileAttributes attributes) throws IOException {
+				directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
 	/**
 	 * Must be called after {@link FileSystemListener#listen()} to stop the thread that is running this listener.
+	 * Closes the watch service to wake up the listener if it is waiting for changes.
 	 */
 	public void stopListening() {
 		this.listening = false;
+		WatchService watchService = this.watchService;
+		if(watchService != null) try {
+			watchService.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
 	}
 }
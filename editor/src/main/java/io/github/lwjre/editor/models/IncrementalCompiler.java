@@ -0,0 +1,335 @@
+package io.github.lwjre.editor.models;
+
+import io.github.lwjre.editor.ProjectPath;
+import io.github.lwjre.editor.utils.ClassFileInfo;
+import io.github.lwjre.editor.utils.EditorFileUtils;
+import io.github.lwjre.editor.utils.MavenResolver;
+
+import javax.tools.*;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compiles the project's source files in the editor's process using the system {@link JavaCompiler}.
+ * Keeps a dependency graph between the project's source files built from the compiled class files, so that only the files that were changed and the files that depend on them are recompiled.
+ * <p>
+ *     Dependencies are read from the constant pool of the class files.
+ *     Compile-time constants are inlined by the compiler and do not appear there, a full build is needed to propagate changes to them.
+ * </p>
+ *
+ * @author Nico
+ */
+public class IncrementalCompiler {
+
+	/** The system java compiler or null if the editor is not running on a JDK */
+	private final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+
+	/** Names of the classes compiled from each source file */
+	private final HashMap<Path, Set<String>> classesBySource = new HashMap<>();
+	/** Source file of each class */
+	private final HashMap<String, Path> sourceByClass = new HashMap<>();
+	/** Source files each source file depends on */
+	private final HashMap<Path, Set<Path>> dependencies = new HashMap<>();
+	/** Source files that depend on each source file */
+	private final HashMap<Path, Set<Path>> dependents = new HashMap<>();
+	/** Classes that need to be reloaded after the last compilation */
+	private Set<String> reloadedClasses = Set.of();
+	/** Errors reported by the last compilation */
+	private String errors = "";
+
+	/**
+	 * Checks if the incremental compiler can be used.
+	 *
+	 * @return True if the editor is running on a JDK, otherwise false
+	 */
+	public boolean isAvailable() {
+		return this.compiler != null;
+	}
+
+	/**
+	 * Builds the dependency graph from the class files in the {@code target/classes} directory.
+	 * Must be called after the project is built with maven.
+	 */
+	public synchronized void index() {
+		this.classesBySource.clear();
+		this.sourceByClass.clear();
+		this.dependencies.clear();
+		this.dependents.clear();
+		Path classesFolder = classesFolder();
+		if(Files.exists(classesFolder)) try(Stream<Path> files = Files.walk(classesFolder)) {
+			this.index(files.filter(file -> file.toString().endsWith(".class")).toList());
+		} catch (IOException | UncheckedIOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Adds the given class files to the dependency graph.
+	 *
+	 * @param classFiles Paths to the class files to add
+	 */
+	private void index(List<Path> classFiles) {
+		HashMap<Path, Set<String>> references = new HashMap<>();
+		for(Path classFile : classFiles) try {
+			ClassFileInfo classInfo = ClassFileInfo.read(classFile);
+			if(classInfo.sourceFile() != null) {
+				String packageName = classInfo.name().contains(".") ? classInfo.name().substring(0, classInfo.name().lastIndexOf('.')) : "";
+				Path source = ProjectPath.sourcesFolder().resolve(packageName.replace('.', '/')).resolve(classInfo.sourceFile());
+				this.classesBySource.computeIfAbsent(source, key -> new HashSet<>()).add(classInfo.name());
+				this.sourceByClass.put(classInfo.name(), source);
+				references.computeIfAbsent(source, key -> new HashSet<>()).addAll(classInfo.referencedClasses());
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		references.forEach((source, classNames) -> {
+			Set<Path> sourceDependencies = this.dependencies.computeIfAbsent(source, key -> new HashSet<>());
+			for(String className : classNames) {
+				Path dependency = this.sourceByClass.get(className);
+				if(dependency != null && !dependency.equals(source)) {
+					sourceDependencies.add(dependency);
+					this.dependents.computeIfAbsent(dependency, key -> new HashSet<>()).add(source);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Recompiles the given source files and the source files that depend on them.
+	 * Classes are compiled to a temporary directory and moved to {@code target/classes} only if the compilation succeeds, so that the project's classes are not left in an inconsistent state.
+	 * Classes compiled from deleted source files are removed.
+	 * The classes that need to be reloaded can be retrieved with {@link IncrementalCompiler#reloadedClasses()} after the compilation succeeds.
+	 * The errors can be retrieved with {@link IncrementalCompiler#errors()} after the compilation fails.
+	 *
+	 * @param changedSources Paths to the source files that were created, modified or deleted
+	 * @return True if the compilation succeeded, otherwise false
+	 */
+	public synchronized boolean compile(Set<Path> changedSources) {
+		HashSet<Path> sources = new HashSet<>();
+		HashSet<Path> deleted = new HashSet<>();
+		for(Path source : changedSources) {
+			if(source.toString().endsWith(".java")) {
+				if(Files.exists(source)) {
+					sources.add(source);
+				} else {
+					deleted.add(source);
+				}
+				sources.addAll(this.dependents.getOrDefault(source, Set.of()));
+			}
+		}
+		sources.removeIf(source -> !Files.exists(source));
+		this.errors = "";
+		Path output = null;
+		try {
+			output = Files.createTempDirectory(ProjectPath.append("target"), "editor-classes");
+			if(!sources.isEmpty() && !this.runCompiler(sources, output)) {
+				return false;
+			}
+			Set<String> changedClasses = this.changedClasses(sources, deleted, output);
+			HashSet<Path> affectedSources = new HashSet<>();
+			for(Path source : sources) {
+				this.removeClasses(source);
+			}
+			for(Path source : deleted) {
+				this.removeClasses(source);
+				affectedSources.addAll(this.dependents.getOrDefault(source, Set.of()));
+				this.dependents.remove(source);
+			}
+			this.index(moveClasses(output));
+			for(String className : changedClasses) {
+				Path source = this.sourceByClass.get(className);
+				if(source != null) {
+					affectedSources.add(source);
+				}
+			}
+			HashSet<String> reloadedClasses = new HashSet<>(changedClasses);
+			for(Path source : this.withDependents(affectedSources)) {
+				reloadedClasses.addAll(this.classesBySource.getOrDefault(source, Set.of()));
+			}
+			this.reloadedClasses = Set.copyOf(reloadedClasses);
+			return true;
+		} catch (IOException | UncheckedIOException e) {
+			e.printStackTrace();
+			this.errors = e.toString();
+			return false;
+		} finally {
+			if(output != null) {
+				EditorFileUtils.delete(output);
+			}
+		}
+	}
+
+	/**
+	 * Returns the classes that need to be reloaded after the last successful compilation.
+	 * Includes the classes whose bytecode changed, the classes that were removed and all the classes that depend on them, directly or indirectly.
+	 *
+	 * @return A set containing the full names of the classes to reload
+	 */
+	public synchronized Set<String> reloadedClasses() {
+		return this.reloadedClasses;
+	}
+
+	/**
+	 * Returns the errors reported by the last compilation.
+	 * Each error is on its own line and starts with the name of the source file and the line number.
+	 *
+	 * @return The errors reported by the last compilation or an empty string if it succeeded
+	 */
+	public synchronized String errors() {
+		return this.errors;
+	}
+
+	/**
+	 * Compares the classes that were just compiled with the ones in {@code target/classes}.
+	 * Recompiling a file does not always change its bytecode, only the classes that actually changed need to be reloaded.
+	 *
+	 * @param sources Source files that were compiled
+	 * @param deleted Source files that were deleted
+	 * @param output Directory the classes were compiled to
+	 * @return A set containing the names of the classes that were added, changed or removed
+	 * @throws IOException If an I/O error occurs
+	 */
+	private Set<String> changedClasses(Set<Path> sources, Set<Path> deleted, Path output) throws IOException {
+		HashSet<String> result = new HashSet<>();
+		HashSet<String> compiledClasses = new HashSet<>();
+		try(Stream<Path> files = Files.walk(output)) {
+			for(Path file : files.filter(path -> path.toString().endsWith(".class")).toList()) {
+				String relativePath = output.relativize(file).toString();
+				String className = relativePath.substring(0, relativePath.length() - ".class".length()).replace(File.separatorChar, '.');
+				Path previous = classesFolder().resolve(relativePath);
+				if(!Files.exists(previous) || Files.mismatch(file, previous) != -1) {
+					result.add(className);
+				}
+				compiledClasses.add(className);
+			}
+		}
+		for(Path source : sources) {
+			for(String className : this.classesBySource.getOrDefault(source, Set.of())) {
+				if(!compiledClasses.contains(className)) {
+					result.add(className);
+				}
+			}
+		}
+		for(Path source : deleted) {
+			result.addAll(this.classesBySource.getOrDefault(source, Set.of()));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the given source files together with all the source files that depend on them, directly or indirectly.
+	 *
+	 * @param sources The source files
+	 * @return A set containing the given source files and their dependents
+	 */
+	private Set<Path> withDependents(Set<Path> sources) {
+		HashSet<Path> result = new HashSet<>(sources);
+		ArrayDeque<Path> queue = new ArrayDeque<>(sources);
+		while(!queue.isEmpty()) {
+			for(Path dependent : this.dependents.getOrDefault(queue.poll(), Set.of())) {
+				if(result.add(dependent)) {
+					queue.add(dependent);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Runs the java compiler on the given source files.
+	 * The classes are compiled for the release declared in the project's {@code pom.xml}, so that they target the same level as the maven build.
+	 *
+	 * @param sources Source files to compile
+	 * @param output Directory where class files are written
+	 * @return True if the compilation succeeded, otherwise false
+	 * @throws IOException If an I/O error occurs
+	 */
+	private boolean runCompiler(Set<Path> sources, Path output) throws IOException {
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		try(StandardJavaFileManager fileManager = this.compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+			String classPath = Stream.concat(Stream.of(classesFolder()), MavenResolver.compileClassPath(ProjectPath.append("pom.xml")).stream())
+				.map(Path::toString)
+				.collect(Collectors.joining(File.pathSeparator));
+			ArrayList<String> options = new ArrayList<>(List.of("-d", output.toString(), "-classpath", classPath, "-encoding", "UTF-8"));
+			String release = MavenResolver.compilerRelease(ProjectPath.append("pom.xml"));
+			if(release != null) {
+				options.add("--release");
+				options.add(release);
+			}
+			Iterable<? extends JavaFileObject> compilationUnits = fileManager.getJavaFileObjectsFromPaths(sources);
+			boolean success = this.compiler.getTask(null, fileManager, diagnostics, options, null, compilationUnits).call();
+			StringBuilder errors = new StringBuilder();
+			for(Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+				System.err.println(diagnostic);
+				if(diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+					String fileName = diagnostic.getSource() != null ? Path.of(diagnostic.getSource().toUri()).getFileName().toString() : "";
+					errors.append(fileName).append(':').append(diagnostic.getLineNumber()).append(": ").append(diagnostic.getMessage(null)).append('\n');
+				}
+			}
+			this.errors = errors.toString();
+			return success;
+		}
+	}
+
+	/**
+	 * Deletes the class files compiled from the given source file and removes it from the dependency graph.
+	 *
+	 * @param source Path to the source file
+	 * @throws IOException If an I/O error occurs
+	 */
+	private void removeClasses(Path source) throws IOException {
+		Set<String> classNames = this.classesBySource.remove(source);
+		if(classNames != null) {
+			for(String className : classNames) {
+				Files.deleteIfExists(classesFolder().resolve(className.replace('.', '/') + ".class"));
+				this.sourceByClass.remove(className);
+			}
+		}
+		Set<Path> sourceDependencies = this.dependencies.remove(source);
+		if(sourceDependencies != null) {
+			for(Path dependency : sourceDependencies) {
+				Set<Path> dependencyDependents = this.dependents.get(dependency);
+				if(dependencyDependents != null) {
+					dependencyDependents.remove(source);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Moves the class files from the given directory to {@code target/classes}.
+	 *
+	 * @param output The directory the classes were compiled to
+	 * @return A list containing the paths to the moved class files
+	 * @throws IOException If an I/O error occurs
+	 */
+	private static List<Path> moveClasses(Path output) throws IOException {
+		ArrayList<Path> result = new ArrayList<>();
+		try(Stream<Path> files = Files.walk(output)) {
+			for(Path file : files.filter(Files::isRegularFile).toList()) {
+				Path destination = classesFolder().resolve(output.relativize(file).toString());
+				Files.createDirectories(destination.getParent());
+				Files.move(file, destination, StandardCopyOption.REPLACE_EXISTING);
+				result.add(destination);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the path to the {@code target/classes} folder for the current project.
+	 *
+	 * @return The path to the {@code target/classes} folder for the current project
+	 */
+	private static Path classesFolder() {
+		return ProjectPath.append("target/classes");
+	}
+}
@@ -0,0 +1,219 @@
+package io.github.lwjre.editor.utils;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Information read from the header and the constant pool of a {@code .class} file.
+ * Class files are parsed directly, so that the editor can inspect compiled classes without loading them.
+ *
+ * @param accessFlags The class's access flags as defined in the class file format
+ * @param name Full name of the class
+ * @param superName Full name of the class's superclass or null if the class is {@link Object}
+ * @param interfaces Full names of the interfaces implemented by the class
+ * @param referencedClasses Full names of all the classes that are referenced in the class's constant pool
+ * @param sourceFile Name of the source file the class was compiled from or null if it is unknown
+ *
+ * @author Nico
+ */
+public record ClassFileInfo(int accessFlags, String name, String superName, List<String> interfaces, Set<String> referencedClasses, String sourceFile) {
+
+	/** Magic number at the beginning of every class file */
+	private static final int MAGIC = 0xCAFEBABE;
+	/** Access flag of interfaces */
+	private static final int ACC_INTERFACE = 0x0200;
+	/** Access flag of abstract classes */
+	private static final int ACC_ABSTRACT = 0x0400;
+
+	/**
+	 * Reads the class file at the given path.
+	 *
+	 * @param path Path to the class file
+	 * @return The information read from the class file
+	 * @throws IOException If an I/O error occurs or if the file is not a valid class file
+	 */
+	public static ClassFileInfo read(Path path) throws IOException {
+		try(InputStream inputStream = Files.newInputStream(path)) {
+			return read(inputStream);
+		}
+	}
+
+	/**
+	 * Reads a class file from the given input stream.
+	 * The stream is not closed by this method.
+	 *
+	 * @param inputStream The input stream
+	 * @return The information read from the class file
+	 * @throws IOException If an I/O error occurs or if the stream does not contain a valid class file
+	 */
+	public static ClassFileInfo read(InputStream inputStream) throws IOException {
+		return read(inputStream, true);
+	}
+
+	/**
+	 * Reads only the header of a class file from the given input stream.
+	 * The returned info contains the class's access flags, its name, its superclass and its interfaces, but not its referenced classes nor its source file.
+	 * The stream is not closed by this method.
+	 *
+	 * @param inputStream The input stream
+	 * @return The information read from the class file's header
+	 * @throws IOException If an I/O error occurs or if the stream does not contain a valid class file
+	 */
+	public static ClassFileInfo readHeader(InputStream inputStream) throws IOException {
+		return read(inputStream, false);
+	}
+
+	/**
+	 * Reads a class file from the given input stream.
+	 *
+	 * @param inputStream The input stream
+	 * @param full True to read the whole class file, false to stop after the header
+	 * @return The information read from the class file
+	 * @throws IOException If an I/O error occurs or if the stream does not contain a valid class file
+	 */
+	private static ClassFileInfo read(InputStream inputStream, boolean full) throws IOException {
+		DataInputStream input = new DataInputStream(new BufferedInputStream(inputStream));
+		if(input.readInt() != MAGIC) {
+			throw new IOException("Not a class file");
+		}
+		input.skipBytes(4);
+		int constantPoolCount = input.readUnsignedShort();
+		String[] utf8 = new String[constantPoolCount];
+		int[] classes = new int[constantPoolCount];
+		for(int i = 1; i < constantPoolCount; i++) {
+			int tag = input.readUnsignedByte();
+			switch(tag) {
+				case 1 -> utf8[i] = input.readUTF();
+				case 7 -> classes[i] = input.readUnsignedShort();
+				case 8, 16, 19, 20 -> input.skipBytes(2);
+				case 15 -> input.skipBytes(3);
+				case 3, 4, 9, 10, 11, 12, 17, 18 -> input.skipBytes(4);
+				case 5, 6 -> {
+					input.skipBytes(8);
+					i++;
+				}
+				default -> throw new IOException("Invalid constant pool tag " + tag);
+			}
+		}
+		int accessFlags = input.readUnsignedShort();
+		String name = className(utf8, classes, input.readUnsignedShort());
+		String superName = className(utf8, classes, input.readUnsignedShort());
+		int interfacesCount = input.readUnsignedShort();
+		ArrayList<String> interfaces = new ArrayList<>(interfacesCount);
+		for(int i = 0; i < interfacesCount; i++) {
+			interfaces.add(className(utf8, classes, input.readUnsignedShort()));
+		}
+		if(!full) {
+			return new ClassFileInfo(accessFlags, name, superName, List.copyOf(interfaces), Set.of(), null);
+		}
+		skipMembers(input);
+		skipMembers(input);
+		String sourceFile = null;
+		int attributesCount = input.readUnsignedShort();
+		for(int i = 0; i < attributesCount; i++) {
+			String attributeName = utf8[input.readUnsignedShort()];
+			int length = input.readInt();
+			if("SourceFile".equals(attributeName)) {
+				sourceFile = utf8[input.readUnsignedShort()];
+			} else {
+				input.skipNBytes(length);
+			}
+		}
+		return new ClassFileInfo(accessFlags, name, superName, List.copyOf(interfaces), referencedClasses(utf8, classes, name), sourceFile);
+	}
+
+	/**
+	 * Checks if the class is neither abstract nor an interface.
+	 *
+	 * @return True if the class can be instantiated, otherwise false
+	 */
+	public boolean isConcrete() {
+		return (this.accessFlags & (ACC_ABSTRACT | ACC_INTERFACE)) == 0;
+	}
+
+	/**
+	 * Skips the fields or the methods of a class file.
+	 *
+	 * @param input The input stream positioned at the fields count or at the methods count
+	 * @throws IOException If an I/O error occurs
+	 */
+	private static void skipMembers(DataInputStream input) throws IOException {
+		int count = input.readUnsignedShort();
+		for(int i = 0; i < count; i++) {
+			input.skipBytes(6);
+			int attributesCount = input.readUnsignedShort();
+			for(int j = 0; j < attributesCount; j++) {
+				input.skipBytes(2);
+				input.skipNBytes(input.readInt());
+			}
+		}
+	}
+
+	/**
+	 * Gets the name of the class at the given index in the constant pool.
+	 *
+	 * @param utf8 Utf8 entries of the constant pool
+	 * @param classes Class entries of the constant pool, containing the index of the class's name
+	 * @param index Index of the class entry
+	 * @return The full name of the class or null if the given index is zero
+	 */
+	private static String className(String[] utf8, int[] classes, int index) {
+		return index == 0 ? null : utf8[classes[index]].replace('/', '.');
+	}
+
+	/**
+	 * Collects the names of all the classes referenced in the constant pool.
+	 * Includes class entries and classes that only appear in field, method and generic signatures.
+	 *
+	 * @param utf8 Utf8 entries of the constant pool
+	 * @param classes Class entries of the constant pool, containing the index of the class's name
+	 * @param name Name of the class the constant pool belongs to, it is not included in the result
+	 * @return A set containing the full names of the referenced classes
+	 */
+	private static Set<String> referencedClasses(String[] utf8, int[] classes, String name) {
+		HashSet<String> result = new HashSet<>();
+		for(int i = 1; i < classes.length; i++) {
+			if(classes[i] != 0) {
+				String className = utf8[classes[i]];
+				if(className.startsWith("[")) {
+					addDescriptorClasses(className, result);
+				} else {
+					result.add(className.replace('/', '.'));
+				}
+			}
+		}
+		for(String string : utf8) {
+			if(string != null && string.indexOf(';') != -1) {
+				addDescriptorClasses(string, result);
+			}
+		}
+		result.remove(name);
+		return Set.copyOf(result);
+	}
+
+	/**
+	 * Adds the names of the classes that appear in the given descriptor or signature to the given set.
+	 * Strings in the constant pool that are not descriptors may add names of classes that do not exist, those are harmless for the editor's purposes.
+	 *
+	 * @param descriptor The descriptor
+	 * @param result The set the names are added to
+	 */
+	private static void addDescriptorClasses(String descriptor, Set<String> result) {
+		int start = descriptor.indexOf('L');
+		while(start != -1) {
+			int end = start + 1;
+			while(end < descriptor.length() && descriptor.charAt(end) != ';' && descriptor.charAt(end) != '<') {
+				end++;
+			}
+			if(end < descriptor.length() && end > start + 1) {
+				result.add(descriptor.substring(start + 1, end).replace('/', '.'));
+			}
+			start = descriptor.indexOf('L', end);
+		}
+	}
+}
@@ -2,106 +2,263 @@ package io.github.lwjre.editor.utils;
 
 import io.github.lwjre.editor.ProjectPath;
 import io.github.lwjre.engine.nodes.Node;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+
 import java.io.IOException;
-import java.lang.reflect.Modifier;
-import java.net.URL;
-import java.net.URLClassLoader;
+import java.io.InputStream;
+import java.io.Serial;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.HashSet;
-import java.util.Set;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
-import java.util.stream.Stream;
 
 /**
  * Static utility class used to look for classes that extend {@link Node} in {@code .class} files in the file system or in {@code .jar} files in the project's dependencies.
+ * Classes are never loaded, only the headers of the class files are read to build a graph of superclasses.
  *
  * @author Nico
  */
 public class ClassFilesLoader {
 
+	/** Full name of the {@link Node} class */
+	private static final String NODE_CLASS = Node.class.getName();
+
+	/** Headers of the class files read in the previous scans, null until the cache is loaded */
+	private static ClassScanCache cache = null;
+
+	/**
+	 * Loads the scan cache from the project's {@code target} folder.
+	 * Must be called before the {@code target} folder is deleted by {@code mvn clean}, the cache is written again after the next scan.
+	 */
+	public static synchronized void loadCache() {
+		cache = ClassScanCache.read(cacheFile());
+	}
+
 	/**
 	 * Looks for classes that extend {@link Node}.
+	 * Only the files that changed since the previous scan are read, the others are taken from the scan cache.
+	 * Files are read in parallel, with one task for each jar file and one for each directory in {@code target/classes}.
 	 *
 	 * @return A {@link HashSet} containing the full name of all classes found
 	 */
-	public static HashSet<String> lookForClasses() {
+	public static synchronized HashSet<String> lookForClasses() {
+		if(cache == null) {
+			loadCache();
+		}
+		Set<Path> classFiles = ConcurrentHashMap.newKeySet();
+		Set<Path> jarFiles = ConcurrentHashMap.newKeySet();
+		ArrayList<ForkJoinTask<List<ClassFileInfo>>> jarTasks = new ArrayList<>();
+		for(Path path : dependencies()) {
+			jarTasks.add(ForkJoinPool.commonPool().submit(() -> lookForClassesInJar(path, jarFiles)));
+		}
+		ConcurrentHashMap<String, ClassFileInfo> projectClasses = new ConcurrentHashMap<>();
+		Path classesFolder = ProjectPath.append("target/classes");
+		if(Files.isDirectory(classesFolder)) {
+			ForkJoinPool.commonPool().invoke(new DirectoryScan(classesFolder, projectClasses, classFiles));
+		}
+		HashMap<String, ClassFileInfo> classes = new HashMap<>(projectClasses);
+		for(ForkJoinTask<List<ClassFileInfo>> jarTask : jarTasks) {
+			for(ClassFileInfo classInfo : jarTask.join()) {
+				classes.putIfAbsent(classInfo.name(), classInfo);
+			}
+		}
+		cache.retain(jarFiles, classFiles);
+		cache.write(cacheFile());
 		HashSet<String> result = new HashSet<>();
-		lookForClassesInProject(result);
-		lookForClassesInDependencies(result);
+		HashMap<String, Boolean> extendsNode = new HashMap<>();
+		for(ClassFileInfo classInfo : List.copyOf(classes.values())) {
+			if(classInfo.isConcrete() && extendsNode(classInfo.name(), classes, extendsNode)) {
+				result.add(classInfo.name());
+			}
+		}
 		return result;
 	}
 
 	/**
-	 * Looks for classes in the current project's {@code target/classes} directory.
+	 * Checks if the class with the given name is {@link Node} or one of its subclasses by walking up the superclass graph.
+	 * Superclasses that were not found in the project or in its dependencies are looked for in the editor's class path.
 	 *
-	 * @param result The resulting {@link Set}
+	 * @param className Full name of the class
+	 * @param classes Headers of the classes found so far
+	 * @param extendsNode Results of the previous checks, all the classes visited by this check are added to it
+	 * @return True if the given class is {@link Node} or one of its subclasses, otherwise false
 	 */
-	private static void lookForClassesInProject(Set<String> result) {
-		Path path = ProjectPath.append("target/classes");
-		if(Files.exists(path)) try(Stream<Path> files = Files.walk(path); URLClassLoader classLoader = new URLClassLoader(new URL[] {path.toUri().toURL()})) {
-			files.filter(file -> file.toString().endsWith(".class")).forEach(file -> {
-				try {
-					String className = path.relativize(file).toString().replace('/', '.').replace(".class", "");
-					Class<?> classObject = classLoader.loadClass(className);
-					if(Node.class.isAssignableFrom(classObject) && !Modifier.isAbstract(classObject.getModifiers())) {
-						result.add(className);
-					}
-				} catch (ClassNotFoundException e) {
-					e.printStackTrace();
-				}
-			});
+	private static boolean extendsNode(String className, HashMap<String, ClassFileInfo> classes, HashMap<String, Boolean> extendsNode) {
+		ArrayList<String> visited = new ArrayList<>();
+		Boolean result = null;
+		while(result == null) {
+			if(className == null) {
+				result = false;
+			} else if(className.equals(NODE_CLASS)) {
+				result = true;
+			} else if(extendsNode.containsKey(className)) {
+				result = extendsNode.get(className);
+			} else {
+				visited.add(className);
+				ClassFileInfo classInfo = classes.computeIfAbsent(className, ClassFilesLoader::readFromClassPath);
+				className = classInfo != null ? classInfo.superName() : null;
+			}
+		}
+		for(String visitedClass : visited) {
+			extendsNode.put(visitedClass, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Reads the header of the class with the given name from the editor's class path.
+	 *
+	 * @param className Full name of the class
+	 * @return The header of the class or null if the class cannot be found
+	 */
+	private static ClassFileInfo readFromClassPath(String className) {
+		try(InputStream inputStream = ClassLoader.getSystemResourceAsStream(className.replace('.', '/') + ".class")) {
+			return inputStream != null ? ClassFileInfo.readHeader(inputStream) : null;
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Reads the header of the given class file or takes it from the scan cache if the file has not changed.
+	 *
+	 * @param file Path to the class file
+	 * @param result Map the header is added to
+	 * @param classFiles Set the path to the class file is added to
+	 */
+	private static void lookForClassInFile(Path file, Map<String, ClassFileInfo> result, Set<Path> classFiles) {
+		try {
+			BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+			ClassFileInfo classInfo = cache.getClassFile(file, attributes);
+			if(classInfo == null) try(InputStream inputStream = Files.newInputStream(file)) {
+				classInfo = ClassFileInfo.readHeader(inputStream);
+				cache.putClassFile(file, attributes, classInfo);
+			}
+			result.put(classInfo.name(), classInfo);
+			classFiles.add(file);
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
 	}
 
 	/**
-	 * Looks for classes in the current project's dependencies.
+	 * Reads the headers of the classes in the given dependency or takes them from the scan cache if the jar has not changed.
 	 *
-	 * @param result The resulting {@link Set}
+	 * @param path Path to the dependency's jar file
+	 * @param jarFiles Set the path to the jar file is added to
+	 * @return A list containing the headers of the classes in the jar file or an empty list if the jar cannot be read
 	 */
-	private static void lookForClassesInDependencies(Set<String> result) {
+	private static List<ClassFileInfo> lookForClassesInJar(Path path, Set<Path> jarFiles) {
 		try {
-			DocumentBuilderFactory documentBuilderFactory = DocumentBuilderFactory.newInstance();
-			DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
-			Document document = documentBuilder.parse(ProjectPath.append("pom.xml").toFile());
-			NodeList dependencies = document.getElementsByTagName("dependency");
-			for(int i = 0; i < dependencies.getLength(); i++) {
-				Element dependency = (Element) dependencies.item(i);
-				// TODO: Replace ${project.property} with actual properties
-				String groupId = dependency.getElementsByTagName("groupId").item(0).getTextContent();
-				String artifactId = dependency.getElementsByTagName("artifactId").item(0).getTextContent();
-				String version = dependency.getElementsByTagName("version").item(0).getTextContent();
-				// TODO: Make sure that this works on windows
-				Path path = Path.of(System.getProperty("user.home"), "/.m2/repository/", groupId.replace('.', '/'), artifactId, version, artifactId + "-" + version + ".jar");
-				try(JarFile jarFile = new JarFile(path.toFile()); URLClassLoader classLoader = new URLClassLoader(new URL[] {path.toUri().toURL()})) {
-					jarFile.stream().forEach(jarEntry -> {
-						String name = jarEntry.getName();
-						if(name.endsWith(".class")) try {
-							String className = name.replace('/', '.').replace(".class", "");
-							Class<?> classObject = classLoader.loadClass(className);
-							if(Node.class.isAssignableFrom(classObject) && !Modifier.isAbstract(classObject.getModifiers())) {
-								result.add(className);
-							}
-						} catch (ClassNotFoundException e) {
-							e.printStackTrace();
-						}
-					});
+			BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+			List<ClassFileInfo> classes = cache.getJar(path, attributes);
+			if(classes == null) {
+				classes = readJar(path);
+				cache.putJar(path, attributes, classes);
+			}
+			jarFiles.add(path);
+			return classes;
+		} catch (IOException e) {
+			e.printStackTrace();
+			return List.of();
+		}
+	}
+
+	/**
+	 * Reads the headers of the classes in the given jar file.
+	 *
+	 * @param path Path to the jar file
+	 * @return A list containing the headers of the classes in the jar file
+	 * @throws IOException If an I/O error occurs
+	 */
+	private static List<ClassFileInfo> readJar(Path path) throws IOException {
+		ArrayList<ClassFileInfo> result = new ArrayList<>();
+		try(JarFile jarFile = new JarFile(path.toFile())) {
+			Enumeration<JarEntry> entries = jarFile.entries();
+			while(entries.hasMoreElements()) {
+				JarEntry jarEntry = entries.nextElement();
+				String name = jarEntry.getName();
+				if(name.endsWith(".class") && !name.endsWith("module-info.class")) try(InputStream inputStream = jarFile.getInputStream(jarEntry)) {
+					result.add(ClassFileInfo.readHeader(inputStream));
 				} catch (IOException e) {
 					e.printStackTrace();
 				}
 			}
-		} catch (ParserConfigurationException | SAXException | IOException e) {
-			e.printStackTrace();
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the path to the scan cache file in the current project's {@code .editor} folder.
+	 * The cache is kept outside of {@code target}, since the project is cleaned every time it is opened.
+	 *
+	 * @return The path to the scan cache file
+	 */
+	private static Path cacheFile() {
+		return ProjectPath.editorFolder("class-scan.cache");
+	}
+
+	/**
+	 * Resolves the runtime class path of the current project from its {@code pom.xml} file and the local maven repository.
+	 *
+	 * @return A list containing the paths to the {@code .jar} files of the project's dependencies
+	 * @see MavenResolver#runtimeClassPath(Path)
+	 */
+	public static List<Path> dependencies() {
+		return MavenResolver.runtimeClassPath(ProjectPath.append("pom.xml"));
+	}
+
+	/**
+	 * Task that reads the class files in a directory and forks a new task for each of its sub-directories.
+	 */
+	private static class DirectoryScan extends RecursiveAction {
+
+		/** Tasks are never serialized, but {@link RecursiveAction} is serializable */
+		@Serial
+		private static final long serialVersionUID = 1L;
+
+		/** The directory to scan */
+		private final Path directory;
+		/** Map the headers are added to */
+		private final Map<String, ClassFileInfo> result;
+		/** Set the paths to the class files are added to */
+		private final Set<Path> classFiles;
+
+		/**
+		 * Creates a task that scans the given directory.
+		 *
+		 * @param directory The directory to scan
+		 * @param result Map the headers are added to, must be thread-safe
+		 * @param classFiles Set the paths to the class files are added to, must be thread-safe
+		 */
+		private DirectoryScan(Path directory, Map<String, ClassFileInfo> result, Set<Path> classFiles) {
+			this.directory = directory;
+			this.result = result;
+			this.classFiles = classFiles;
+		}
+
+		@Override
+		protected void compute() {
+			ArrayList<DirectoryScan> subtasks = new ArrayList<>();
+			try(DirectoryStream<Path> files = Files.newDirectoryStream(this.directory)) {
+				for(Path file : files) {
+					if(Files.isDirectory(file)) {
+						subtasks.add(new DirectoryScan(file, this.result, this.classFiles));
+					} else if(file.toString().endsWith(".class")) {
+						lookForClassInFile(file, this.result, this.classFiles);
+					}
+				}
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			invokeAll(subtasks);
 		}
 	}
 }
@@ -0,0 +1,288 @@
+package io.github.lwjre.editor.utils;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32C;
+
+/**
+ * Cache of the class file headers read by {@link ClassFilesLoader}.
+ * Headers are cached together with the size, modification time and checksum of the {@code .jar} or {@code .class} file they were read from.
+ * A file whose modification time changed is still taken from the cache if its size and checksum did not, since the project is rebuilt with {@code mvn clean install} every time it is opened, which writes every class file again.
+ * The cache can be saved to a file, so that a warm editor start only needs to read the files that changed.
+ *
+ * @author Nico
+ */
+public class ClassScanCache {
+
+	/** Magic number at the beginning of the cache file */
+	private static final int MAGIC = 0x4C4A4353;
+	/** Version of the cache file format, cache files with a different version are ignored */
+	private static final int VERSION = 2;
+
+	/** Cached jar files */
+	private final ConcurrentHashMap<Path, JarFileEntry> jarFiles = new ConcurrentHashMap<>();
+	/** Cached class files */
+	private final ConcurrentHashMap<Path, ClassFileEntry> classFiles = new ConcurrentHashMap<>();
+
+	/**
+	 * Gets the headers of the classes in the given jar file if they are in the cache and the jar has not changed.
+	 * The checksum of the jar is only computed if its size is the same as the cached one but its modification time is not.
+	 *
+	 * @param path Path to the jar file
+	 * @param attributes The jar file's attributes
+	 * @return The cached headers or null if the jar file is not in the cache or if it has changed
+	 * @throws IOException If an I/O error occurs while computing the jar's checksum
+	 */
+	public List<ClassFileInfo> getJar(Path path, BasicFileAttributes attributes) throws IOException {
+		JarFileEntry entry = this.jarFiles.get(path);
+		if(entry != null && isUnchanged(path, attributes, entry.size(), entry.lastModified(), entry.checksum())) {
+			if(entry.lastModified() != attributes.lastModifiedTime().toMillis()) {
+				this.jarFiles.put(path, new JarFileEntry(entry.size(), attributes.lastModifiedTime().toMillis(), entry.checksum(), entry.classes()));
+			}
+			return entry.classes();
+		}
+		return null;
+	}
+
+	/**
+	 * Adds the headers of the classes in the given jar file to the cache.
+	 *
+	 * @param path Path to the jar file
+	 * @param attributes The jar file's attributes
+	 * @param classes Headers of the classes in the jar file
+	 * @throws IOException If an I/O error occurs while computing the jar's checksum
+	 */
+	public void putJar(Path path, BasicFileAttributes attributes, List<ClassFileInfo> classes) throws IOException {
+		this.jarFiles.put(path, new JarFileEntry(attributes.size(), attributes.lastModifiedTime().toMillis(), checksum(path), List.copyOf(classes)));
+	}
+
+	/**
+	 * Gets the header of the given class file if it is in the cache and the file has not changed.
+	 * The checksum of the file is only computed if its size is the same as the cached one but its modification time is not.
+	 *
+	 * @param path Path to the class file
+	 * @param attributes The class file's attributes
+	 * @return The cached header or null if the class file is not in the cache or if it has changed
+	 * @throws IOException If an I/O error occurs while computing the file's checksum
+	 */
+	public ClassFileInfo getClassFile(Path path, BasicFileAttributes attributes) throws IOException {
+		ClassFileEntry entry = this.classFiles.get(path);
+		if(entry != null && isUnchanged(path, attributes, entry.size(), entry.lastModified(), entry.checksum())) {
+			if(entry.lastModified() != attributes.lastModifiedTime().toMillis()) {
+				this.classFiles.put(path, new ClassFileEntry(entry.size(), attributes.lastModifiedTime().toMillis(), entry.checksum(), entry.classInfo()));
+			}
+			return entry.classInfo();
+		}
+		return null;
+	}
+
+	/**
+	 * Adds the header of the given class file to the cache.
+	 *
+	 * @param path Path to the class file
+	 * @param attributes The class file's attributes
+	 * @param classInfo Header of the class file
+	 * @throws IOException If an I/O error occurs while computing the file's checksum
+	 */
+	public void putClassFile(Path path, BasicFileAttributes attributes, ClassFileInfo classInfo) throws IOException {
+		this.classFiles.put(path, new ClassFileEntry(attributes.size(), attributes.lastModifiedTime().toMillis(), checksum(path), classInfo));
+	}
+
+	/**
+	 * Removes the entries of the files that are not in the given sets.
+	 * Used after a scan to forget about files that no longer exist.
+	 *
+	 * @param jarFiles Paths to the jar files to keep
+	 * @param classFiles Paths to the class files to keep
+	 */
+	public void retain(Set<Path> jarFiles, Set<Path> classFiles) {
+		this.jarFiles.keySet().retainAll(jarFiles);
+		this.classFiles.keySet().retainAll(classFiles);
+	}
+
+	/**
+	 * Reads a cache from the given file.
+	 *
+	 * @param file Path to the cache file
+	 * @return The cache read from the given file or an empty cache if the file does not exist or is not a valid cache file
+	 */
+	public static ClassScanCache read(Path file) {
+		ClassScanCache cache = new ClassScanCache();
+		if(Files.exists(file)) try(DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if(input.readInt() == MAGIC && input.readInt() == VERSION) {
+				int jarsCount = input.readInt();
+				for(int i = 0; i < jarsCount; i++) {
+					Path path = Path.of(input.readUTF());
+					long size = input.readLong();
+					long lastModified = input.readLong();
+					long checksum = input.readLong();
+					int classesCount = input.readInt();
+					ArrayList<ClassFileInfo> classes = new ArrayList<>(classesCount);
+					for(int j = 0; j < classesCount; j++) {
+						classes.add(readClassInfo(input));
+					}
+					cache.jarFiles.put(path, new JarFileEntry(size, lastModified, checksum, List.copyOf(classes)));
+				}
+				int classFilesCount = input.readInt();
+				for(int i = 0; i < classFilesCount; i++) {
+					Path path = Path.of(input.readUTF());
+					long size = input.readLong();
+					long lastModified = input.readLong();
+					long checksum = input.readLong();
+					cache.classFiles.put(path, new ClassFileEntry(size, lastModified, checksum, readClassInfo(input)));
+				}
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+			return new ClassScanCache();
+		}
+		return cache;
+	}
+
+	/**
+	 * Writes this cache to the given file.
+	 * The cache is written to a temporary file that is then moved over the cache file, so that an editor closed while the cache is being written does not leave it half written.
+	 *
+	 * @param file Path to the cache file
+	 */
+	public void write(Path file) {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try(DataOutputStream output = new DataOutputStream(bytes)) {
+				output.writeInt(MAGIC);
+				output.writeInt(VERSION);
+				output.writeInt(this.jarFiles.size());
+				for(Map.Entry<Path, JarFileEntry> jar : this.jarFiles.entrySet()) {
+					output.writeUTF(jar.getKey().toString());
+					output.writeLong(jar.getValue().size());
+					output.writeLong(jar.getValue().lastModified());
+					output.writeLong(jar.getValue().checksum());
+					output.writeInt(jar.getValue().classes().size());
+					for(ClassFileInfo classInfo : jar.getValue().classes()) {
+						writeClassInfo(output, classInfo);
+					}
+				}
+				output.writeInt(this.classFiles.size());
+				for(Map.Entry<Path, ClassFileEntry> classFile : this.classFiles.entrySet()) {
+					output.writeUTF(classFile.getKey().toString());
+					output.writeLong(classFile.getValue().size());
+					output.writeLong(classFile.getValue().lastModified());
+					output.writeLong(classFile.getValue().checksum());
+					writeClassInfo(output, classFile.getValue().classInfo());
+				}
+			}
+			Files.createDirectories(file.getParent());
+			Path temporaryFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+			try {
+				Files.write(temporaryFile, bytes.toByteArray());
+				Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				Files.deleteIfExists(temporaryFile);
+				throw e;
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Reads a class header from the cache file.
+	 *
+	 * @param input The input stream
+	 * @return The class header
+	 * @throws IOException If an I/O error occurs
+	 */
+	private static ClassFileInfo readClassInfo(DataInputStream input) throws IOException {
+		int accessFlags = input.readUnsignedShort();
+		String name = input.readUTF();
+		String superName = input.readUTF();
+		int interfacesCount = input.readUnsignedShort();
+		ArrayList<String> interfaces = new ArrayList<>(interfacesCount);
+		for(int i = 0; i < interfacesCount; i++) {
+			interfaces.add(input.readUTF());
+		}
+		return new ClassFileInfo(accessFlags, name, superName.isEmpty() ? null : superName, List.copyOf(interfaces), Set.of(), null);
+	}
+
+	/**
+	 * Writes a class header to the cache file.
+	 *
+	 * @param output The output stream
+	 * @param classInfo The class header
+	 * @throws IOException If an I/O error occurs
+	 */
+	private static void writeClassInfo(DataOutputStream output, ClassFileInfo classInfo) throws IOException {
+		output.writeShort(classInfo.accessFlags());
+		output.writeUTF(classInfo.name());
+		output.writeUTF(classInfo.superName() != null ? classInfo.superName() : "");
+		output.writeShort(classInfo.interfaces().size());
+		for(String interfaceName : classInfo.interfaces()) {
+			output.writeUTF(interfaceName);
+		}
+	}
+
+	/**
+	 * Checks if a cached file has not changed.
+	 *
+	 * @param path Path to the file
+	 * @param attributes The file's current attributes
+	 * @param size Cached size of the file
+	 * @param lastModified Cached modification time of the file
+	 * @param checksum Cached checksum of the file
+	 * @return True if the file has the same size and either the same modification time or the same checksum, otherwise false
+	 * @throws IOException If an I/O error occurs while computing the file's checksum
+	 */
+	private static boolean isUnchanged(Path path, BasicFileAttributes attributes, long size, long lastModified, long checksum) throws IOException {
+		return size == attributes.size() && (lastModified == attributes.lastModifiedTime().toMillis() || checksum == checksum(path));
+	}
+
+	/**
+	 * Computes the checksum of the given file.
+	 *
+	 * @param path Path to the file
+	 * @return The file's CRC32C checksum
+	 * @throws IOException If an I/O error occurs
+	 */
+	private static long checksum(Path path) throws IOException {
+		CRC32C crc = new CRC32C();
+		byte[] buffer = new byte[65536];
+		try(InputStream inputStream = Files.newInputStream(path)) {
+			for(int read = inputStream.read(buffer); read != -1; read = inputStream.read(buffer)) {
+				crc.update(buffer, 0, read);
+			}
+		}
+		return crc.getValue();
+	}
+
+	/**
+	 * Cached jar file.
+	 *
+	 * @param size Size of the jar file in bytes
+	 * @param lastModified Modification time of the jar file in milliseconds
+	 * @param checksum Checksum of the jar file
+	 * @param classes Headers of the classes in the jar file
+	 */
+	private record JarFileEntry(long size, long lastModified, long checksum, List<ClassFileInfo> classes) {
+
+	}
+
+	/**
+	 * Cached class file.
+	 *
+	 * @param size Size of the class file in bytes
+	 * @param lastModified Modification time of the class file in milliseconds
+	 * @param checksum Checksum of the class file
+	 * @param classInfo Header of the class file
+	 */
+	private record ClassFileEntry(long size, long lastModified, long checksum, ClassFileInfo classInfo) {
+
+	}
+}
@@ -1,5 +1,7 @@
 package io.github.lwjre.editor.utils;
 
+import io.github.lwjre.editor.ProjectPath;
+
 import java.io.IOException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
@@ -30,6 +32,22 @@ public class EditorFileUtils {
 		}
 	}
 
+	/**
+	 * Creates the {@code .editor} folder of the current project.
+	 * The folder contains a {@code .gitignore} file that ignores everything in it, so that the editor's caches are never committed to the project's repository.
+	 */
+	public static void createEditorFolder() {
+		try {
+			Path gitignore = ProjectPath.editorFolder(".gitignore");
+			Files.createDirectories(gitignore.getParent());
+			if(!Files.exists(gitignore)) {
+				Files.writeString(gitignore, "# Created by the editor, contains caches that can be deleted\n*\n");
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
 	/**
 	 * Renames the file at the given path to the given name.
 	 *
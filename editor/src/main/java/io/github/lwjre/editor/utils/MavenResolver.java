@@ -0,0 +1,796 @@
+package io.github.lwjre.editor.utils;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.SAXException;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Static utility class used to resolve the class path of a maven project offline, using only the {@code pom.xml} files and the jars in the local maven repository.
+ * Supports properties, parent POMs, {@code dependencyManagement} with imported BOMs, exclusions and transitive dependencies.
+ * Dependencies are mediated like maven does, the nearest declaration of an artifact wins.
+ * Resolved class paths are cached until one of the files they were resolved from changes.
+ *
+ * @author Nico
+ */
+public final class MavenResolver {
+
+	/** Scopes of the dependencies needed at runtime */
+	private static final Set<String> RUNTIME_SCOPES = Set.of("compile", "runtime");
+	/** Scopes of the dependencies needed to compile the project */
+	private static final Set<String> COMPILE_SCOPES = Set.of("compile", "provided", "system");
+	/** Matches property references like {@code ${project.version}} */
+	private static final Pattern PROPERTY = Pattern.compile("\\$\\{([^}]+)}");
+
+	/** Class paths that were already resolved */
+	private static final HashMap<String, ResolvedClassPath> cache = new HashMap<>();
+
+	/**
+	 * Resolves the runtime class path of the given project.
+	 * Includes {@code compile} and {@code runtime} dependencies and their transitive dependencies.
+	 *
+	 * @param pomFile Path to the project's {@code pom.xml} file
+	 * @return A list containing the paths to the jar files of the dependencies that exist in the local repository
+	 */
+	public static List<Path> runtimeClassPath(Path pomFile) {
+		return classPath(pomFile, RUNTIME_SCOPES);
+	}
+
+	/**
+	 * Resolves the compile class path of the given project.
+	 * Includes {@code compile}, {@code provided} and {@code system} dependencies and their transitive dependencies.
+	 *
+	 * @param pomFile Path to the project's {@code pom.xml} file
+	 * @return A list containing the paths to the jar files of the dependencies that exist in the local repository
+	 */
+	public static List<Path> compileClassPath(Path pomFile) {
+		return classPath(pomFile, COMPILE_SCOPES);
+	}
+
+	/**
+	 * Returns the Java release the given project is compiled for.
+	 * The release is read from the configuration of the {@code maven-compiler-plugin} or from the {@code maven.compiler.*} properties.
+	 * Like the plugin does, the target version is used if the release is not specified, then the source version.
+	 *
+	 * @param pomFile Path to the project's {@code pom.xml} file
+	 * @return The release, for example {@code 17}, or null if the project does not specify one
+	 */
+	public static String compilerRelease(Path pomFile) {
+		Model model = new Resolver().effectiveModel(pomFile);
+		if(model != null) {
+			for(String name : List.of("release", "target", "source")) {
+				String value = Resolver.interpolate(orDefault(model.compilerConfiguration.get(name), model.properties.get("maven.compiler." + name)), model);
+				if(value != null && !value.isEmpty() && !value.contains("${")) {
+					return value.startsWith("1.") ? value.substring(2) : value;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Resolves the class path of the given project or returns it from the cache if none of the files it was resolved from has changed.
+	 *
+	 * @param pomFile Path to the project's {@code pom.xml} file
+	 * @param scopes Scopes to include
+	 * @return A list containing the paths to the jar files of the dependencies that exist in the local repository
+	 */
+	private static synchronized List<Path> classPath(Path pomFile, Set<String> scopes) {
+		String key = pomFile.toAbsolutePath().normalize() + ":" + scopes;
+		ResolvedClassPath resolved = cache.get(key);
+		if(resolved == null || !resolved.isValid()) {
+			Resolver resolver = new Resolver();
+			List<Path> classPath = resolver.resolve(pomFile, scopes);
+			resolved = new ResolvedClassPath(classPath, resolver.checkedFiles);
+			cache.put(key, resolved);
+		}
+		return resolved.classPath();
+	}
+
+	/**
+	 * Returns the path to the local maven repository.
+	 *
+	 * @return The value of the {@code maven.repo.local} system property or {@code ~/.m2/repository}
+	 */
+	private static Path localRepository() {
+		String localRepository = System.getProperty("maven.repo.local");
+		return localRepository != null ? Path.of(localRepository) : Path.of(System.getProperty("user.home"), ".m2", "repository");
+	}
+
+	/**
+	 * Returns the path to an artifact in the local repository.
+	 *
+	 * @param groupId The artifact's group id
+	 * @param artifactId The artifact's id
+	 * @param version The artifact's version
+	 * @param classifier The artifact's classifier or an empty string
+	 * @param extension The artifact's file extension
+	 * @return The path to the artifact in the local repository
+	 */
+	private static Path artifactPath(String groupId, String artifactId, String version, String classifier, String extension) {
+		String fileName = artifactId + "-" + version + (classifier.isEmpty() ? "" : "-" + classifier) + "." + extension;
+		return localRepository().resolve(groupId.replace('.', '/')).resolve(artifactId).resolve(version).resolve(fileName);
+	}
+
+	/**
+	 * Returns the text of the direct child of the given element with the given name.
+	 *
+	 * @param element The parent element, may be null
+	 * @param name Name of the child
+	 * @return The trimmed text of the child or null if there is no such child
+	 */
+	private static String childText(Element element, String name) {
+		Element child = child(element, name);
+		return child != null ? child.getTextContent().trim() : null;
+	}
+
+	/**
+	 * Returns the direct child of the given element with the given name.
+	 *
+	 * @param element The parent element, may be null
+	 * @param name Name of the child
+	 * @return The child or null if there is no such child
+	 */
+	private static Element child(Element element, String name) {
+		if(element != null) {
+			NodeList children = element.getChildNodes();
+			for(int i = 0; i < children.getLength(); i++) {
+				if(children.item(i) instanceof Element child && child.getTagName().equals(name)) {
+					return child;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the direct children of the given element.
+	 *
+	 * @param element The parent element, may be null
+	 * @return A list containing the children elements
+	 */
+	private static List<Element> children(Element element) {
+		ArrayList<Element> result = new ArrayList<>();
+		if(element != null) {
+			NodeList children = element.getChildNodes();
+			for(int i = 0; i < children.getLength(); i++) {
+				Node child = children.item(i);
+				if(child instanceof Element childElement) {
+					result.add(childElement);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the given value or the given default value if the value is null or empty.
+	 *
+	 * @param value The value
+	 * @param defaultValue The default value
+	 * @return The given value or the given default value
+	 */
+	private static String orDefault(String value, String defaultValue) {
+		return value == null || value.isEmpty() ? defaultValue : value;
+	}
+
+	/**
+	 * Resolves the scope of a transitive dependency.
+	 *
+	 * @param scope Scope of the dependency that declares the transitive dependency
+	 * @param transitiveScope Scope of the transitive dependency in its declaring POM
+	 * @return The scope of the transitive dependency in the project
+	 */
+	private static String mediateScope(String scope, String transitiveScope) {
+		if(transitiveScope.equals("runtime") && scope.equals("compile")) {
+			return "runtime";
+		}
+		return scope;
+	}
+
+	/**
+	 * A dependency declared in a POM.
+	 *
+	 * @param groupId The dependency's group id
+	 * @param artifactId The dependency's id
+	 * @param version The dependency's version, may be null if it is managed
+	 * @param scope The dependency's scope, may be null if it is managed
+	 * @param type The dependency's type
+	 * @param classifier The dependency's classifier or an empty string
+	 * @param optional True if the dependency is optional
+	 * @param exclusions Dependencies excluded from this dependency's transitive dependencies in the form {@code groupId:artifactId}
+	 * @param systemPath Path to the jar file of a {@code system} dependency
+	 */
+	private record Dependency(String groupId, String artifactId, String version, String scope, String type, String classifier, boolean optional, Set<String> exclusions, String systemPath) {
+
+		/**
+		 * Returns the key used to identify this dependency when dependencies are mediated or managed.
+		 *
+		 * @return A string in the form {@code groupId:artifactId:type:classifier}
+		 */
+		private String key() {
+			return this.groupId + ":" + this.artifactId + ":" + this.type + ":" + this.classifier;
+		}
+
+		/**
+		 * Checks if this dependency is excluded by the given exclusions.
+		 *
+		 * @param exclusions Exclusions in the form {@code groupId:artifactId}, wildcards are supported
+		 * @return True if the dependency is excluded, otherwise false
+		 */
+		private boolean isExcluded(Set<String> exclusions) {
+			return exclusions.contains(this.groupId + ":" + this.artifactId) || exclusions.contains(this.groupId + ":*") || exclusions.contains("*:*");
+		}
+	}
+
+	/**
+	 * The content of a POM merged with its parents.
+	 */
+	private static class Model {
+
+		/** The project's group id */
+		private String groupId;
+		/** The project's artifact id */
+		private String artifactId;
+		/** The project's version */
+		private String version;
+		/** The parent's group id or null if the project has no parent */
+		private String parentGroupId;
+		/** The parent's version or null if the project has no parent */
+		private String parentVersion;
+		/** The project's properties */
+		private final HashMap<String, String> properties = new HashMap<>();
+		/** Managed dependencies mapped by {@link Dependency#key()} */
+		private final LinkedHashMap<String, Dependency> dependencyManagement = new LinkedHashMap<>();
+		/** Declared dependencies mapped by {@link Dependency#key()} */
+		private final LinkedHashMap<String, Dependency> dependencies = new LinkedHashMap<>();
+		/** Configuration of the {@code maven-compiler-plugin}, not interpolated */
+		private final HashMap<String, String> compilerConfiguration = new HashMap<>();
+
+		/**
+		 * Creates a copy of this model.
+		 *
+		 * @return A copy of this model that can be modified without affecting this one
+		 */
+		private Model copy() {
+			Model model = new Model();
+			model.groupId = this.groupId;
+			model.artifactId = this.artifactId;
+			model.version = this.version;
+			model.parentGroupId = this.parentGroupId;
+			model.parentVersion = this.parentVersion;
+			model.properties.putAll(this.properties);
+			model.dependencyManagement.putAll(this.dependencyManagement);
+			model.dependencies.putAll(this.dependencies);
+			model.compilerConfiguration.putAll(this.compilerConfiguration);
+			return model;
+		}
+	}
+
+	/**
+	 * A dependency waiting to be resolved.
+	 *
+	 * @param dependency The dependency
+	 * @param scope The dependency's scope in the project
+	 * @param exclusions Exclusions inherited from the dependencies that led to this one
+	 * @param transitive True if this is a transitive dependency
+	 */
+	private record PendingDependency(Dependency dependency, String scope, Set<String> exclusions, boolean transitive) {
+
+	}
+
+	/**
+	 * A class path that was resolved and the files it was resolved from.
+	 *
+	 * @param classPath The class path
+	 * @param checkedFiles Modification time of the files that were read or checked, {@code -1} for files that did not exist
+	 */
+	private record ResolvedClassPath(List<Path> classPath, Map<Path, Long> checkedFiles) {
+
+		/**
+		 * Checks if this class path is still valid.
+		 *
+		 * @return True if none of the files it was resolved from has changed, otherwise false
+		 */
+		private boolean isValid() {
+			for(Map.Entry<Path, Long> entry : this.checkedFiles.entrySet()) {
+				if(lastModified(entry.getKey()) != entry.getValue()) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Returns the modification time of the given file.
+	 *
+	 * @param path Path to the file
+	 * @return The modification time of the file in milliseconds or {@code -1} if the file does not exist
+	 */
+	private static long lastModified(Path path) {
+		try {
+			return Files.exists(path) ? Files.getLastModifiedTime(path).toMillis() : -1;
+		} catch (IOException e) {
+			return -1;
+		}
+	}
+
+	/**
+	 * Resolves a single class path.
+	 * Keeps track of the files that were read, so that the result can be cached.
+	 */
+	private static class Resolver {
+
+		/** Effective models of the POMs that were already loaded */
+		private final HashMap<Path, Model> models = new HashMap<>();
+		/** Models of the POMs that were already loaded, merged with their parents but not interpolated */
+		private final HashMap<Path, Model> rawModels = new HashMap<>();
+		/** Modification time of the files that were read or checked */
+		private final HashMap<Path, Long> checkedFiles = new HashMap<>();
+
+		/**
+		 * Resolves the class path of the given project.
+		 *
+		 * @param pomFile Path to the project's {@code pom.xml} file
+		 * @param scopes Scopes to include
+		 * @return A list containing the paths to the jar files of the dependencies that exist in the local repository
+		 */
+		private List<Path> resolve(Path pomFile, Set<String> scopes) {
+			LinkedHashSet<Path> result = new LinkedHashSet<>();
+			Model project = this.effectiveModel(pomFile);
+			if(project != null) {
+				HashSet<String> resolved = new HashSet<>();
+				ArrayDeque<PendingDependency> queue = new ArrayDeque<>();
+				for(Dependency dependency : project.dependencies.values()) {
+					String scope = orDefault(dependency.scope(), "compile");
+					if(!scope.equals("test") && !scope.equals("import")) {
+						queue.add(new PendingDependency(dependency, scope, dependency.exclusions(), false));
+					}
+				}
+				while(!queue.isEmpty()) {
+					PendingDependency pending = queue.poll();
+					Dependency dependency = pending.dependency();
+					String scope = pending.scope();
+					if(pending.transitive()) {
+						Dependency managed = project.dependencyManagement.get(dependency.key());
+						if(managed != null && managed.version() != null) {
+							dependency = new Dependency(dependency.groupId(), dependency.artifactId(), managed.version(), dependency.scope(), dependency.type(), dependency.classifier(), dependency.optional(), dependency.exclusions(), dependency.systemPath());
+						}
+						if(managed != null && managed.scope() != null && !managed.scope().equals("import")) {
+							scope = managed.scope();
+						}
+					}
+					if(dependency.version() == null || scope.equals("test") || !resolved.add(dependency.groupId() + ":" + dependency.artifactId() + ":" + dependency.classifier())) {
+						continue;
+					}
+					String version = this.resolveVersion(dependency);
+					if(scope.equals("system")) {
+						if(scopes.contains("system") && dependency.systemPath() != null) {
+							this.addIfExists(Path.of(dependency.systemPath()), result);
+						}
+						continue;
+					}
+					if(scopes.contains(scope) && dependency.type().equals("jar")) {
+						this.addIfExists(artifactPath(dependency.groupId(), dependency.artifactId(), version, dependency.classifier(), "jar"), result);
+					}
+					Model model = this.effectiveModel(artifactPath(dependency.groupId(), dependency.artifactId(), version, "", "pom"));
+					if(model != null) {
+						for(Dependency transitive : model.dependencies.values()) {
+							String transitiveScope = orDefault(transitive.scope(), "compile");
+							if((transitiveScope.equals("compile") || transitiveScope.equals("runtime")) && !transitive.optional() && !transitive.isExcluded(pending.exclusions())) {
+								HashSet<String> exclusions = new HashSet<>(pending.exclusions());
+								exclusions.addAll(transitive.exclusions());
+								queue.add(new PendingDependency(transitive, mediateScope(scope, transitiveScope), exclusions, true));
+							}
+						}
+					}
+				}
+			}
+			return List.copyOf(result);
+		}
+
+		/**
+		 * Adds the given jar file to the class path if it exists.
+		 *
+		 * @param jar Path to the jar file
+		 * @param result The class path
+		 */
+		private void addIfExists(Path jar, Set<Path> result) {
+			long lastModified = lastModified(jar);
+			this.checkedFiles.put(jar, lastModified);
+			if(lastModified != -1) {
+				result.add(jar);
+			}
+		}
+
+		/**
+		 * Resolves the version of the given dependency.
+		 * A version declared as a range resolves to the highest version in the local repository that is inside the range.
+		 * If there is none, the range's inclusive lower bound is used, then its inclusive upper bound, a range with no inclusive bound is left unresolved and its artifact is missing.
+		 *
+		 * @param dependency The dependency
+		 * @return The version to use
+		 */
+		private String resolveVersion(Dependency dependency) {
+			String version = dependency.version();
+			if(!version.startsWith("[") && !version.startsWith("(")) {
+				return version;
+			}
+			boolean lowerInclusive = version.startsWith("[");
+			boolean upperInclusive = version.endsWith("]");
+			String[] bounds = version.substring(1, version.length() - 1).split(",", -1);
+			String lower = bounds[0].trim();
+			String upper = bounds.length > 1 ? bounds[1].trim() : lower;
+			Path artifactFolder = localRepository().resolve(dependency.groupId().replace('.', '/')).resolve(dependency.artifactId());
+			this.checkedFiles.put(artifactFolder, lastModified(artifactFolder));
+			String highest = null;
+			if(Files.isDirectory(artifactFolder)) try(DirectoryStream<Path> folders = Files.newDirectoryStream(artifactFolder, Files::isDirectory)) {
+				for(Path folder : folders) {
+					String candidate = folder.getFileName().toString();
+					int compareLower = lower.isEmpty() ? 1 : compareVersions(candidate, lower);
+					int compareUpper = upper.isEmpty() ? -1 : compareVersions(candidate, upper);
+					if((compareLower > 0 || (lowerInclusive && compareLower == 0)) && (compareUpper < 0 || (upperInclusive && compareUpper == 0)) && (highest == null || compareVersions(candidate, highest) > 0)) {
+						highest = candidate;
+					}
+				}
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			if(highest != null) {
+				return highest;
+			} else if(lowerInclusive && !lower.isEmpty()) {
+				return lower;
+			} else if(upperInclusive && !upper.isEmpty()) {
+				return upper;
+			}
+			return version;
+		}
+
+		/**
+		 * Compares two versions by their numeric and text parts.
+		 * Numeric parts are compared as numbers and missing parts count as zero, a qualifier like {@code SNAPSHOT} makes a version less than the same version without it.
+		 *
+		 * @param first The first version
+		 * @param second The second version
+		 * @return A negative number, zero or a positive number if the first version is less than, equal to or greater than the second
+		 */
+		private static int compareVersions(String first, String second) {
+			String[] firstParts = first.split("[.-]");
+			String[] secondParts = second.split("[.-]");
+			for(int i = 0; i < Math.max(firstParts.length, secondParts.length); i++) {
+				String firstPart = i < firstParts.length ? firstParts[i] : null;
+				String secondPart = i < secondParts.length ? secondParts[i] : null;
+				if(firstPart == null || secondPart == null) {
+					String extra = firstPart != null ? firstPart : secondPart;
+					int sign = firstPart != null ? 1 : -1;
+					if(!extra.chars().allMatch(Character::isDigit)) {
+						return -sign;
+					} else if(new BigInteger(extra).signum() != 0) {
+						return sign;
+					}
+					continue;
+				}
+				boolean firstNumber = firstPart.chars().allMatch(Character::isDigit);
+				boolean secondNumber = secondPart.chars().allMatch(Character::isDigit);
+				int result;
+				if(firstNumber && secondNumber) {
+					result = new BigInteger(firstPart).compareTo(new BigInteger(secondPart));
+				} else if(firstNumber != secondNumber) {
+					result = firstNumber ? 1 : -1;
+				} else {
+					result = firstPart.compareToIgnoreCase(secondPart);
+				}
+				if(result != 0) {
+					return result;
+				}
+			}
+			return 0;
+		}
+
+		/**
+		 * Builds the effective model of the given POM.
+		 * Properties are interpolated, dependencies managed by imported BOMs are added to the dependency management and managed versions and scopes are applied to the declared dependencies.
+		 *
+		 * @param pomFile Path to the POM
+		 * @return The effective model or null if the POM does not exist or cannot be read
+		 */
+		private Model effectiveModel(Path pomFile) {
+			if(this.models.containsKey(pomFile)) {
+				return this.models.get(pomFile);
+			}
+			this.models.put(pomFile, null);
+			Model raw = this.loadModel(pomFile);
+			Model model = raw != null ? raw.copy() : null;
+			if(model != null) {
+				interpolate(model);
+				for(Dependency managed : List.copyOf(model.dependencyManagement.values())) {
+					if("import".equals(managed.scope()) && managed.type().equals("pom")) {
+						model.dependencyManagement.remove(managed.key());
+						Model bom = managed.version() != null ? this.effectiveModel(artifactPath(managed.groupId(), managed.artifactId(), managed.version(), "", "pom")) : null;
+						if(bom != null) {
+							bom.dependencyManagement.forEach(model.dependencyManagement::putIfAbsent);
+						}
+					}
+				}
+				model.dependencies.replaceAll((key, dependency) -> {
+					Dependency managed = model.dependencyManagement.get(key);
+					if(managed != null && (dependency.version() == null || dependency.scope() == null)) {
+						return new Dependency(dependency.groupId(), dependency.artifactId(), dependency.version() != null ? dependency.version() : managed.version(), dependency.scope() != null ? dependency.scope() : managed.scope(), dependency.type(), dependency.classifier(), dependency.optional(), dependency.exclusions(), dependency.systemPath());
+					}
+					return dependency;
+				});
+			}
+			this.models.put(pomFile, model);
+			return model;
+		}
+
+		/**
+		 * Reads the given POM and merges it with its parents.
+		 * Properties are not interpolated, so that inherited values are resolved using the child's properties.
+		 * The returned model must not be modified, since it is shared with the POM's children.
+		 *
+		 * @param pomFile Path to the POM
+		 * @return The model or null if the POM does not exist or cannot be read
+		 */
+		private Model loadModel(Path pomFile) {
+			if(this.rawModels.containsKey(pomFile)) {
+				return this.rawModels.get(pomFile);
+			}
+			this.rawModels.put(pomFile, null);
+			Model model = this.parseModel(pomFile);
+			this.rawModels.put(pomFile, model);
+			return model;
+		}
+
+		/**
+		 * Parses the given POM and merges it with its parents.
+		 *
+		 * @param pomFile Path to the POM
+		 * @return The model or null if the POM does not exist or cannot be read
+		 */
+		private Model parseModel(Path pomFile) {
+			long lastModified = lastModified(pomFile);
+			this.checkedFiles.put(pomFile, lastModified);
+			if(lastModified == -1) {
+				return null;
+			}
+			try {
+				Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(pomFile.toFile());
+				Element project = document.getDocumentElement();
+				Model model = new Model();
+				Element parent = child(project, "parent");
+				if(parent != null) {
+					model.parentGroupId = childText(parent, "groupId");
+					model.parentVersion = childText(parent, "version");
+					Model parentModel = this.loadModel(this.parentPath(pomFile, parent));
+					if(parentModel != null) {
+						model.properties.putAll(parentModel.properties);
+						model.dependencyManagement.putAll(parentModel.dependencyManagement);
+						model.dependencies.putAll(parentModel.dependencies);
+						model.compilerConfiguration.putAll(parentModel.compilerConfiguration);
+					}
+				}
+				model.groupId = orDefault(childText(project, "groupId"), model.parentGroupId);
+				model.artifactId = childText(project, "artifactId");
+				model.version = orDefault(childText(project, "version"), model.parentVersion);
+				for(Element property : children(child(project, "properties"))) {
+					model.properties.put(property.getTagName(), property.getTextContent().trim());
+				}
+				for(Element element : children(child(child(project, "dependencyManagement"), "dependencies"))) {
+					Dependency dependency = parseDependency(element);
+					model.dependencyManagement.put(dependency.key(), dependency);
+				}
+				for(Element element : children(child(project, "dependencies"))) {
+					Dependency dependency = parseDependency(element);
+					model.dependencies.put(dependency.key(), dependency);
+				}
+				Element build = child(project, "build");
+				parseCompilerConfiguration(child(child(build, "pluginManagement"), "plugins"), model);
+				parseCompilerConfiguration(child(build, "plugins"), model);
+				return model;
+			} catch (ParserConfigurationException | SAXException | IOException e) {
+				e.printStackTrace();
+				return null;
+			}
+		}
+
+		/**
+		 * Reads the configuration of the {@code maven-compiler-plugin} from the given {@code plugins} element.
+		 *
+		 * @param plugins The {@code plugins} element, may be null
+		 * @param model The model the configuration is added to
+		 */
+		private static void parseCompilerConfiguration(Element plugins, Model model) {
+			for(Element plugin : children(plugins)) {
+				if("maven-compiler-plugin".equals(childText(plugin, "artifactId"))) {
+					for(Element element : children(child(plugin, "configuration"))) {
+						model.compilerConfiguration.put(element.getTagName(), element.getTextContent().trim());
+					}
+				}
+			}
+		}
+
+		/**
+		 * Finds the parent of the given POM.
+		 * The parent is looked for at its relative path first, then in the local repository.
+		 *
+		 * @param pomFile Path to the child POM
+		 * @param parent The child's {@code parent} element
+		 * @return The path to the parent POM
+		 */
+		private Path parentPath(Path pomFile, Element parent) {
+			String groupId = childText(parent, "groupId");
+			String artifactId = childText(parent, "artifactId");
+			String version = childText(parent, "version");
+			String relativePath = childText(parent, "relativePath");
+			if(relativePath == null) {
+				relativePath = "../pom.xml";
+			}
+			if(!relativePath.isEmpty()) {
+				Path path = pomFile.toAbsolutePath().getParent().resolve(relativePath).normalize();
+				if(Files.isDirectory(path)) {
+					path = path.resolve("pom.xml");
+				}
+				if(Files.exists(path) && matches(path, groupId, artifactId)) {
+					return path;
+				}
+			}
+			return artifactPath(String.valueOf(groupId), String.valueOf(artifactId), String.valueOf(version), "", "pom");
+		}
+
+		/**
+		 * Checks if the POM at the given path declares the given group id and artifact id.
+		 *
+		 * @param path Path to the POM
+		 * @param groupId The expected group id
+		 * @param artifactId The expected artifact id
+		 * @return True if the POM declares the given group id and artifact id, otherwise false
+		 */
+		private static boolean matches(Path path, String groupId, String artifactId) {
+			try {
+				Element project = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(path.toFile()).getDocumentElement();
+				String projectGroupId = orDefault(childText(project, "groupId"), childText(child(project, "parent"), "groupId"));
+				return Objects.equals(projectGroupId, groupId) && Objects.equals(childText(project, "artifactId"), artifactId);
+			} catch (ParserConfigurationException | SAXException | IOException e) {
+				return false;
+			}
+		}
+
+		/**
+		 * Parses a {@code dependency} element.
+		 *
+		 * @param element The element
+		 * @return The dependency
+		 */
+		private static Dependency parseDependency(Element element) {
+			HashSet<String> exclusions = new HashSet<>();
+			for(Element exclusion : children(child(element, "exclusions"))) {
+				exclusions.add(childText(exclusion, "groupId") + ":" + childText(exclusion, "artifactId"));
+			}
+			return new Dependency(
+				childText(element, "groupId"),
+				childText(element, "artifactId"),
+				childText(element, "version"),
+				childText(element, "scope"),
+				orDefault(childText(element, "type"), "jar"),
+				orDefault(childText(element, "classifier"), ""),
+				"true".equals(childText(element, "optional")),
+				Set.copyOf(exclusions),
+				childText(element, "systemPath")
+			);
+		}
+
+		/**
+		 * Replaces property references in the given model.
+		 *
+		 * @param model The model
+		 */
+		private static void interpolate(Model model) {
+			model.groupId = interpolate(model.groupId, model);
+			model.version = interpolate(model.version, model);
+			interpolate(model.dependencyManagement, model);
+			interpolate(model.dependencies, model);
+		}
+
+		/**
+		 * Replaces property references in the given dependencies.
+		 * Dependencies are mapped again, since their keys may contain property references.
+		 *
+		 * @param dependencies The dependencies mapped by {@link Dependency#key()}
+		 * @param model The model the dependencies belong to
+		 */
+		private static void interpolate(LinkedHashMap<String, Dependency> dependencies, Model model) {
+			List<Dependency> values = List.copyOf(dependencies.values());
+			dependencies.clear();
+			for(Dependency dependency : values) {
+				Dependency interpolated = interpolate(dependency, model);
+				dependencies.put(interpolated.key(), interpolated);
+			}
+		}
+
+		/**
+		 * Replaces property references in the given dependency.
+		 *
+		 * @param dependency The dependency
+		 * @param model The model the dependency belongs to
+		 * @return A dependency with no property references
+		 */
+		private static Dependency interpolate(Dependency dependency, Model model) {
+			return new Dependency(
+				interpolate(dependency.groupId(), model),
+				interpolate(dependency.artifactId(), model),
+				interpolate(dependency.version(), model),
+				interpolate(dependency.scope(), model),
+				interpolate(dependency.type(), model),
+				interpolate(dependency.classifier(), model),
+				dependency.optional(),
+				dependency.exclusions(),
+				interpolate(dependency.systemPath(), model)
+			);
+		}
+
+		/**
+		 * Replaces property references in the given string.
+		 * Nested references are resolved, references to unknown properties are left as they are.
+		 *
+		 * @param value The string, may be null
+		 * @param model The model the string belongs to
+		 * @return The interpolated string
+		 */
+		private static String interpolate(String value, Model model) {
+			for(int i = 0; value != null && value.contains("${") && i < 10; i++) {
+				Matcher matcher = PROPERTY.matcher(value);
+				StringBuilder result = new StringBuilder();
+				while(matcher.find()) {
+					String property = propertyValue(matcher.group(1), model);
+					matcher.appendReplacement(result, Matcher.quoteReplacement(property != null ? property : matcher.group()));
+				}
+				matcher.appendTail(result);
+				if(result.toString().equals(value)) {
+					break;
+				}
+				value = result.toString();
+			}
+			return value;
+		}
+
+		/**
+		 * Returns the value of the property with the given name.
+		 *
+		 * @param name Name of the property
+		 * @param model The model the property is referenced from
+		 * @return The value of the property or null if the property is not defined
+		 */
+		private static String propertyValue(String name, Model model) {
+			return switch(name) {
+				case "project.groupId", "pom.groupId", "groupId" -> model.groupId;
+				case "project.artifactId", "pom.artifactId", "artifactId" -> model.artifactId;
+				case "project.version", "pom.version", "version" -> model.version;
+				case "project.parent.groupId" -> model.parentGroupId;
+				case "project.parent.version" -> model.parentVersion;
+				case "user.home" -> System.getProperty("user.home");
+				default -> {
+					if(model.properties.containsKey(name)) {
+						yield model.properties.get(name);
+					} else if(name.startsWith("env.")) {
+						yield System.getenv(name.substring(4));
+					}
+					yield System.getProperty(name);
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,349 @@
+package io.github.lwjre.editor.utils;
+
+import io.github.hexagonnico.vecmatlib.color.Color3f;
+import io.github.hexagonnico.vecmatlib.color.Color4f;
+import io.github.hexagonnico.vecmatlib.vector.*;
+import io.github.lwjre.editor.ProjectPath;
+import io.github.lwjre.engine.resources.Model;
+import io.github.lwjre.engine.resources.NodeResource;
+import io.github.lwjre.engine.resources.Resources;
+import io.github.lwjre.engine.resources.Shader;
+import io.github.lwjre.engine.utils.YamlParser;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.CRC32C;
+
+/**
+ * Static utility class used to keep a binary snapshot of every scene parsed by the editor.
+ * Snapshots are stored in the {@code .editor/scene-cache} folder of the project, outside of {@code target}, since the project is cleaned every time it is opened.
+ * The {@code .editor} folder ignores itself with its own {@code .gitignore} file, see {@link EditorFileUtils#createEditorFolder()}.
+ * A snapshot is valid if the scene file has the same size and modification time or the same checksum as when the snapshot was written, otherwise the scene is parsed again from its yaml file.
+ * <p>
+ *     Only scenes whose properties are primitives, strings, vectors, colors or resources can be cached.
+ *     Scenes containing other values are always parsed from yaml.
+ * </p>
+ *
+ * @author Nico
+ */
+public final class SceneCache {
+
+	/** Magic number at the beginning of a snapshot file */
+	private static final int MAGIC = 0x4C4A5343;
+	/** Version of the snapshot file format, snapshots with a different version are ignored */
+	private static final int VERSION = 1;
+
+	/** Functions used to load resources stored in a snapshot by their class */
+	private static final HashMap<Class<?>, Function<String, Object>> RESOURCES = new HashMap<>();
+
+	static {
+		RESOURCES.put(Model.class, Model::getOrLoad);
+		RESOURCES.put(Shader.class, Shader::getOrLoad);
+	}
+
+	/** Type tags of the values in a snapshot */
+	private static final int NULL = 0, BOOLEAN = 1, INT = 2, LONG = 3, FLOAT = 4, DOUBLE = 5, STRING = 6, VEC2F = 7, VEC3F = 8, VEC4F = 9, VEC2I = 10, VEC3I = 11, VEC4I = 12, COLOR3F = 13, COLOR4F = 14, RESOURCE = 15;
+
+	/**
+	 * Parses the scene at the given path.
+	 * The scene is read from its snapshot if the snapshot is still valid, otherwise it is parsed from yaml and a new snapshot is written.
+	 *
+	 * @param path Path to the scene in the resources folder
+	 * @return The parsed scene or null if the file is not a scene
+	 */
+	public static NodeResource parse(String path) {
+		Path sceneFile = ProjectPath.resourcesFolder(path);
+		Path cacheFile = cacheFile(path);
+		try {
+			BasicFileAttributes attributes = Files.readAttributes(sceneFile, BasicFileAttributes.class);
+			long lastModified = attributes.lastModifiedTime().toMillis();
+			Long checksum = null;
+			if(Files.exists(cacheFile)) try(DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+				if(input.readInt() == MAGIC && input.readInt() == VERSION && input.readLong() == attributes.size()) {
+					long cachedModified = input.readLong();
+					long cachedChecksum = input.readLong();
+					if(cachedModified == lastModified) {
+						return readNode(input);
+					}
+					checksum = checksum(sceneFile);
+					if(cachedChecksum == checksum) {
+						NodeResource nodeResource = readNode(input);
+						write(cacheFile, attributes.size(), lastModified, checksum, nodeResource);
+						return nodeResource;
+					}
+				}
+			} catch (IOException | IllegalArgumentException e) {
+				e.printStackTrace();
+			}
+			if(YamlParser.parseResource(path) instanceof NodeResource nodeResource) {
+				write(cacheFile, attributes.size(), lastModified, checksum != null ? checksum : checksum(sceneFile), nodeResource);
+				return nodeResource;
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		return null;
+	}
+
+	/**
+	 * Writes the snapshot of the given scene.
+	 * Nothing is written if the scene contains values that cannot be stored in a snapshot.
+	 *
+	 * @param cacheFile Path to the snapshot file
+	 * @param size Size of the scene file
+	 * @param lastModified Modification time of the scene file in milliseconds
+	 * @param checksum Checksum of the scene file
+	 * @param nodeResource The parsed scene
+	 */
+	private static void write(Path cacheFile, long size, long lastModified, long checksum, NodeResource nodeResource) {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try(DataOutputStream output = new DataOutputStream(bytes)) {
+				output.writeInt(MAGIC);
+				output.writeInt(VERSION);
+				output.writeLong(size);
+				output.writeLong(lastModified);
+				output.writeLong(checksum);
+				writeNode(output, nodeResource);
+			}
+			Files.createDirectories(cacheFile.getParent());
+			Path temporaryFile = Files.createTempFile(cacheFile.getParent(), cacheFile.getFileName().toString(), ".tmp");
+			try {
+				Files.write(temporaryFile, bytes.toByteArray());
+				Files.move(temporaryFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (IOException e) {
+				Files.deleteIfExists(temporaryFile);
+				throw e;
+			}
+		} catch (IOException | IllegalArgumentException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Reads a node resource and its children from a snapshot.
+	 *
+	 * @param input The input stream
+	 * @return The node resource
+	 * @throws IOException If an I/O error occurs
+	 */
+	private static NodeResource readNode(DataInputStream input) throws IOException {
+		NodeResource nodeResource = new NodeResource();
+		nodeResource.type = readString(input);
+		nodeResource.override = readString(input);
+		int propertiesCount = input.readInt();
+		for(int i = 0; i < propertiesCount; i++) {
+			nodeResource.properties.put(input.readUTF(), readValue(input));
+		}
+		int childrenCount = input.readInt();
+		for(int i = 0; i < childrenCount; i++) {
+			nodeResource.children.put(input.readUTF(), readNode(input));
+		}
+		return nodeResource;
+	}
+
+	/**
+	 * Writes a node resource and its children to a snapshot.
+	 *
+	 * @param output The output stream
+	 * @param nodeResource The node resource
+	 * @throws IOException If an I/O error occurs
+	 * @throws IllegalArgumentException If the resource contains a value that cannot be stored in a snapshot
+	 */
+	private static void writeNode(DataOutputStream output, NodeResource nodeResource) throws IOException {
+		writeString(output, nodeResource.type);
+		writeString(output, nodeResource.override);
+		output.writeInt(nodeResource.properties.size());
+		for(Map.Entry<String, Object> property : nodeResource.properties.entrySet()) {
+			output.writeUTF(property.getKey());
+			writeValue(output, property.getValue());
+		}
+		output.writeInt(nodeResource.children.size());
+		for(Map.Entry<String, NodeResource> child : nodeResource.children.entrySet()) {
+			output.writeUTF(child.getKey());
+			writeNode(output, child.getValue());
+		}
+	}
+
+	/**
+	 * Reads a property value from a snapshot.
+	 *
+	 * @param input The input stream
+	 * @return The value
+	 * @throws IOException If an I/O error occurs
+	 * @throws IllegalArgumentException If the value has an unknown type
+	 */
+	private static Object readValue(DataInputStream input) throws IOException {
+		int tag = input.readUnsignedByte();
+		return switch(tag) {
+			case NULL -> null;
+			case BOOLEAN -> input.readBoolean();
+			case INT -> input.readInt();
+			case LONG -> input.readLong();
+			case FLOAT -> input.readFloat();
+			case DOUBLE -> input.readDouble();
+			case STRING -> input.readUTF();
+			case VEC2F -> new Vec2f(input.readFloat(), input.readFloat());
+			case VEC3F -> new Vec3f(input.readFloat(), input.readFloat(), input.readFloat());
+			case VEC4F -> new Vec4f(input.readFloat(), input.readFloat(), input.readFloat(), input.readFloat());
+			case VEC2I -> new Vec2i(input.readInt(), input.readInt());
+			case VEC3I -> new Vec3i(input.readInt(), input.readInt(), input.readInt());
+			case VEC4I -> new Vec4i(input.readInt(), input.readInt(), input.readInt(), input.readInt());
+			case COLOR3F -> new Color3f(input.readFloat(), input.readFloat(), input.readFloat());
+			case COLOR4F -> new Color4f(input.readFloat(), input.readFloat(), input.readFloat(), input.readFloat());
+			case RESOURCE -> {
+				String className = input.readUTF();
+				String path = input.readUTF();
+				for(Map.Entry<Class<?>, Function<String, Object>> resource : RESOURCES.entrySet()) {
+					if(resource.getKey().getName().equals(className)) {
+						yield resource.getValue().apply(path);
+					}
+				}
+				throw new IllegalArgumentException("Unknown resource type " + className);
+			}
+			default -> throw new IllegalArgumentException("Unknown value tag " + tag);
+		};
+	}
+
+	/**
+	 * Writes a property value to a snapshot.
+	 *
+	 * @param output The output stream
+	 * @param value The value
+	 * @throws IOException If an I/O error occurs
+	 * @throws IllegalArgumentException If the value cannot be stored in a snapshot
+	 */
+	private static void writeValue(DataOutputStream output, Object value) throws IOException {
+		if(value == null) {
+			output.writeByte(NULL);
+		} else if(value instanceof Boolean booleanValue) {
+			output.writeByte(BOOLEAN);
+			output.writeBoolean(booleanValue);
+		} else if(value instanceof Integer intValue) {
+			output.writeByte(INT);
+			output.writeInt(intValue);
+		} else if(value instanceof Long longValue) {
+			output.writeByte(LONG);
+			output.writeLong(longValue);
+		} else if(value instanceof Float floatValue) {
+			output.writeByte(FLOAT);
+			output.writeFloat(floatValue);
+		} else if(value instanceof Double doubleValue) {
+			output.writeByte(DOUBLE);
+			output.writeDouble(doubleValue);
+		} else if(value instanceof String string) {
+			output.writeByte(STRING);
+			output.writeUTF(string);
+		} else if(value instanceof Vec2f vector) {
+			output.writeByte(VEC2F);
+			writeFloats(output, vector.x(), vector.y());
+		} else if(value instanceof Vec3f vector) {
+			output.writeByte(VEC3F);
+			writeFloats(output, vector.x(), vector.y(), vector.z());
+		} else if(value instanceof Vec4f vector) {
+			output.writeByte(VEC4F);
+			writeFloats(output, vector.x(), vector.y(), vector.z(), vector.w());
+		} else if(value instanceof Vec2i vector) {
+			output.writeByte(VEC2I);
+			writeInts(output, vector.x(), vector.y());
+		} else if(value instanceof Vec3i vector) {
+			output.writeByte(VEC3I);
+			writeInts(output, vector.x(), vector.y(), vector.z());
+		} else if(value instanceof Vec4i vector) {
+			output.writeByte(VEC4I);
+			writeInts(output, vector.x(), vector.y(), vector.z(), vector.w());
+		} else if(value instanceof Color3f color) {
+			output.writeByte(COLOR3F);
+			writeFloats(output, color.r(), color.g(), color.b());
+		} else if(value instanceof Color4f color) {
+			output.writeByte(COLOR4F);
+			writeFloats(output, color.r(), color.g(), color.b(), color.a());
+		} else if(RESOURCES.containsKey(value.getClass()) && Resources.pathOf(value) != null) {
+			output.writeByte(RESOURCE);
+			output.writeUTF(value.getClass().getName());
+			output.writeUTF(Resources.pathOf(value));
+		} else {
+			throw new IllegalArgumentException("Unsupported value of type " + value.getClass().getName());
+		}
+	}
+
+	/**
+	 * Writes the given floats to a snapshot.
+	 *
+	 * @param output The output stream
+	 * @param values The values to write
+	 * @throws IOException If an I/O error occurs
+	 */
+	private static void writeFloats(DataOutputStream output, float... values) throws IOException {
+		for(float value : values) {
+			output.writeFloat(value);
+		}
+	}
+
+	/**
+	 * Writes the given ints to a snapshot.
+	 *
+	 * @param output The output stream
+	 * @param values The values to write
+	 * @throws IOException If an I/O error occurs
+	 */
+	private static void writeInts(DataOutputStream output, int... values) throws IOException {
+		for(int value : values) {
+			output.writeInt(value);
+		}
+	}
+
+	/**
+	 * Reads a string that may be null from a snapshot.
+	 *
+	 * @param input The input stream
+	 * @return The string or null
+	 * @throws IOException If an I/O error occurs
+	 */
+	private static String readString(DataInputStream input) throws IOException {
+		return input.readBoolean() ? input.readUTF() : null;
+	}
+
+	/**
+	 * Writes a string that may be null to a snapshot.
+	 *
+	 * @param output The output stream
+	 * @param string The string or null
+	 * @throws IOException If an I/O error occurs
+	 */
+	private static void writeString(DataOutputStream output, String string) throws IOException {
+		output.writeBoolean(string != null);
+		if(string != null) {
+			output.writeUTF(string);
+		}
+	}
+
+	/**
+	 * Computes the checksum of the given file.
+	 *
+	 * @param path Path to the file
+	 * @return The file's CRC32C checksum
+	 * @throws IOException If an I/O error occurs
+	 */
+	private static long checksum(Path path) throws IOException {
+		CRC32C crc = new CRC32C();
+		crc.update(Files.readAllBytes(path));
+		return crc.getValue();
+	}
+
+	/**
+	 * Returns the path to the snapshot of the given scene.
+	 *
+	 * @param path Path to the scene in the resources folder
+	 * @return The path to the snapshot file
+	 */
+	private static Path cacheFile(String path) {
+		return ProjectPath.editorFolder("scene-cache", path + ".bin");
+	}
+}
@@ -0,0 +1,159 @@
+package io.github.lwjre.editor.controllers;
+
+import io.github.lwjre.editor.gui.inspector.InspectorVariable;
+import io.github.lwjre.engine.annotations.EditorVariable;
+import io.github.lwjre.engine.nodes.Node;
+import io.github.lwjre.engine.resources.NodeResource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EditorHistoryTest {
+
+	static class Sample extends Node {
+
+		@EditorVariable
+		private int count = 0;
+		@EditorVariable
+		private int other = 0;
+	}
+
+	NodeResource root;
+
+	Node rootNode;
+
+	NodeResource resource;
+
+	Sample node;
+
+	InspectorVariable count;
+
+	InspectorVariable other;
+
+	@BeforeEach
+	void createScene() throws ReflectiveOperationException {
+		this.root = new NodeResource();
+		this.rootNode = new Node();
+		EditorScene.changeScene(this.root, this.rootNode, "scenes/test.yaml");
+		this.resource = new NodeResource();
+		this.node = new Sample();
+		this.count = variable("count");
+		this.other = variable("other");
+	}
+
+	static InspectorVariable variable(String name) throws ReflectiveOperationException {
+		Field field = Sample.class.getDeclaredField(name);
+		return new InspectorVariable(Sample.class, field, field.getAnnotation(EditorVariable.class), null);
+	}
+
+	void change(InspectorVariable variable, int value) {
+		Object oldValue = variable.get(this.node);
+		boolean hadProperty = this.resource.properties.containsKey(variable.name());
+		variable.set(this.node, value);
+		Object oldProperty = this.resource.properties.put(variable.name(), value);
+		EditorHistory.propertyChanged(this.resource, this.node, variable, oldValue, hadProperty, oldProperty, value);
+	}
+
+	int undoAll() {
+		int undone = 0;
+		int version = EditorHistory.version();
+		EditorHistory.undo();
+		while(EditorHistory.version() != version) {
+			undone++;
+			version = EditorHistory.version();
+			EditorHistory.undo();
+		}
+		return undone;
+	}
+
+	@Test
+	void undoesAndRedoesPropertyChanges() {
+		this.change(this.count, 1);
+		this.change(this.other, 2);
+		EditorHistory.undo();
+		assertEquals(0, this.other.getInt(this.node));
+		assertFalse(this.resource.properties.containsKey("other"));
+		assertEquals(1, this.count.getInt(this.node));
+		EditorHistory.undo();
+		assertEquals(0, this.count.getInt(this.node));
+		assertFalse(this.resource.properties.containsKey("count"));
+		EditorHistory.redo();
+		EditorHistory.redo();
+		assertEquals(1, this.count.getInt(this.node));
+		assertEquals(2, this.other.getInt(this.node));
+		assertEquals(2, this.resource.properties.get("other"));
+	}
+
+	@Test
+	void restoresPropertiesThatWereAlreadySet() {
+		this.resource.properties.put("count", 5);
+		this.count.set(this.node, 5);
+		this.change(this.count, 6);
+		EditorHistory.undo();
+		assertEquals(5, this.count.getInt(this.node));
+		assertEquals(5, this.resource.properties.get("count"));
+	}
+
+	@Test
+	void mergesConsecutiveChangesToTheSameProperty() {
+		this.change(this.count, 1);
+		this.change(this.count, 2);
+		this.change(this.count, 3);
+		assertEquals(1, this.undoAll());
+		assertEquals(0, this.count.getInt(this.node));
+		EditorHistory.redo();
+		assertEquals(3, this.count.getInt(this.node));
+	}
+
+	@Test
+	void discardsUndoneChangesWhenANewOneIsRecorded() {
+		this.change(this.count, 1);
+		this.change(this.other, 1);
+		EditorHistory.undo();
+		this.change(this.count, 2);
+		int version = EditorHistory.version();
+		EditorHistory.redo();
+		assertEquals(version, EditorHistory.version());
+		assertEquals(0, this.other.getInt(this.node));
+	}
+
+	@Test
+	void forgetsTheOldestChangesWhenFull() {
+		for(int i = 0; i < 300; i++) {
+			this.change(i % 2 == 0 ? this.count : this.other, i + 1);
+		}
+		assertEquals(256, this.undoAll());
+		assertEquals(43, this.count.getInt(this.node));
+		assertEquals(44, this.other.getInt(this.node));
+	}
+
+	@Test
+	void forgetsChangesWhenCleared() {
+		this.change(this.count, 1);
+		EditorHistory.clear();
+		assertEquals(0, this.undoAll());
+		assertEquals(1, this.count.getInt(this.node));
+	}
+
+	@Test
+	void undoesAndRedoesChildChanges() {
+		EditorScene.addChild(this.root, this.rootNode, "child", this.resource, this.node);
+		EditorHistory.childAdded(this.root, this.rootNode, "child", this.resource, this.node);
+		EditorScene.removeChild(this.root, this.rootNode, "child");
+		EditorScene.addChild(this.root, this.rootNode, "renamed", this.resource, this.node);
+		EditorHistory.childMoved(this.root, this.rootNode, "child", this.root, this.rootNode, "renamed", this.resource, this.node);
+		EditorHistory.undo();
+		assertSame(this.resource, this.root.children.get("child"));
+		assertFalse(this.root.children.containsKey("renamed"));
+		EditorHistory.undo();
+		assertTrue(this.root.children.isEmpty());
+		assertNull(this.rootNode.getChild("child"));
+		EditorHistory.redo();
+		EditorHistory.redo();
+		assertSame(this.resource, this.root.children.get("renamed"));
+		assertSame(this.node, this.rootNode.getChild("renamed"));
+	}
+}
@@ -0,0 +1,109 @@
+package io.github.lwjre.editor.controllers;
+
+import io.github.lwjre.editor.ProjectPath;
+import io.github.lwjre.editor.controllers.OverrideResolver.ResolvedScene;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OverrideResolverTest {
+
+	@TempDir
+	Path project;
+
+	Path scenes;
+
+	ClassLoader previousClassLoader;
+
+	@BeforeEach
+	void createProject() throws IOException {
+		Path resources = Files.createDirectories(this.project.resolve("src/main/resources"));
+		this.scenes = Files.createDirectories(resources.resolve("scenes"));
+		writeScene("base.yaml", "type: test.Base\nproperties:\n  mass: 1.0\n  restitution: 0.5\n");
+		writeScene("derived.yaml", "override: scenes/base.yaml\nproperties:\n  mass: 2.0\n");
+		writeScene("first.yaml", "override: scenes/second.yaml\n");
+		writeScene("second.yaml", "override: scenes/first.yaml\n");
+		ProjectPath.setCurrent(this.project.toString());
+		this.previousClassLoader = Thread.currentThread().getContextClassLoader();
+		Thread.currentThread().setContextClassLoader(new URLClassLoader(new URL[] {resources.toUri().toURL()}));
+		OverrideResolver.init();
+	}
+
+	@AfterEach
+	void restoreClassLoader() {
+		OverrideResolver.terminate();
+		Thread.currentThread().setContextClassLoader(this.previousClassLoader);
+	}
+
+	void writeScene(String name, String content) throws IOException {
+		Files.writeString(this.scenes.resolve(name), "!!io.github.lwjre.engine.resources.NodeResource\n" + content);
+	}
+
+	@Test
+	void mergesPropertiesAlongTheChain() {
+		ResolvedScene resolvedScene = OverrideResolver.resolve("scenes/derived.yaml");
+		assertNotNull(resolvedScene);
+		assertEquals("test.Base", resolvedScene.type());
+		assertEquals(2.0, resolvedScene.properties().get("mass"));
+		assertEquals(0.5, resolvedScene.properties().get("restitution"));
+		assertEquals(Set.of("scenes/base.yaml", "scenes/derived.yaml"), resolvedScene.chain());
+		assertSame(resolvedScene, OverrideResolver.resolve("scenes/derived.yaml"));
+	}
+
+	@Test
+	void cachesMissingScenesUntilTheyAreCreated() throws IOException {
+		assertNull(OverrideResolver.resolve("scenes/missing.yaml"));
+		writeScene("missing.yaml", "type: test.Missing\n");
+		assertNull(OverrideResolver.resolve("scenes/missing.yaml"));
+		OverrideResolver.invalidate(Set.of(this.scenes.resolve("missing.yaml")));
+		ResolvedScene resolvedScene = OverrideResolver.resolve("scenes/missing.yaml");
+		assertNotNull(resolvedScene);
+		assertEquals("test.Missing", resolvedScene.type());
+	}
+
+	@Test
+	void cachesCyclesUntilOneOfTheirScenesChanges() throws IOException {
+		assertNull(OverrideResolver.resolve("scenes/first.yaml"));
+		assertNull(OverrideResolver.resolve("scenes/second.yaml"));
+		writeScene("second.yaml", "override: scenes/base.yaml\n");
+		assertNull(OverrideResolver.resolve("scenes/first.yaml"));
+		OverrideResolver.invalidate(Set.of(this.scenes.resolve("second.yaml")));
+		ResolvedScene resolvedScene = OverrideResolver.resolve("scenes/first.yaml");
+		assertNotNull(resolvedScene);
+		assertEquals("test.Base", resolvedScene.type());
+		assertEquals(Set.of("scenes/base.yaml", "scenes/second.yaml", "scenes/first.yaml"), resolvedScene.chain());
+	}
+
+	@Test
+	void invalidatesScenesThatOverrideAChangedScene() throws IOException {
+		assertEquals(0.5, OverrideResolver.resolve("scenes/derived.yaml").properties().get("restitution"));
+		writeScene("base.yaml", "type: test.Changed\n");
+		OverrideResolver.invalidate(Set.of(this.scenes.resolve("base.yaml")));
+		ResolvedScene resolvedScene = OverrideResolver.resolve("scenes/derived.yaml");
+		assertEquals("test.Changed", resolvedScene.type());
+		assertNull(resolvedScene.properties().get("restitution"));
+	}
+
+	@Test
+	void forgetsTheScenesOfThePreviousProject(@TempDir Path other) throws IOException {
+		assertEquals("test.Base", OverrideResolver.resolve("scenes/derived.yaml").type());
+		Path resources = Files.createDirectories(other.resolve("src/main/resources"));
+		Files.createDirectories(resources.resolve("scenes"));
+		Files.writeString(resources.resolve("scenes/derived.yaml"), "!!io.github.lwjre.engine.resources.NodeResource\ntype: test.Other\n");
+		OverrideResolver.terminate();
+		ProjectPath.setCurrent(other.toString());
+		Thread.currentThread().setContextClassLoader(new URLClassLoader(new URL[] {resources.toUri().toURL()}));
+		OverrideResolver.init();
+		assertEquals("test.Other", OverrideResolver.resolve("scenes/derived.yaml").type());
+	}
+}
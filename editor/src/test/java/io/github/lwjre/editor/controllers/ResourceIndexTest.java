@@ -0,0 +1,92 @@
+package io.github.lwjre.editor.controllers;
+
+import io.github.lwjre.editor.ProjectPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourceIndexTest {
+
+	@TempDir
+	Path project;
+
+	Path resources;
+
+	@BeforeEach
+	void createProject() throws IOException {
+		this.resources = Files.createDirectories(this.project.resolve("src/main/resources"));
+		Files.createDirectories(this.resources.resolve("scenes/levels"));
+		Files.createDirectories(this.resources.resolve("models"));
+		Files.writeString(this.resources.resolve("scenes/main.yaml"), "");
+		Files.writeString(this.resources.resolve("scenes/levels/Level.yml"), "");
+		Files.writeString(this.resources.resolve("scenes/notes.txt"), "");
+		Files.writeString(this.resources.resolve("models/dragon.obj"), "");
+		ProjectPath.setCurrent(this.project.toString());
+		ResourceIndex.init();
+	}
+
+	@AfterEach
+	void terminate() {
+		ResourceIndex.terminate();
+	}
+
+	@Test
+	void indexesExistingFiles() {
+		assertIterableEquals(List.of(Path.of("scenes", "levels", "Level.yml").toString(), Path.of("scenes", "main.yaml").toString()), ResourceIndex.scenes());
+		assertTrue(ResourceIndex.isDirectory(this.resources.resolve("scenes/levels")));
+		assertFalse(ResourceIndex.isDirectory(this.resources.resolve("scenes/main.yaml")));
+		assertTrue(ResourceIndex.isFile(this.resources.resolve("models/dragon.obj")));
+		assertFalse(ResourceIndex.isFile(this.resources.resolve("models")));
+	}
+
+	@Test
+	void listsDirectoriesBeforeFiles() {
+		Path scenes = this.resources.resolve("scenes");
+		assertIterableEquals(List.of(scenes.resolve("levels"), scenes.resolve("main.yaml"), scenes.resolve("notes.txt")), ResourceIndex.children(scenes));
+		assertIterableEquals(List.of(this.resources.resolve("models"), scenes), ResourceIndex.children(this.resources));
+		assertTrue(ResourceIndex.children(this.resources.resolve("missing")).isEmpty());
+	}
+
+	static void awaitFile(Path path, boolean exists) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10000;
+		while(ResourceIndex.isFile(path) != exists && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+	}
+
+	/**
+	 * The listener registers the folders on its own thread, a probe file is written until the index notices it.
+	 */
+	void awaitListening() throws IOException, InterruptedException {
+		Path probe = this.resources.resolve("probe.txt");
+		long deadline = System.currentTimeMillis() + 10000;
+		while(!ResourceIndex.isFile(probe) && System.currentTimeMillis() < deadline) {
+			Files.writeString(probe, "");
+			Thread.sleep(50);
+		}
+		Files.delete(probe);
+		awaitFile(probe, false);
+	}
+
+	@Test
+	void updatesAfterFilesChange() throws IOException, InterruptedException {
+		this.awaitListening();
+		int version = ResourceIndex.version();
+		Path created = Files.writeString(this.resources.resolve("scenes/other.yaml"), "");
+		Files.delete(this.resources.resolve("models/dragon.obj"));
+		awaitFile(created, true);
+		awaitFile(this.resources.resolve("models/dragon.obj"), false);
+		assertTrue(ResourceIndex.scenes().contains(Path.of("scenes", "other.yaml").toString()));
+		assertFalse(ResourceIndex.isFile(this.resources.resolve("models/dragon.obj")));
+		assertTrue(ResourceIndex.children(this.resources.resolve("models")).isEmpty());
+		assertNotEquals(version, ResourceIndex.version());
+	}
+}
@@ -0,0 +1,150 @@
+package io.github.lwjre.editor.controllers;
+
+import io.github.lwjre.editor.ProjectPath;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResourcePreloaderTest {
+
+	@Test
+	void collectsReferencesThroughOverrides() {
+		ProjectPath.setCurrent("../demo");
+		assertEquals(Set.of("models/dragon.obj", "models/bunny.obj"), ResourcePreloader.collect("scenes/test.yaml"));
+		assertEquals(Set.of("models/dragon.obj"), ResourcePreloader.collect("scenes/dragon.yaml"));
+		assertTrue(ResourcePreloader.collect("scenes/newScene.yaml").isEmpty());
+	}
+
+	@Test
+	void collectsQuotedAndPlainScalars() {
+		String text = """
+				!!io.github.lwjre.engine.resources.NodeResource
+				children:
+				  a:
+				    override: 'scenes/it''s.yaml'
+				    properties:
+				      model: !getOrLoad "models/a.obj"
+				  b:
+				    override: scenes/b.yaml
+				    properties:
+				      shader: !getOrLoad shaders/b.glsl
+				      list: [!getOrLoad 'models/c.obj', !getOrLoad models/d.obj]
+				      texture: !getOrLoad 'textures/e.png'
+				""";
+		LinkedHashSet<String> resources = new LinkedHashSet<>();
+		ArrayList<String> overrides = new ArrayList<>();
+		ResourcePreloader.collect(new StringReader(text), resources, overrides::add);
+		assertIterableEquals(List.of("models/a.obj", "shaders/b.glsl", "models/c.obj", "models/d.obj"), resources);
+		assertIterableEquals(List.of("scenes/it's.yaml", "scenes/b.yaml"), overrides);
+	}
+
+	@Test
+	void ignoresTextThatIsNotPartOfTheTree() {
+		String text = """
+				!!io.github.lwjre.engine.resources.NodeResource
+				# model: !getOrLoad 'models/comment.obj'
+				# override: scenes/comment.yaml
+				type: game.Root
+				properties:
+				  description: |
+				    override: scenes/block.yaml
+				    model: !getOrLoad 'models/block.obj'
+				  settings:
+				    override: scenes/property.yaml
+				    model: !getOrLoad models/nested.obj
+				children:
+				  a:
+				    type: "!getOrLoad models/string.obj"
+				    children:
+				      b:
+				        override: scenes/b.yaml
+				""";
+		LinkedHashSet<String> resources = new LinkedHashSet<>();
+		ArrayList<String> overrides = new ArrayList<>();
+		ResourcePreloader.collect(new StringReader(text), resources, overrides::add);
+		assertIterableEquals(List.of("models/nested.obj"), resources);
+		assertIterableEquals(List.of("scenes/b.yaml"), overrides);
+	}
+
+	@Test
+	void readsDemoSceneResourcesInParallel() {
+		ProjectPath.setCurrent("../demo");
+		Set<String> paths = ResourcePreloader.collect("scenes/test.yaml");
+		// Every read waits for all the others, so this only completes if they all run at the same time
+		CyclicBarrier barrier = new CyclicBarrier(paths.size());
+		Set<String> read = ConcurrentHashMap.newKeySet();
+		Set<Thread> threads = ConcurrentHashMap.newKeySet();
+		AtomicInteger callbacks = new AtomicInteger();
+		ResourcePreloader.prefetch(paths, () -> false, callbacks::incrementAndGet, path -> {
+			try {
+				barrier.await(5, TimeUnit.SECONDS);
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+			threads.add(Thread.currentThread());
+			read.add(path);
+			return path;
+		});
+		assertEquals(paths, read);
+		assertEquals(paths.size(), threads.size());
+		assertFalse(threads.contains(Thread.currentThread()));
+		assertEquals(paths.size(), callbacks.get());
+	}
+
+	@Test
+	void skipsFilesAfterCancelling() {
+		AtomicInteger reads = new AtomicInteger();
+		AtomicInteger callbacks = new AtomicInteger();
+		ResourcePreloader.prefetch(Set.of("models/a.obj", "models/b.obj", "models/c.obj"), () -> true, callbacks::incrementAndGet, path -> reads.incrementAndGet());
+		assertEquals(0, reads.get());
+		assertEquals(3, callbacks.get());
+	}
+
+	@Test
+	void loadsResourcesOnTheCallingThread() {
+		ArrayDeque<String> paths = new ArrayDeque<>(List.of("models/a.obj", "models/b.obj", "models/c.obj"));
+		ArrayList<String> loaded = new ArrayList<>();
+		AtomicInteger callbacks = new AtomicInteger();
+		assertTrue(ResourcePreloader.load(paths, Long.MAX_VALUE, callbacks::incrementAndGet, path -> {
+			loaded.add(path + "@" + Thread.currentThread().getName());
+			return path;
+		}));
+		String thread = Thread.currentThread().getName();
+		assertIterableEquals(List.of("models/a.obj@" + thread, "models/b.obj@" + thread, "models/c.obj@" + thread), loaded);
+		assertEquals(3, callbacks.get());
+		assertTrue(paths.isEmpty());
+	}
+
+	@Test
+	void stopsLoadingWhenTheBudgetIsOver() {
+		ArrayDeque<String> paths = new ArrayDeque<>(List.of("models/a.obj", "models/b.obj", "models/c.obj"));
+		AtomicInteger callbacks = new AtomicInteger();
+		assertFalse(ResourcePreloader.load(paths, 0, callbacks::incrementAndGet, path -> path));
+		assertEquals(1, callbacks.get());
+		assertIterableEquals(List.of("models/b.obj", "models/c.obj"), paths);
+		assertFalse(ResourcePreloader.load(paths, 0, callbacks::incrementAndGet, path -> path));
+		assertTrue(ResourcePreloader.load(paths, 0, callbacks::incrementAndGet, path -> path));
+		assertEquals(3, callbacks.get());
+	}
+
+	@Test
+	void skipsResourcesThatFailToLoad() {
+		ArrayDeque<String> paths = new ArrayDeque<>(List.of("models/a.obj", "models/b.obj"));
+		ArrayList<String> loaded = new ArrayList<>();
+		assertTrue(ResourcePreloader.load(paths, Long.MAX_VALUE, () -> {}, path -> {
+			if(path.equals("models/a.obj")) {
+				throw new IllegalStateException("Test exception");
+			}
+			loaded.add(path);
+			return path;
+		}));
+		assertIterableEquals(List.of("models/b.obj"), loaded);
+	}
+}
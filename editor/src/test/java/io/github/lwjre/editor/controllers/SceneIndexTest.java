@@ -0,0 +1,145 @@
+package io.github.lwjre.editor.controllers;
+
+import io.github.lwjre.editor.models.EditorNode;
+import io.github.lwjre.engine.nodes.Node;
+import io.github.lwjre.engine.resources.NodeResource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SceneIndexTest {
+
+	NodeResource root;
+
+	Node rootNode;
+
+	@BeforeEach
+	void createScene() {
+		this.root = new NodeResource();
+		this.rootNode = new Node();
+		EditorScene.changeScene(this.root, this.rootNode, "scenes/test.yaml");
+	}
+
+	EditorNode add(EditorNode parent, String key) {
+		NodeResource resource = new NodeResource();
+		Node node = new Node();
+		EditorScene.addChild(parent.resource(), parent.node(), key, resource, node);
+		return new EditorNode(node, resource, key, parent.resource());
+	}
+
+	EditorNode rootEditorNode() {
+		return new EditorNode(this.rootNode, this.root, "root", null);
+	}
+
+	static List<String> labels(List<EditorNode> nodes) {
+		return nodes.stream().map(EditorNode::label).toList();
+	}
+
+	NodeResource addChild(NodeResource parent, String key) {
+		NodeResource child = new NodeResource();
+		parent.children.put(key, child);
+		return child;
+	}
+
+	@Test
+	void keepsKeysThatAreNotUsed() {
+		this.addChild(this.root, "Node");
+		assertEquals("Light", SceneIndex.unusedKey(this.root, "Light"));
+		assertEquals("Light", SceneIndex.unusedKey(this.root, "Light"));
+	}
+
+	@Test
+	void givesOutIncreasingSuffixes() {
+		this.addChild(this.root, "Node");
+		assertEquals("Node2", SceneIndex.unusedKey(this.root, "Node"));
+		this.addChild(this.root, "Node2");
+		assertEquals("Node3", SceneIndex.unusedKey(this.root, "Node"));
+		this.addChild(this.root, "Node3");
+		assertEquals("Node4", SceneIndex.unusedKey(this.root, "Node2"));
+	}
+
+	@Test
+	void skipsSuffixesThatAreAlreadyUsed() {
+		this.addChild(this.root, "Light");
+		this.addChild(this.root, "Light2");
+		this.addChild(this.root, "Light3");
+		assertEquals("Light4", SceneIndex.unusedKey(this.root, "Light"));
+	}
+
+	@Test
+	void countsSuffixesForEachParent() {
+		NodeResource child = this.addChild(this.root, "Node");
+		this.addChild(child, "Node");
+		assertEquals("Node2", SceneIndex.unusedKey(this.root, "Node"));
+		assertEquals("Node2", SceneIndex.unusedKey(child, "Node"));
+	}
+
+	@Test
+	void forgetsSuffixesWhenTheSceneChanges() {
+		this.addChild(this.root, "Node");
+		assertEquals("Node2", SceneIndex.unusedKey(this.root, "Node"));
+		EditorScene.changeScene(this.root, this.rootNode, "scenes/test.yaml");
+		assertEquals("Node2", SceneIndex.unusedKey(this.root, "Node"));
+	}
+
+	@Test
+	void keepsChildrenSortedByKey() {
+		EditorNode root = this.rootEditorNode();
+		this.add(root, "b");
+		this.add(root, "a");
+		assertEquals(List.of("a", "b"), labels(SceneIndex.children(root)));
+		this.add(root, "ab");
+		assertEquals(List.of("a", "ab", "b"), labels(SceneIndex.children(root)));
+		EditorScene.removeChild(this.root, this.rootNode, "a");
+		assertEquals(List.of("ab", "b"), labels(SceneIndex.children(root)));
+	}
+
+	@Test
+	void findsAncestorsAndPaths() {
+		EditorNode a = this.add(this.rootEditorNode(), "a");
+		EditorNode b = this.add(this.rootEditorNode(), "b");
+		EditorNode leaf = this.add(a, "leaf");
+		assertTrue(SceneIndex.isDescendant(this.root, leaf.resource()));
+		assertTrue(SceneIndex.isDescendant(a.resource(), leaf.resource()));
+		assertFalse(SceneIndex.isDescendant(b.resource(), leaf.resource()));
+		assertFalse(SceneIndex.isDescendant(leaf.resource(), a.resource()));
+		assertEquals(List.of("a", "leaf"), SceneIndex.path(leaf.resource()));
+		assertEquals(List.of(), SceneIndex.path(this.root));
+		assertNull(SceneIndex.path(new NodeResource()));
+	}
+
+	@Test
+	void forgetsTheSubtreeOfRemovedChildren() {
+		EditorNode a = this.add(this.rootEditorNode(), "a");
+		EditorNode leaf = this.add(a, "leaf");
+		EditorNode grandchild = this.add(leaf, "grandchild");
+		assertEquals(List.of("a", "leaf", "grandchild"), SceneIndex.path(grandchild.resource()));
+		assertEquals(List.of("leaf"), labels(SceneIndex.children(a)));
+		EditorScene.removeChild(this.root, this.rootNode, "a");
+		assertNull(SceneIndex.path(a.resource()));
+		assertNull(SceneIndex.path(leaf.resource()));
+		assertNull(SceneIndex.path(grandchild.resource()));
+		assertFalse(SceneIndex.isDescendant(this.root, grandchild.resource()));
+	}
+
+	@Test
+	void indexesChildrenMovedToAnotherParent() {
+		EditorNode a = this.add(this.rootEditorNode(), "a");
+		EditorNode b = this.add(this.rootEditorNode(), "b");
+		EditorNode leaf = this.add(a, "leaf");
+		this.add(leaf, "grandchild");
+		assertEquals(List.of("grandchild"), labels(SceneIndex.children(leaf)));
+		EditorScene.removeChild(a.resource(), a.node(), "leaf");
+		EditorScene.addChild(b.resource(), b.node(), "moved", leaf.resource(), leaf.node());
+		assertEquals(List.of("b", "moved"), SceneIndex.path(leaf.resource()));
+		assertTrue(SceneIndex.isDescendant(b.resource(), leaf.resource()));
+		assertFalse(SceneIndex.isDescendant(a.resource(), leaf.resource()));
+		EditorNode moved = new EditorNode(leaf.node(), leaf.resource(), "moved", b.resource());
+		assertEquals(List.of("grandchild"), labels(SceneIndex.children(moved)));
+		assertEquals(List.of("moved"), labels(SceneIndex.children(b)));
+		assertTrue(SceneIndex.children(a).isEmpty());
+	}
+}
@@ -0,0 +1,123 @@
+package io.github.lwjre.editor.controllers;
+
+import io.github.lwjre.engine.nodes.Node;
+import io.github.lwjre.engine.resources.NodeResource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SceneSaverTest {
+
+	static final String TAG = "!!io.github.lwjre.engine.resources.NodeResource";
+
+	@TempDir
+	Path folder;
+
+	Path file;
+
+	NodeResource root;
+
+	NodeResource first;
+
+	NodeResource second;
+
+	@BeforeEach
+	void createScene() {
+		this.file = this.folder.resolve("test.yaml");
+		this.root = new NodeResource();
+		this.root.type = "game.Root";
+		this.root.properties.put("name", "player");
+		this.root.properties.put("mass", 2.0);
+		this.first = new NodeResource();
+		this.first.override = "scenes/first.yaml";
+		this.second = new NodeResource();
+		this.second.type = "game.Second";
+		this.root.children.put("second", this.second);
+		this.root.children.put("first", this.first);
+		SceneSaver.clear();
+	}
+
+	String save(Set<NodeResource> changedResources) throws IOException {
+		SceneSaver.save(this.root, this.file, changedResources);
+		SceneSaver.awaitSaves();
+		return Files.readString(this.file);
+	}
+
+	@Test
+	void writesEntriesInAlphabeticalOrder() throws IOException {
+		assertEquals(TAG + "\n" +
+				"children:\n" +
+				"  first: " + TAG + "\n" +
+				"    override: scenes/first.yaml\n" +
+				"  second: " + TAG + "\n" +
+				"    type: game.Second\n" +
+				"properties:\n" +
+				"  mass: 2.0\n" +
+				"  name: player\n" +
+				"type: game.Root\n", this.save(Set.of(this.root, this.first, this.second)));
+	}
+
+	@Test
+	void writesEmptyResourcesOnOneLine() throws IOException {
+		this.root = new NodeResource();
+		assertEquals(TAG + " {}\n", this.save(Set.of(this.root)));
+		this.root.children.put("empty", new NodeResource());
+		assertEquals(TAG + "\nchildren:\n  empty: " + TAG + " {}\n", this.save(Set.of(this.root)));
+	}
+
+	@Test
+	void indentsValuesThatSpanMultipleLines() throws IOException {
+		this.second.properties.put("tags", List.of("a", "b"));
+		assertTrue(this.save(Set.of(this.root, this.first, this.second)).contains("" +
+				"  second: " + TAG + "\n" +
+				"    properties:\n" +
+				"      tags:\n" +
+				"        - a\n" +
+				"        - b\n" +
+				"    type: game.Second\n"));
+	}
+
+	@Test
+	void reusesTheTextOfUnchangedResources() throws IOException {
+		String text = this.save(Set.of(this.root, this.first, this.second));
+		this.second.type = "game.Changed";
+		assertEquals(text, this.save(Set.of()));
+		assertEquals(text, this.save(Set.of(this.first)));
+		assertEquals(text.replace("game.Second", "game.Changed"), this.save(Set.of(this.second)));
+	}
+
+	@Test
+	void serializesAgainAfterBeingCleared() throws IOException {
+		this.save(Set.of(this.root, this.first, this.second));
+		this.second.type = "game.Changed";
+		SceneSaver.clear();
+		assertTrue(this.save(Set.of()).contains("type: game.Changed"));
+	}
+
+	@Test
+	void leavesNoTemporaryFiles() throws IOException {
+		this.save(Set.of(this.root));
+		this.save(Set.of(this.root));
+		try(Stream<Path> files = Files.list(this.folder)) {
+			assertEquals(List.of(this.file), files.toList());
+		}
+	}
+
+	@Test
+	void marksResourcesAsChangedIfTheSceneCannotBeWritten() {
+		EditorScene.changeScene(this.root, new Node(), "scenes/test.yaml");
+		assertFalse(EditorScene.hasUnsavedChanges());
+		SceneSaver.save(this.root, this.folder.resolve("missing/test.yaml"), Set.of(this.second));
+		SceneSaver.awaitSaves();
+		assertTrue(EditorScene.hasUnsavedChanges());
+	}
+}
@@ -0,0 +1,105 @@
+package io.github.lwjre.editor.gui;
+
+import io.github.lwjre.editor.gui.inspector.InspectorSection;
+import io.github.lwjre.editor.gui.inspector.InspectorVariable;
+import io.github.lwjre.engine.annotations.EditorVariable;
+import io.github.lwjre.engine.nodes.Node;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InspectorWindowTest {
+
+	static class BaseNode extends Node {
+
+		@EditorVariable
+		private float b0, b1, b2, b3, b4, b5, b6, b7, b8, b9;
+		@EditorVariable
+		private boolean c0, c1, c2, c3, c4, c5, c6, c7, c8, c9;
+	}
+
+	static class InspectedNode extends BaseNode {
+
+		@EditorVariable
+		private float f0, f1, f2, f3, f4, f5, f6, f7, f8, f9;
+		@EditorVariable
+		private int i0, i1, i2, i3, i4, i5, i6, i7, i8, i9;
+		@EditorVariable
+		private double d0, d1, d2, d3, d4, d5, d6, d7, d8, d9;
+		private float notInspected;
+	}
+
+	static int countVariables(List<InspectorSection> layout) {
+		return layout.stream().mapToInt(section -> section.variables().size()).sum();
+	}
+
+	@Test
+	void cachesTheLayoutOfEachClass() {
+		InspectorWindow window = new InspectorWindow();
+		List<InspectorSection> layout = window.getLayout(InspectedNode.class.getName());
+		assertEquals(List.of("InspectedNode", "BaseNode"), layout.stream().map(InspectorSection::title).toList());
+		assertEquals(50, countVariables(layout));
+		assertSame(layout, window.getLayout(InspectedNode.class.getName()));
+		window.clearLayouts();
+		assertNotSame(layout, window.getLayout(InspectedNode.class.getName()));
+	}
+
+	@Test
+	void hasNoLayoutForMissingClasses() {
+		InspectorWindow window = new InspectorWindow();
+		assertTrue(window.getLayout(null).isEmpty());
+		assertTrue(window.getLayout("").isEmpty());
+		assertTrue(window.getLayout(Node.class.getName()).isEmpty());
+	}
+
+	@Test
+	void inspectingANodeDoesNotAllocate() {
+		Assumptions.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean, "Allocation counters are not available");
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported(), "Allocation counters are not supported");
+		threads.setThreadAllocatedMemoryEnabled(true);
+		InspectorWindow window = new InspectorWindow();
+		InspectedNode node = new InspectedNode();
+		// Warm up so that the measured loop runs compiled code
+		inspectFrames(window, node, 200);
+		long thread = Thread.currentThread().getId();
+		long before = threads.getThreadAllocatedBytes(thread);
+		double sum = inspectFrames(window, node, 1000);
+		long allocated = threads.getThreadAllocatedBytes(thread) - before;
+		assertEquals(0.0, sum);
+		// Looking up the class and reading the variables as objects on every frame would allocate several megabytes
+		assertTrue(allocated < 64 * 1024, "Allocated " + allocated + " bytes");
+	}
+
+	/**
+	 * Runs the work that {@link InspectorWindow#draw()} does for every frame without the ImGui calls, which cannot run without a window.
+	 */
+	private static double inspectFrames(InspectorWindow window, InspectedNode node, int frames) {
+		double sum = 0.0;
+		for(int i = 0; i < frames; i++) {
+			List<InspectorSection> layout = window.getLayout(InspectedNode.class.getName());
+			window.readCommittedValues(layout, node);
+			for(int j = 0; j < layout.size(); j++) {
+				List<InspectorVariable> variables = layout.get(j).variables();
+				for(int k = 0; k < variables.size(); k++) {
+					InspectorVariable variable = variables.get(k);
+					Class<?> type = variable.field().getType();
+					if(type == float.class) {
+						sum += variable.getFloat(node);
+					} else if(type == int.class) {
+						sum += variable.getInt(node);
+					} else if(type == double.class) {
+						sum += variable.getDouble(node);
+					} else if(variable.getBoolean(node)) {
+						sum += 1.0;
+					}
+				}
+			}
+		}
+		return sum;
+	}
+}
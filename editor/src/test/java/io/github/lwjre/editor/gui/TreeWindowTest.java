@@ -0,0 +1,211 @@
+package io.github.lwjre.editor.gui;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TreeWindowTest {
+
+	static class TestTree extends TreeWindow<String> {
+
+		final Map<String, List<String>> children = new HashMap<>();
+
+		final List<String> builtMenus = new ArrayList<>();
+
+		int childrenRequests = 0;
+
+		int version = 0;
+
+		TestTree() {
+			this.children.put("root", List.of("root/a", "root/b"));
+			this.children.put("root/a", List.of("root/a/1", "root/a/2"));
+			this.children.put("root/b", List.of());
+		}
+
+		@Override
+		protected ContextMenu<String> contextMenu(String node) {
+			this.builtMenus.add(node);
+			return super.contextMenu(node);
+		}
+
+		@Override
+		protected Object contextMenuType(String node) {
+			return node.equals("root") ? "root" : "child";
+		}
+
+		@Override
+		protected int treeVersion() {
+			return this.version;
+		}
+
+		@Override
+		protected String getRoot() {
+			return "root";
+		}
+
+		@Override
+		protected String getLabel(String node) {
+			return node.substring(node.lastIndexOf('/') + 1);
+		}
+
+		@Override
+		protected boolean isLeaf(String node) {
+			return !this.children.containsKey(node);
+		}
+
+		@Override
+		protected Collection<String> getChildren(String node) {
+			this.childrenRequests++;
+			return this.children.get(node);
+		}
+
+		@Override
+		protected void onSelect(String node) {
+
+		}
+
+		@Override
+		protected void onDoubleClick(String node) {
+
+		}
+
+		@Override
+		protected void hotkeys(String node) {
+
+		}
+
+		@Override
+		protected void onDrop(String target, Object payload) {
+
+		}
+
+		@Override
+		public void draw() {
+
+		}
+	}
+
+	static List<String> labels(TestTree tree) {
+		return tree.rows().stream().map(row -> "  ".repeat(row.depth()) + row.label()).toList();
+	}
+
+	@Test
+	void showsOnlyTheRootUntilItIsExpanded() {
+		TestTree tree = new TestTree();
+		tree.updateRows();
+		assertEquals(List.of("root"), labels(tree));
+		assertFalse(tree.rows().get(0).open());
+		assertFalse(tree.rows().get(0).leaf());
+		assertEquals(0, tree.childrenRequests);
+	}
+
+	@Test
+	void showsTheChildrenOfExpandedNodes() {
+		TestTree tree = new TestTree();
+		tree.setExpanded("root", true);
+		tree.setExpanded("root/a", true);
+		tree.updateRows();
+		assertEquals(List.of("root", "  a", "    1", "    2", "  b"), labels(tree));
+		assertTrue(tree.rows().get(1).open());
+		assertTrue(tree.rows().get(2).leaf());
+		assertFalse(tree.rows().get(4).open());
+	}
+
+	@Test
+	void buildsRowsOnlyWhenTheTreeChanges() {
+		TestTree tree = new TestTree();
+		tree.setExpanded("root", true);
+		tree.updateRows();
+		int requests = tree.childrenRequests;
+		tree.updateRows();
+		tree.updateRows();
+		assertEquals(requests, tree.childrenRequests);
+		tree.children.put("root", List.of("root/a", "root/b", "root/c"));
+		tree.version++;
+		tree.updateRows();
+		assertTrue(tree.childrenRequests > requests);
+		assertEquals(List.of("root", "  a", "  b", "  c"), labels(tree));
+	}
+
+	@Test
+	void remembersExpandedNodesUnderCollapsedOnes() {
+		TestTree tree = new TestTree();
+		tree.setExpanded("root", true);
+		tree.setExpanded("root/a", true);
+		tree.setExpanded("root", false);
+		tree.updateRows();
+		assertEquals(List.of("root"), labels(tree));
+		tree.setExpanded("root", true);
+		tree.updateRows();
+		assertEquals(List.of("root", "  a", "    1", "    2", "  b"), labels(tree));
+	}
+
+	@Test
+	void buildsContextMenusOnlyOncePerType() {
+		TestTree tree = new TestTree();
+		assertTrue(tree.builtMenus.isEmpty());
+		ContextMenu<String> childMenu = tree.contextMenuFor("root/a");
+		assertSame(childMenu, tree.contextMenuFor("root/b"));
+		assertSame(childMenu, tree.contextMenuFor("root/a/1"));
+		ContextMenu<String> rootMenu = tree.contextMenuFor("root");
+		assertNotSame(childMenu, rootMenu);
+		assertSame(rootMenu, tree.contextMenuFor("root"));
+		assertEquals(List.of("root/a", "root"), tree.builtMenus);
+	}
+
+	@Test
+	void keepsTheIdsOfNodesWhenRowsMove() {
+		TestTree tree = new TestTree();
+		tree.setExpanded("root", true);
+		tree.updateRows();
+		int idOfB = tree.rows().get(2).id();
+		tree.setExpanded("root/a", true);
+		tree.updateRows();
+		assertEquals("b", tree.rows().get(4).label());
+		assertEquals(idOfB, tree.rows().get(4).id());
+		assertEquals(tree.rows().size(), tree.rows().stream().mapToInt(TreeWindow.Row::id).distinct().count());
+	}
+
+	@Test
+	void idleTreeDoesNotAllocate() {
+		Assumptions.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean, "Allocation counters are not available");
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported(), "Allocation counters are not supported");
+		threads.setThreadAllocatedMemoryEnabled(true);
+		TestTree tree = new TestTree();
+		ArrayList<String> nodes = new ArrayList<>();
+		for(int i = 0; i < 10_000; i++) {
+			nodes.add("root/node" + i);
+		}
+		tree.children.put("root", nodes);
+		tree.setExpanded("root", true);
+		tree.updateRows();
+		assertEquals(10_001, tree.rows().size());
+		// Warm up so that the measured loop runs compiled code
+		idleFrames(tree, 200);
+		long thread = Thread.currentThread().getId();
+		long before = threads.getThreadAllocatedBytes(thread);
+		int flags = idleFrames(tree, 1000);
+		long allocated = threads.getThreadAllocatedBytes(thread) - before;
+		assertNotEquals(0, flags);
+		// Building the rows again on every frame would allocate more than 100 MB
+		assertTrue(allocated < 64 * 1024, "Allocated " + allocated + " bytes");
+	}
+
+	private static int idleFrames(TestTree tree, int frames) {
+		int flags = 0;
+		for(int i = 0; i < frames; i++) {
+			tree.updateRows();
+			List<TreeWindow.Row<String>> rows = tree.rows();
+			for(int j = 0; j < rows.size(); j++) {
+				TreeWindow.Row<String> row = rows.get(j);
+				flags |= tree.nodeFlags(row.node()) + row.id();
+			}
+		}
+		return flags;
+	}
+}
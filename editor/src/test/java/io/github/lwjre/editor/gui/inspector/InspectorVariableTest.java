@@ -0,0 +1,92 @@
+package io.github.lwjre.editor.gui.inspector;
+
+import io.github.lwjre.engine.annotations.EditorVariable;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InspectorVariableTest {
+
+	static class Sample {
+
+		@EditorVariable
+		private float speed = 1.0f;
+		@EditorVariable
+		private int count = 2;
+		@EditorVariable(name = "Ratio")
+		private double ratio = 0.5;
+		@EditorVariable
+		private boolean visible = false;
+		@EditorVariable
+		private final float limit = 3.0f;
+		@EditorVariable
+		private final String text = "text";
+	}
+
+	static InspectorVariable variable(String name) throws ReflectiveOperationException {
+		Field field = Sample.class.getDeclaredField(name);
+		return new InspectorVariable(Sample.class, field, field.getAnnotation(EditorVariable.class), null);
+	}
+
+	@Test
+	void readsAndWritesPrimitiveFields() throws ReflectiveOperationException {
+		Sample sample = new Sample();
+		InspectorVariable speed = variable("speed");
+		InspectorVariable count = variable("count");
+		InspectorVariable ratio = variable("ratio");
+		InspectorVariable visible = variable("visible");
+		speed.setFloat(sample, 4.0f);
+		count.setInt(sample, 5);
+		ratio.setDouble(sample, 0.25);
+		visible.setBoolean(sample, true);
+		assertEquals(4.0f, speed.getFloat(sample));
+		assertEquals(5, count.getInt(sample));
+		assertEquals(0.25, ratio.getDouble(sample));
+		assertTrue(visible.getBoolean(sample));
+		count.set(sample, 6);
+		assertEquals(6, count.get(sample));
+		assertEquals("Ratio", ratio.label());
+		assertEquals("speed", speed.label());
+	}
+
+	@Test
+	void writesFinalFields() throws ReflectiveOperationException {
+		Sample sample = new Sample();
+		InspectorVariable limit = variable("limit");
+		InspectorVariable text = variable("text");
+		limit.setFloat(sample, 7.0f);
+		text.set(sample, "changed");
+		assertEquals(7.0f, limit.getFloat(sample));
+		assertEquals("changed", text.get(sample));
+	}
+
+	@Test
+	void primitiveAccessDoesNotAllocate() throws ReflectiveOperationException {
+		Assumptions.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean, "Allocation counters are not available");
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported(), "Allocation counters are not supported");
+		threads.setThreadAllocatedMemoryEnabled(true);
+		Sample sample = new Sample();
+		InspectorVariable speed = variable("speed");
+		InspectorVariable count = variable("count");
+		// Warm up so that the measured loop runs compiled code
+		drag(sample, speed, count, 200_000);
+		long thread = Thread.currentThread().getId();
+		long before = threads.getThreadAllocatedBytes(thread);
+		drag(sample, speed, count, 1_000_000);
+		long allocated = threads.getThreadAllocatedBytes(thread) - before;
+		// The reflective path, Field.get and Field.set, boxes a float and an int on every iteration and would allocate at least 32 MB
+		assertTrue(allocated < 64 * 1024, "Allocated " + allocated + " bytes");
+	}
+
+	private static void drag(Sample sample, InspectorVariable speed, InspectorVariable count, int iterations) {
+		for(int i = 0; i < iterations; i++) {
+			speed.setFloat(sample, speed.getFloat(sample) + 0.001f);
+			count.setInt(sample, count.getInt(sample) + 1);
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package io.github.lwjre.editor.gui.inspector;
+
+import io.github.lwjre.engine.annotations.EditorVariable;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WidgetBuffersTest {
+
+	static class Sample {
+
+		@EditorVariable
+		private String first = "first";
+		@EditorVariable
+		private String second = "second";
+	}
+
+	static InspectorVariable variable(String name) throws ReflectiveOperationException {
+		Field field = Sample.class.getDeclaredField(name);
+		return new InspectorVariable(Sample.class, field, field.getAnnotation(EditorVariable.class), null);
+	}
+
+	int created = 0;
+
+	final WidgetBuffers<StringBuilder> buffers = new WidgetBuffers<>((variable, value) -> {
+		this.created++;
+		return new StringBuilder(String.valueOf(value));
+	});
+
+	@Test
+	void reusesTheBufferWhileTheValueIsTheSame() throws ReflectiveOperationException {
+		InspectorVariable first = variable("first");
+		Object value = new Object();
+		StringBuilder buffer = this.buffers.get(first, value);
+		for(int i = 0; i < 100; i++) {
+			assertSame(buffer, this.buffers.get(first, value));
+		}
+		assertEquals(1, this.created);
+	}
+
+	@Test
+	void createsANewBufferWhenTheValueChanges() throws ReflectiveOperationException {
+		InspectorVariable first = variable("first");
+		StringBuilder buffer = this.buffers.get(first, "a");
+		StringBuilder changed = this.buffers.get(first, "b");
+		assertNotSame(buffer, changed);
+		assertEquals("b", changed.toString());
+		assertEquals(2, this.created);
+	}
+
+	@Test
+	void keepsTheBufferAfterTheWidgetChangedTheValue() throws ReflectiveOperationException {
+		InspectorVariable first = variable("first");
+		StringBuilder buffer = this.buffers.get(first, "a");
+		buffer.append("b");
+		this.buffers.update(first, "ab");
+		assertSame(buffer, this.buffers.get(first, "ab"));
+		assertEquals(1, this.created);
+	}
+
+	@Test
+	void keepsOneBufferForEachVariable() throws ReflectiveOperationException {
+		InspectorVariable first = variable("first");
+		InspectorVariable second = variable("second");
+		Object value = new Object();
+		assertNotSame(this.buffers.get(first, value), this.buffers.get(second, value));
+		assertEquals(2, this.created);
+	}
+
+	@Test
+	void computesWidgetIdsOnce() throws ReflectiveOperationException {
+		InspectorVariable first = variable("first");
+		InspectorVariable second = variable("second");
+		assertSame(first.widgetId(), first.widgetId());
+		assertTrue(first.widgetId().startsWith("##"));
+		assertNotEquals(first.widgetId(), second.widgetId());
+		assertEquals(first.widgetId(), variable("first").widgetId());
+	}
+}
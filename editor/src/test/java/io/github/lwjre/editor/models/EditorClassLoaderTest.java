@@ -0,0 +1,120 @@
+package io.github.lwjre.editor.models;
+
+import io.github.lwjre.editor.ProjectPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EditorClassLoaderTest {
+
+	@TempDir
+	Path project;
+
+	@TempDir
+	Path repository;
+
+	String previousRepository;
+
+	@BeforeEach
+	void createProject() throws IOException {
+		Files.writeString(this.project.resolve("pom.xml"), """
+				<project>
+					<groupId>test</groupId>
+					<artifactId>project</artifactId>
+					<version>1.0</version>
+					<dependencies>
+						<dependency>
+							<groupId>test</groupId>
+							<artifactId>library</artifactId>
+							<version>1.0</version>
+						</dependency>
+					</dependencies>
+				</project>
+				""");
+		Path sources = Files.createDirectories(this.project.resolve("library/lib"));
+		Files.writeString(sources.resolve("First.java"), "package lib; public class First {}");
+		Files.writeString(sources.resolve("Second.java"), "package lib; public class Second {}");
+		Path classes = Files.createDirectories(this.project.resolve("library/classes"));
+		assertEquals(0, ToolProvider.getSystemJavaCompiler().run(null, null, null, "-d", classes.toString(), sources.resolve("First.java").toString(), sources.resolve("Second.java").toString()));
+		Path jar = Files.createDirectories(this.repository.resolve("test/library/1.0")).resolve("library-1.0.jar");
+		try(JarOutputStream output = new JarOutputStream(Files.newOutputStream(jar))) {
+			for(String name : new String[] {"lib/First.class", "lib/Second.class"}) {
+				output.putNextEntry(new JarEntry(name));
+				output.write(Files.readAllBytes(classes.resolve(name)));
+				output.closeEntry();
+			}
+			output.putNextEntry(new JarEntry("lib/data.txt"));
+			output.write("data".getBytes());
+			output.closeEntry();
+		}
+		Path projectClasses = Files.createDirectories(this.project.resolve("target/classes"));
+		try(OutputStream output = Files.newOutputStream(projectClasses.resolve("project.txt"))) {
+			output.write("project".getBytes());
+		}
+		this.previousRepository = System.getProperty("maven.repo.local");
+		System.setProperty("maven.repo.local", this.repository.toString());
+		ProjectPath.setCurrent(this.project.toString());
+	}
+
+	@AfterEach
+	void restoreRepository() {
+		if(this.previousRepository != null) {
+			System.setProperty("maven.repo.local", this.previousRepository);
+		} else {
+			System.clearProperty("maven.repo.local");
+		}
+	}
+
+	@Test
+	void loadsClassesAndResourcesFromDependencies() throws ClassNotFoundException {
+		try(EditorClassLoader classLoader = new EditorClassLoader()) {
+			Class<?> first = classLoader.loadClass("lib.First");
+			assertSame(classLoader, first.getClassLoader());
+			assertNotNull(classLoader.getResource("lib/data.txt"));
+			assertNull(classLoader.getResource("lib/missing.txt"));
+		}
+	}
+
+	@Test
+	void closesTheJarFiles() throws ClassNotFoundException {
+		EditorClassLoader classLoader = new EditorClassLoader();
+		classLoader.loadClass("lib.First");
+		classLoader.close();
+		assertThrows(ClassNotFoundException.class, () -> classLoader.loadClass("lib.Second"));
+	}
+
+	@Test
+	void layersReloadOnlyTheGivenClasses() throws ClassNotFoundException {
+		try(EditorClassLoader first = new EditorClassLoader()) {
+			EditorClassLoader second = new EditorClassLoader(first, Set.of("lib.First"));
+			assertEquals(1, second.depth());
+			assertNotSame(first.loadClass("lib.First"), second.loadClass("lib.First"));
+			assertSame(first.loadClass("lib.Second"), second.loadClass("lib.Second"));
+		}
+	}
+
+	@Test
+	void knowsWhichLoadersItIsLayeredOn() {
+		try(EditorClassLoader first = new EditorClassLoader(); EditorClassLoader other = new EditorClassLoader()) {
+			EditorClassLoader second = new EditorClassLoader(first, Set.of("lib.First"));
+			EditorClassLoader third = new EditorClassLoader(second, Set.of("lib.Second"));
+			assertTrue(third.isLayeredOn(first));
+			assertTrue(third.isLayeredOn(second));
+			assertFalse(first.isLayeredOn(second));
+			assertFalse(third.isLayeredOn(other));
+			assertFalse(other.isLayeredOn(first));
+		}
+	}
+}
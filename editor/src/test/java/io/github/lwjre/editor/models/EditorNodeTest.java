@@ -0,0 +1,71 @@
+package io.github.lwjre.editor.models;
+
+import io.github.lwjre.editor.controllers.EditorHistory;
+import io.github.lwjre.editor.controllers.EditorScene;
+import io.github.lwjre.engine.nodes.Node;
+import io.github.lwjre.engine.resources.NodeResource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EditorNodeTest {
+
+	NodeResource root;
+
+	Node rootNode;
+
+	EditorNode first;
+
+	EditorNode second;
+
+	@BeforeEach
+	void createScene() {
+		this.root = new NodeResource();
+		this.rootNode = new Node();
+		EditorScene.changeScene(this.root, this.rootNode, "scenes/test.yaml");
+		EditorHistory.clear();
+		this.first = this.child("first");
+		this.second = this.child("second");
+	}
+
+	EditorNode child(String key) {
+		NodeResource resource = new NodeResource();
+		Node node = new Node();
+		EditorScene.addChild(this.root, this.rootNode, key, resource, node);
+		return new EditorNode(node, resource, key, this.root);
+	}
+
+	@Test
+	void renamesAndUndoes() {
+		this.first.rename("renamed");
+		assertSame(this.first.resource(), this.root.children.get("renamed"));
+		assertSame(this.first.node(), this.rootNode.getChild("renamed"));
+		assertFalse(this.root.children.containsKey("first"));
+		EditorHistory.undo();
+		assertSame(this.first.resource(), this.root.children.get("first"));
+		assertFalse(this.root.children.containsKey("renamed"));
+	}
+
+	@Test
+	void doesNotReplaceSiblingsWithTheSameName() {
+		this.first.rename("second");
+		assertSame(this.second.resource(), this.root.children.get("second"));
+		assertSame(this.second.node(), this.rootNode.getChild("second"));
+		assertSame(this.first.resource(), this.root.children.get("second2"));
+		assertSame(this.first.node(), this.rootNode.getChild("second2"));
+		EditorHistory.undo();
+		assertSame(this.first.resource(), this.root.children.get("first"));
+		assertSame(this.second.resource(), this.root.children.get("second"));
+		assertEquals(2, this.root.children.size());
+	}
+
+	@Test
+	void ignoresBlankAndUnchangedNames() {
+		int version = EditorHistory.version();
+		this.first.rename("first");
+		this.first.rename(" ");
+		assertEquals(version, EditorHistory.version());
+		assertSame(this.first.resource(), this.root.children.get("first"));
+	}
+}
@@ -0,0 +1,157 @@
+package io.github.lwjre.editor.models;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSystemListenerTest {
+
+	@TempDir
+	Path folder;
+
+	final AtomicInteger calls = new AtomicInteger();
+
+	final List<Set<Path>> changes = new CopyOnWriteArrayList<>();
+
+	FileSystemListener listener;
+
+	Thread thread;
+
+	void listen(boolean recursive) throws IOException, InterruptedException {
+		this.listener = new FileSystemListener(this.folder, recursive, paths -> {
+			this.changes.add(Set.copyOf(paths));
+			this.calls.incrementAndGet();
+		});
+		this.thread = new Thread(this.listener::listen);
+		this.thread.start();
+		this.awaitListening();
+	}
+
+	/**
+	 * The folders are registered on the listener's thread, a probe file is written until the listener reports it.
+	 * The probe is then deleted and the calls it caused are forgotten.
+	 */
+	void awaitListening() throws IOException, InterruptedException {
+		Path probe = this.folder.resolve("probe.txt");
+		long deadline = System.currentTimeMillis() + 10000;
+		while(this.calls.get() == 0 && System.currentTimeMillis() < deadline) {
+			Files.writeString(probe, "");
+			this.awaitCalls(1, 500);
+		}
+		int calls = this.calls.get();
+		Files.delete(probe);
+		this.awaitCalls(calls + 1);
+		this.calls.set(0);
+		this.changes.clear();
+	}
+
+	void awaitCalls(int expected) throws InterruptedException {
+		this.awaitCalls(expected, 5000);
+	}
+
+	void awaitCalls(int expected, long timeout) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + timeout;
+		while(this.calls.get() < expected && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+	}
+
+	@AfterEach
+	void stop() throws InterruptedException {
+		if(this.listener != null) {
+			this.listener.stopListening();
+			this.thread.join(5000);
+		}
+	}
+
+	@Test
+	void coalescesABurstOfChanges() throws IOException, InterruptedException {
+		this.listen(true);
+		HashSet<Path> files = new HashSet<>();
+		for(int i = 0; i < 10; i++) {
+			Path file = this.folder.resolve("file" + i + ".txt");
+			Files.writeString(file, "content");
+			files.add(file);
+			Thread.sleep(20);
+		}
+		this.awaitCalls(1);
+		// Another call caused by the burst would be reported before the marker
+		Path marker = Files.writeString(this.folder.resolve("marker.txt"), "content");
+		this.awaitCalls(2);
+		assertEquals(2, this.calls.get());
+		assertEquals(files, this.changes.get(0));
+		assertEquals(Set.of(marker), this.changes.get(1));
+	}
+
+	@Test
+	void reportsSeparateBurstsSeparately() throws IOException, InterruptedException {
+		this.listen(true);
+		Path first = Files.writeString(this.folder.resolve("first.txt"), "content");
+		this.awaitCalls(1);
+		Path second = Files.writeString(this.folder.resolve("second.txt"), "content");
+		this.awaitCalls(2);
+		assertEquals(2, this.calls.get());
+		assertEquals(Set.of(first), this.changes.get(0));
+		assertEquals(Set.of(second), this.changes.get(1));
+	}
+
+	@Test
+	void listensToNewSubFolders() throws IOException, InterruptedException {
+		this.listen(true);
+		Path directory = Files.createDirectory(this.folder.resolve("directory"));
+		this.awaitCalls(1);
+		Path file = Files.writeString(directory.resolve("file.txt"), "content");
+		this.awaitCalls(2);
+		assertEquals(Set.of(directory), this.changes.get(0));
+		assertEquals(Set.of(file), this.changes.get(1));
+	}
+
+	@Test
+	void ignoresSubFoldersIfNotRecursive() throws IOException, InterruptedException {
+		Path directory = Files.createDirectory(this.folder.resolve("directory"));
+		this.listen(false);
+		Files.writeString(directory.resolve("file.txt"), "content");
+		Path file = Files.writeString(this.folder.resolve("file.txt"), "content");
+		this.awaitCalls(1);
+		assertEquals(1, this.calls.get());
+		assertTrue(this.changes.get(0).contains(file));
+		assertTrue(this.changes.get(0).stream().allMatch(path -> path.getParent().equals(this.folder)));
+	}
+
+	@Test
+	void doesNotUseTheCpuWhileIdle() throws IOException, InterruptedException {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		Assumptions.assumeTrue(threads.isThreadCpuTimeSupported(), "Thread CPU time is not supported");
+		threads.setThreadCpuTimeEnabled(true);
+		this.listen(true);
+		long before = threads.getThreadCpuTime(this.thread.getId());
+		Thread.sleep(1000);
+		long used = threads.getThreadCpuTime(this.thread.getId()) - before;
+		assertEquals(0, this.calls.get());
+		// Polling the watch service instead of blocking on it would keep the thread busy for most of the second
+		assertTrue(used < 50_000_000, "Used " + used + " nanoseconds");
+	}
+
+	@Test
+	void stopsWhileWaitingForChanges() throws IOException, InterruptedException {
+		this.listen(true);
+		this.listener.stopListening();
+		this.thread.join(5000);
+		assertFalse(this.thread.isAlive());
+		assertEquals(0, this.calls.get());
+	}
+}
@@ -0,0 +1,100 @@
+package io.github.lwjre.editor.models;
+
+import io.github.lwjre.editor.ProjectPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalCompilerTest {
+
+	@TempDir
+	Path project;
+
+	Path base;
+
+	Path user;
+
+	Path other;
+
+	final IncrementalCompiler compiler = new IncrementalCompiler();
+
+	@BeforeEach
+	void buildProject() throws IOException {
+		Files.writeString(this.project.resolve("pom.xml"), "<project><groupId>test</groupId><artifactId>project</artifactId><version>1.0</version></project>");
+		ProjectPath.setCurrent(this.project.toString());
+		Path sources = Files.createDirectories(ProjectPath.sourcesFolder().resolve("game"));
+		this.base = Files.writeString(sources.resolve("Base.java"), "package game; public class Base { public int value() { return 1; } }");
+		this.user = Files.writeString(sources.resolve("User.java"), "package game; public class User { public int use() { return new Base().value(); } }");
+		this.other = Files.writeString(sources.resolve("Other.java"), "package game; public class Other {}");
+		Path classes = Files.createDirectories(this.project.resolve("target/classes"));
+		assertEquals(0, ToolProvider.getSystemJavaCompiler().run(null, null, null, "-d", classes.toString(), this.base.toString(), this.user.toString(), this.other.toString()));
+		this.compiler.index();
+	}
+
+	@Test
+	void reloadsChangedClassesAndTheirDependents() throws IOException {
+		Files.writeString(this.base, "package game; public class Base { public int value() { return 2; } }");
+		assertTrue(this.compiler.compile(Set.of(this.base)));
+		assertEquals(Set.of("game.Base", "game.User"), this.compiler.reloadedClasses());
+	}
+
+	@Test
+	void doesNotReloadClassesWhoseBytecodeDidNotChange() throws IOException {
+		Files.writeString(this.base, "package game; public class Base { public int value() { return 1; } } // Only a comment was added");
+		assertTrue(this.compiler.compile(Set.of(this.base)));
+		assertTrue(this.compiler.reloadedClasses().isEmpty());
+	}
+
+	@Test
+	void removesClassesOfDeletedSources() throws IOException {
+		Files.delete(this.other);
+		assertTrue(this.compiler.compile(Set.of(this.other)));
+		assertEquals(Set.of("game.Other"), this.compiler.reloadedClasses());
+		assertFalse(Files.exists(this.project.resolve("target/classes/game/Other.class")));
+	}
+
+	@Test
+	void keepsTheClassesIfTheCompilationFails() throws IOException {
+		byte[] classFile = Files.readAllBytes(this.project.resolve("target/classes/game/Base.class"));
+		Files.writeString(this.base, "package game; public class Base { broken }");
+		assertFalse(this.compiler.compile(Set.of(this.base)));
+		assertArrayEquals(classFile, Files.readAllBytes(this.project.resolve("target/classes/game/Base.class")));
+	}
+
+	@Test
+	void reportsTheErrorsOfTheLastCompilation() throws IOException {
+		Files.writeString(this.base, "package game; public class Base {\n\tbroken\n}");
+		assertFalse(this.compiler.compile(Set.of(this.base)));
+		assertTrue(this.compiler.errors().startsWith("Base.java:2: "), this.compiler.errors());
+		Files.writeString(this.base, "package game; public class Base { public int value() { return 2; } }");
+		assertTrue(this.compiler.compile(Set.of(this.base)));
+		assertEquals("", this.compiler.errors());
+	}
+
+	@Test
+	void compilesForTheReleaseOfTheProject() throws IOException {
+		Files.writeString(this.project.resolve("pom.xml"), "<project><groupId>test</groupId><artifactId>project</artifactId><version>1.0</version><properties><maven.compiler.release>11</maven.compiler.release></properties></project>");
+		Files.writeString(this.base, "package game; public class Base { public int value() { return 2; } }");
+		assertTrue(this.compiler.compile(Set.of(this.base)));
+		byte[] classFile = Files.readAllBytes(this.project.resolve("target/classes/game/Base.class"));
+		assertEquals(55, ((classFile[6] & 0xFF) << 8) | (classFile[7] & 0xFF));
+	}
+
+	@Test
+	void keepsTrackOfNewDependencies() throws IOException {
+		Files.writeString(this.other, "package game; public class Other { Base base; }");
+		assertTrue(this.compiler.compile(Set.of(this.other)));
+		assertEquals(Set.of("game.Other"), this.compiler.reloadedClasses());
+		Files.writeString(this.base, "package game; public class Base { public int value() { return 3; } }");
+		assertTrue(this.compiler.compile(Set.of(this.base)));
+		assertEquals(Set.of("game.Base", "game.User", "game.Other"), this.compiler.reloadedClasses());
+	}
+}
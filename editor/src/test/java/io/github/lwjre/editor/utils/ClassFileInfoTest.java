@@ -0,0 +1,101 @@
+package io.github.lwjre.editor.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassFileInfoTest {
+
+	interface Fixture extends Callable<String> {
+
+	}
+
+	static abstract class AbstractFixture extends AbstractList<String> implements Fixture, Cloneable {
+
+	}
+
+	static class ConcreteFixture extends AbstractFixture {
+
+		private Map<String, Thread> threads;
+
+		@Override
+		public String get(int index) {
+			return String.valueOf(this.threads);
+		}
+
+		@Override
+		public int size() {
+			return 0;
+		}
+
+		@Override
+		public String call() {
+			return "" + 1L + 2.0;
+		}
+	}
+
+	static ClassFileInfo read(Class<?> type, boolean full) throws IOException {
+		try(InputStream inputStream = type.getResourceAsStream(type.getName().substring(type.getPackageName().length() + 1) + ".class")) {
+			assertNotNull(inputStream);
+			return full ? ClassFileInfo.read(inputStream) : ClassFileInfo.readHeader(inputStream);
+		}
+	}
+
+	@Test
+	void readsTheHeader() throws IOException {
+		ClassFileInfo classInfo = read(AbstractFixture.class, false);
+		assertEquals(AbstractFixture.class.getName(), classInfo.name());
+		assertEquals(AbstractList.class.getName(), classInfo.superName());
+		assertEquals(List.of(Fixture.class.getName(), Cloneable.class.getName()), classInfo.interfaces());
+		assertTrue(classInfo.referencedClasses().isEmpty());
+		assertNull(classInfo.sourceFile());
+	}
+
+	@Test
+	void readsReferencedClassesAndSourceFile() throws IOException {
+		ClassFileInfo classInfo = read(ConcreteFixture.class, true);
+		assertEquals(AbstractFixture.class.getName(), classInfo.superName());
+		assertTrue(classInfo.referencedClasses().contains(AbstractFixture.class.getName()));
+		assertTrue(classInfo.referencedClasses().contains(Map.class.getName()));
+		assertTrue(classInfo.referencedClasses().contains(Thread.class.getName()));
+		assertFalse(classInfo.referencedClasses().contains(ConcreteFixture.class.getName()));
+		assertEquals("ClassFileInfoTest.java", classInfo.sourceFile());
+	}
+
+	@Test
+	void headerMatchesTheFullClassFile() throws IOException {
+		ClassFileInfo header = read(ConcreteFixture.class, false);
+		ClassFileInfo full = read(ConcreteFixture.class, true);
+		assertEquals(full.accessFlags(), header.accessFlags());
+		assertEquals(full.name(), header.name());
+		assertEquals(full.superName(), header.superName());
+		assertEquals(full.interfaces(), header.interfaces());
+	}
+
+	@Test
+	void readsObjectWithoutSuperclass() throws IOException {
+		ClassFileInfo classInfo = read(Object.class, false);
+		assertEquals("java.lang.Object", classInfo.name());
+		assertNull(classInfo.superName());
+	}
+
+	@Test
+	void checksIfClassesAreConcrete() throws IOException {
+		assertTrue(read(ConcreteFixture.class, false).isConcrete());
+		assertFalse(read(AbstractFixture.class, false).isConcrete());
+		assertFalse(read(Fixture.class, false).isConcrete());
+	}
+
+	@Test
+	void rejectsFilesThatAreNotClassFiles() {
+		assertThrows(IOException.class, () -> ClassFileInfo.readHeader(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6, 7, 8})));
+	}
+}
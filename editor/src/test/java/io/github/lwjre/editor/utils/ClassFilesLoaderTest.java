@@ -0,0 +1,137 @@
+package io.github.lwjre.editor.utils;
+
+import io.github.lwjre.editor.ProjectPath;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassFilesLoaderTest {
+
+	@TempDir
+	Path project;
+
+	@TempDir
+	Path repository;
+
+	String previousRepository;
+
+	@BeforeEach
+	void createProject() throws IOException {
+		Files.writeString(this.project.resolve("pom.xml"), "<project><groupId>test</groupId><artifactId>project</artifactId><version>1.0</version></project>");
+		ProjectPath.setCurrent(this.project.toString());
+		this.previousRepository = System.getProperty("maven.repo.local");
+		System.setProperty("maven.repo.local", this.repository.toString());
+	}
+
+	@AfterEach
+	void restoreRepository() {
+		if(this.previousRepository != null) {
+			System.setProperty("maven.repo.local", this.previousRepository);
+		} else {
+			System.clearProperty("maven.repo.local");
+		}
+	}
+
+	void addDependency(String artifactId, Map<String, String> sources) throws IOException {
+		Path classes = this.project.resolve(artifactId);
+		this.compile(classes, sources);
+		Path jar = Files.createDirectories(this.repository.resolve("test/" + artifactId + "/1.0")).resolve(artifactId + "-1.0.jar");
+		try(JarOutputStream output = new JarOutputStream(Files.newOutputStream(jar))) {
+			for(String className : sources.keySet()) {
+				String name = className.replace('.', '/') + ".class";
+				output.putNextEntry(new JarEntry(name));
+				output.write(Files.readAllBytes(classes.resolve(name)));
+				output.closeEntry();
+			}
+		}
+	}
+
+	void compile(Path output, Map<String, String> sources) throws IOException {
+		Path sourcesFolder = Files.createDirectories(this.project.resolve("sources-" + output.getFileName()));
+		String classPath = System.getProperty("java.class.path") + File.pathSeparator + this.project.resolve("library");
+		ArrayList<String> arguments = new ArrayList<>(List.of("-cp", classPath, "-d", output.toString()));
+		for(Map.Entry<String, String> source : sources.entrySet()) {
+			Path file = sourcesFolder.resolve(source.getKey().replace('.', '/') + ".java");
+			Files.createDirectories(file.getParent());
+			Files.writeString(file, source.getValue());
+			arguments.add(file.toString());
+		}
+		assertEquals(0, ToolProvider.getSystemJavaCompiler().run(null, null, null, arguments.toArray(String[]::new)));
+	}
+
+	@Test
+	void findsNodeClassesFromTheirHeaders() throws IOException {
+		this.compile(this.project.resolve("target/classes"), Map.of(
+				"game.Player", "package game; public class Player extends io.github.lwjre.engine.nodes.Node {}",
+				"game.AbstractEnemy", "package game; public abstract class AbstractEnemy extends io.github.lwjre.engine.nodes.Node3D {}",
+				"game.enemies.Slime", "package game.enemies; public class Slime extends game.AbstractEnemy {}",
+				"game.util.Helper", "package game.util; public class Helper {}"
+		));
+		assertEquals(Set.of("game.Player", "game.enemies.Slime"), ClassFilesLoader.lookForClasses());
+	}
+
+	@Test
+	void scansJarsAndDirectoriesTogether() throws IOException {
+		Files.writeString(this.project.resolve("pom.xml"), """
+				<project>
+					<groupId>test</groupId>
+					<artifactId>project</artifactId>
+					<version>1.0</version>
+					<dependencies>
+						<dependency>
+							<groupId>test</groupId>
+							<artifactId>library</artifactId>
+							<version>1.0</version>
+						</dependency>
+					</dependencies>
+				</project>
+				""");
+		this.addDependency("library", Map.of(
+				"lib.LibraryNode", "package lib; public class LibraryNode extends io.github.lwjre.engine.nodes.Node {}",
+				"lib.LibraryHelper", "package lib; public class LibraryHelper {}"
+		));
+		HashMap<String, String> sources = new HashMap<>();
+		HashSet<String> expected = new HashSet<>(Set.of("lib.LibraryNode"));
+		for(int i = 0; i < 20; i++) {
+			String packageName = "game.level" + i + ".part" + (i % 3);
+			sources.put(packageName + ".Enemy", "package " + packageName + "; public class Enemy extends lib.LibraryNode {}");
+			sources.put(packageName + ".Data", "package " + packageName + "; public class Data {}");
+			expected.add(packageName + ".Enemy");
+		}
+		this.compile(this.project.resolve("target/classes"), sources);
+		assertEquals(expected, ClassFilesLoader.lookForClasses());
+	}
+
+	@Test
+	void writesTheScanCache() throws IOException {
+		this.compile(this.project.resolve("target/classes"), Map.of("game.Player", "package game; public class Player extends io.github.lwjre.engine.nodes.Node {}"));
+		ClassFilesLoader.lookForClasses();
+		Path cacheFile = this.project.resolve(".editor/class-scan.cache");
+		assertTrue(Files.isRegularFile(cacheFile));
+		Path classFile = this.project.resolve("target/classes/game/Player.class");
+		assertNotNull(ClassScanCache.read(cacheFile).getClassFile(classFile, Files.readAttributes(classFile, BasicFileAttributes.class)));
+	}
+
+	@Test
+	void findsNothingWithoutClasses() {
+		assertTrue(ClassFilesLoader.lookForClasses().isEmpty());
+	}
+}
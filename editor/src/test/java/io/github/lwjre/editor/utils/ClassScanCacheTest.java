@@ -0,0 +1,136 @@
+package io.github.lwjre.editor.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClassScanCacheTest {
+
+	@TempDir
+	Path folder;
+
+	Path jar;
+
+	Path classFile;
+
+	final ClassFileInfo jarClass = new ClassFileInfo(0x0021, "lib.Library", "java.lang.Object", List.of("java.lang.Runnable"), Set.of(), null);
+
+	final ClassFileInfo projectClass = new ClassFileInfo(0x0421, "game.Player", "io.github.lwjre.engine.nodes.Node", List.of(), Set.of(), null);
+
+	@BeforeEach
+	void createFiles() throws IOException {
+		this.jar = Files.writeString(this.folder.resolve("library.jar"), "jar content");
+		this.classFile = Files.writeString(this.folder.resolve("Player.class"), "class content");
+	}
+
+	BasicFileAttributes attributes(Path path) throws IOException {
+		return Files.readAttributes(path, BasicFileAttributes.class);
+	}
+
+	@Test
+	void returnsCachedHeadersOfUnchangedFiles() throws IOException {
+		ClassScanCache cache = new ClassScanCache();
+		cache.putJar(this.jar, this.attributes(this.jar), List.of(this.jarClass));
+		cache.putClassFile(this.classFile, this.attributes(this.classFile), this.projectClass);
+		assertEquals(List.of(this.jarClass), cache.getJar(this.jar, this.attributes(this.jar)));
+		assertEquals(this.projectClass, cache.getClassFile(this.classFile, this.attributes(this.classFile)));
+		assertNull(cache.getClassFile(this.folder.resolve("Other.class"), this.attributes(this.classFile)));
+	}
+
+	@Test
+	void comparesChecksumsOfTouchedJars() throws IOException {
+		ClassScanCache cache = new ClassScanCache();
+		cache.putJar(this.jar, this.attributes(this.jar), List.of(this.jarClass));
+		Files.setLastModifiedTime(this.jar, FileTime.fromMillis(this.attributes(this.jar).lastModifiedTime().toMillis() + 10000));
+		assertEquals(List.of(this.jarClass), cache.getJar(this.jar, this.attributes(this.jar)));
+		Files.writeString(this.jar, "jar CONTENT");
+		Files.setLastModifiedTime(this.jar, FileTime.fromMillis(this.attributes(this.jar).lastModifiedTime().toMillis() + 10000));
+		assertNull(cache.getJar(this.jar, this.attributes(this.jar)));
+	}
+
+	@Test
+	void comparesChecksumsOfRebuiltClassFiles() throws IOException {
+		ClassScanCache cache = new ClassScanCache();
+		cache.putClassFile(this.classFile, this.attributes(this.classFile), this.projectClass);
+		Files.writeString(this.classFile, "class content");
+		Files.setLastModifiedTime(this.classFile, FileTime.fromMillis(this.attributes(this.classFile).lastModifiedTime().toMillis() + 10000));
+		assertEquals(this.projectClass, cache.getClassFile(this.classFile, this.attributes(this.classFile)));
+		Files.writeString(this.classFile, "class CONTENT");
+		assertNull(cache.getClassFile(this.classFile, this.attributes(this.classFile)));
+		Files.writeString(this.classFile, "changed class content");
+		assertNull(cache.getClassFile(this.classFile, this.attributes(this.classFile)));
+	}
+
+	@Test
+	void missesJarsWithADifferentSize() throws IOException {
+		ClassScanCache cache = new ClassScanCache();
+		cache.putJar(this.jar, this.attributes(this.jar), List.of(this.jarClass));
+		Files.writeString(this.jar, "longer jar content");
+		assertNull(cache.getJar(this.jar, this.attributes(this.jar)));
+	}
+
+	@Test
+	void forgetsFilesThatAreNotRetained() throws IOException {
+		ClassScanCache cache = new ClassScanCache();
+		cache.putJar(this.jar, this.attributes(this.jar), List.of(this.jarClass));
+		cache.putClassFile(this.classFile, this.attributes(this.classFile), this.projectClass);
+		cache.retain(Set.of(), Set.of(this.classFile));
+		assertNull(cache.getJar(this.jar, this.attributes(this.jar)));
+		assertEquals(this.projectClass, cache.getClassFile(this.classFile, this.attributes(this.classFile)));
+	}
+
+	@Test
+	void survivesWritingAndReading() throws IOException {
+		ClassScanCache cache = new ClassScanCache();
+		cache.putJar(this.jar, this.attributes(this.jar), List.of(this.jarClass));
+		cache.putClassFile(this.classFile, this.attributes(this.classFile), this.projectClass);
+		Path file = this.folder.resolve(".editor/class-scan.cache");
+		cache.write(file);
+		ClassScanCache read = ClassScanCache.read(file);
+		assertEquals(List.of(this.jarClass), read.getJar(this.jar, this.attributes(this.jar)));
+		assertEquals(this.projectClass, read.getClassFile(this.classFile, this.attributes(this.classFile)));
+	}
+
+	@Test
+	void readsClassesWithoutSuperclass() throws IOException {
+		ClassScanCache cache = new ClassScanCache();
+		ClassFileInfo object = new ClassFileInfo(0x0021, "java.lang.Object", null, List.of(), Set.of(), null);
+		cache.putClassFile(this.classFile, this.attributes(this.classFile), object);
+		Path file = this.folder.resolve("class-scan.cache");
+		cache.write(file);
+		assertEquals(object, ClassScanCache.read(file).getClassFile(this.classFile, this.attributes(this.classFile)));
+	}
+
+	@Test
+	void replacesTheCacheFileWithoutLeavingTemporaryFiles() throws IOException {
+		Path folder = Files.createDirectories(this.folder.resolve("cache"));
+		Path file = Files.writeString(folder.resolve("class-scan.cache"), "an older cache");
+		ClassScanCache cache = new ClassScanCache();
+		cache.putClassFile(this.classFile, this.attributes(this.classFile), this.projectClass);
+		cache.write(file);
+		cache.write(file);
+		assertEquals(this.projectClass, ClassScanCache.read(file).getClassFile(this.classFile, this.attributes(this.classFile)));
+		try(Stream<Path> files = Files.list(folder)) {
+			assertEquals(List.of(file), files.toList());
+		}
+	}
+
+	@Test
+	void ignoresInvalidCacheFiles() throws IOException {
+		Path file = Files.writeString(this.folder.resolve("class-scan.cache"), "not a cache");
+		ClassScanCache cache = ClassScanCache.read(file);
+		assertNull(cache.getClassFile(this.classFile, this.attributes(this.classFile)));
+		assertNull(ClassScanCache.read(this.folder.resolve("missing.cache")).getClassFile(this.classFile, this.attributes(this.classFile)));
+	}
+}
@@ -0,0 +1,151 @@
+package io.github.lwjre.editor.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MavenResolverTest {
+
+	@TempDir
+	Path repository;
+
+	@TempDir
+	Path project;
+
+	String previousRepository;
+
+	@BeforeEach
+	void useLocalRepository() {
+		this.previousRepository = System.getProperty("maven.repo.local");
+		System.setProperty("maven.repo.local", this.repository.toString());
+	}
+
+	@AfterEach
+	void restoreLocalRepository() {
+		if(this.previousRepository != null) {
+			System.setProperty("maven.repo.local", this.previousRepository);
+		} else {
+			System.clearProperty("maven.repo.local");
+		}
+	}
+
+	Path install(String artifactId, String version, String content) throws IOException {
+		Path folder = Files.createDirectories(this.repository.resolve("lib").resolve(artifactId).resolve(version));
+		Files.writeString(folder.resolve(artifactId + "-" + version + ".pom"), pom(artifactId, version, content));
+		return Files.writeString(folder.resolve(artifactId + "-" + version + ".jar"), "jar");
+	}
+
+	Path jar(String artifactId, String version) {
+		return this.repository.resolve("lib").resolve(artifactId).resolve(version).resolve(artifactId + "-" + version + ".jar");
+	}
+
+	Path project(String content) throws IOException {
+		return Files.writeString(this.project.resolve("pom.xml"), pom("game", "1.0", content));
+	}
+
+	Path module(String name, String content) throws IOException {
+		return Files.writeString(Files.createDirectories(this.project.resolve(name)).resolve("pom.xml"), pom(name, "1.0", content));
+	}
+
+	static String pom(String artifactId, String version, String content) {
+		return "<project><modelVersion>4.0.0</modelVersion><groupId>lib</groupId><artifactId>" + artifactId + "</artifactId><version>" + version + "</version>" + content + "</project>";
+	}
+
+	static String dependency(String artifactId, String version, String extra) {
+		return "<dependency><groupId>lib</groupId><artifactId>" + artifactId + "</artifactId>" + (version != null ? "<version>" + version + "</version>" : "") + extra + "</dependency>";
+	}
+
+	static String dependencies(String... dependencies) {
+		return "<dependencies>" + String.join("", dependencies) + "</dependencies>";
+	}
+
+	@Test
+	void resolvesTransitiveDependencies() throws IOException {
+		install("a", "1.0", dependencies(dependency("b", "1.0", ""), dependency("c", "1.0", "<scope>runtime</scope>")));
+		install("b", "1.0", "");
+		install("c", "1.0", "");
+		Path pom = this.project(dependencies(dependency("a", "1.0", "")));
+		assertIterableEquals(List.of(this.jar("a", "1.0"), this.jar("b", "1.0"), this.jar("c", "1.0")), MavenResolver.runtimeClassPath(pom));
+		assertIterableEquals(List.of(this.jar("a", "1.0"), this.jar("b", "1.0")), MavenResolver.compileClassPath(pom));
+	}
+
+	@Test
+	void inheritsPropertiesAndDependenciesFromTheParent() throws IOException {
+		Path folder = Files.createDirectories(this.repository.resolve("lib/parent/2.0"));
+		Files.writeString(folder.resolve("parent-2.0.pom"), pom("parent", "2.0", "<packaging>pom</packaging><properties><a.version>1.1</a.version></properties>" + dependencies(dependency("b", "1.0", ""))));
+		install("a", "1.1", "");
+		install("b", "1.0", "");
+		Path pom = Files.writeString(this.project.resolve("pom.xml"), "<project><parent><groupId>lib</groupId><artifactId>parent</artifactId><version>2.0</version></parent><artifactId>game</artifactId>" + dependencies(dependency("a", "${a.version}", "")) + "</project>");
+		assertEquals(List.of(this.jar("b", "1.0"), this.jar("a", "1.1")), MavenResolver.runtimeClassPath(pom));
+	}
+
+	@Test
+	void importsManagedVersionsFromBoms() throws IOException {
+		Path folder = Files.createDirectories(this.repository.resolve("lib/bom/1.0"));
+		Files.writeString(folder.resolve("bom-1.0.pom"), pom("bom", "1.0", "<packaging>pom</packaging><dependencyManagement>" + dependencies(dependency("a", "2.0", ""), dependency("b", "3.0", "")) + "</dependencyManagement>"));
+		install("a", "2.0", dependencies(dependency("b", "1.0", "")));
+		install("b", "1.0", "");
+		install("b", "3.0", "");
+		Path pom = this.project("<dependencyManagement>" + dependencies(dependency("bom", "1.0", "<type>pom</type><scope>import</scope>")) + "</dependencyManagement>" + dependencies(dependency("a", null, "")));
+		assertIterableEquals(List.of(this.jar("a", "2.0"), this.jar("b", "3.0")), MavenResolver.runtimeClassPath(pom));
+	}
+
+	@Test
+	void appliesManagedScopesToTransitiveDependencies() throws IOException {
+		install("a", "1.0", dependencies(dependency("b", "1.0", ""), dependency("c", "1.0", "")));
+		install("b", "1.0", "");
+		install("c", "1.0", "");
+		Path pom = this.project("<dependencyManagement>" + dependencies(dependency("b", "1.0", "<scope>provided</scope>"), dependency("c", "1.0", "<scope>test</scope>")) + "</dependencyManagement>" + dependencies(dependency("a", "1.0", "")));
+		assertIterableEquals(List.of(this.jar("a", "1.0")), MavenResolver.runtimeClassPath(pom));
+		assertIterableEquals(List.of(this.jar("a", "1.0"), this.jar("b", "1.0")), MavenResolver.compileClassPath(pom));
+	}
+
+	@Test
+	void skipsExcludedAndOptionalDependencies() throws IOException {
+		install("a", "1.0", dependencies(dependency("b", "1.0", ""), dependency("c", "1.0", "<optional>true</optional>")));
+		install("b", "1.0", dependencies(dependency("d", "1.0", "")));
+		install("c", "1.0", "");
+		install("d", "1.0", "");
+		Path pom = this.project(dependencies(dependency("a", "1.0", "<exclusions><exclusion><groupId>lib</groupId><artifactId>d</artifactId></exclusion></exclusions>")));
+		assertIterableEquals(List.of(this.jar("a", "1.0"), this.jar("b", "1.0")), MavenResolver.runtimeClassPath(pom));
+	}
+
+	@Test
+	void separatesTestAndProvidedScopes() throws IOException {
+		install("a", "1.0", "");
+		install("b", "1.0", dependencies(dependency("c", "1.0", "")));
+		install("c", "1.0", "");
+		Path pom = this.project(dependencies(dependency("a", "1.0", "<scope>test</scope>"), dependency("b", "1.0", "<scope>provided</scope>")));
+		assertTrue(MavenResolver.runtimeClassPath(pom).isEmpty());
+		assertIterableEquals(List.of(this.jar("b", "1.0"), this.jar("c", "1.0")), MavenResolver.compileClassPath(pom));
+	}
+
+	@Test
+	void resolvesRangesToTheHighestInstalledVersion() throws IOException {
+		install("a", "1.0", "");
+		install("a", "1.5", "");
+		install("a", "1.10", "");
+		install("a", "2.0", "");
+		assertIterableEquals(List.of(this.jar("a", "1.10")), MavenResolver.runtimeClassPath(this.module("exclusive", dependencies(dependency("a", "(1.0,2.0)", "")))));
+		assertIterableEquals(List.of(this.jar("a", "2.0")), MavenResolver.runtimeClassPath(this.module("inclusive", dependencies(dependency("a", "[1.0,2.0]", "")))));
+		assertIterableEquals(List.of(this.jar("a", "1.5")), MavenResolver.runtimeClassPath(this.module("exact", dependencies(dependency("a", "[1.5]", "")))));
+		assertIterableEquals(List.of(this.jar("a", "2.0")), MavenResolver.runtimeClassPath(this.module("unbounded", dependencies(dependency("a", "(1.5,)", "")))));
+		assertTrue(MavenResolver.runtimeClassPath(this.module("missing", dependencies(dependency("a", "(2.0,3.0)", "")))).isEmpty());
+	}
+
+	@Test
+	void readsTheCompilerRelease() throws IOException {
+		assertNull(MavenResolver.compilerRelease(this.project("")));
+		assertEquals("8", MavenResolver.compilerRelease(this.project("<properties><maven.compiler.source>1.8</maven.compiler.source></properties>")));
+		assertEquals("11", MavenResolver.compilerRelease(this.project("<properties><java.version>11</java.version><maven.compiler.release>${java.version}</maven.compiler.release></properties>")));
+		assertEquals("17", MavenResolver.compilerRelease(this.project("<properties><maven.compiler.release>11</maven.compiler.release></properties><build><plugins><plugin><artifactId>maven-compiler-plugin</artifactId><configuration><release>17</release></configuration></plugin></plugins></build>")));
+	}
+}